@@ -0,0 +1,162 @@
+package com.mycompany.motorph.benchmarks;
+
+import com.mycompany.motorph.AttendanceRecord;
+import com.mycompany.motorph.AttendanceStore;
+import com.mycompany.motorph.Employee;
+import com.mycompany.motorph.EmployeeModelFromFile;
+import com.mycompany.motorph.EmployeeRegistry;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic employees and attendance punches for the benchmarks.
+ * Employees are numbered from 10001 and work consecutive days from 1 January 2024, one
+ * punch per day. Data is generated from a fixed seed so every run sees the same input.
+ */
+final class BenchmarkData {
+    static final int YEAR = 2024;
+    static final LocalDate FIRST_DAY = LocalDate.of(YEAR, 1, 1);
+
+    private static final int FIRST_EMPLOYEE_NUMBER = 10001;
+    private static final long SEED = 17L;
+
+    private BenchmarkData() {}
+
+    /**
+     * Creates synthetic employees with a mix of shifts and hourly rates.
+     */
+    static List<Employee> employees(int count) {
+        Random random = new Random(SEED);
+        String[] shifts = {"08:00", "09:00", "10:00"};
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(new Employee(employeeRow(i, shifts[i % shifts.length], 90 + random.nextInt(500))));
+        }
+        return employees;
+    }
+
+    /**
+     * Builds an attendance store with punchesPerEmployee consecutive days per employee.
+     * Time in varies around the shift start so that some punches are late.
+     */
+    static AttendanceStore attendance(List<Employee> employees, int punchesPerEmployee) {
+        Random random = new Random(SEED);
+        AttendanceStore.Builder builder = new AttendanceStore.Builder();
+        for (Employee employee : employees) {
+            int shiftStart = employee.getShiftStartTime().toSecondOfDay();
+            for (int day = 0; day < punchesPerEmployee; day++) {
+                int in = shiftStart + (random.nextInt(60) - 20) * 60;
+                int out = in + (8 + random.nextInt(4)) * 3600 + random.nextInt(60) * 60;
+                builder.add(employee.getEmployeeNumber(), employee.getFirstName(), employee.getLastName(),
+                        FIRST_DAY.plusDays(day), LocalTime.ofSecondOfDay(in), LocalTime.ofSecondOfDay(out % 86400));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Installs synthetic employees and attendance as the application's loaded data.
+     */
+    static void install(List<Employee> employees, AttendanceStore store) {
+        EmployeeModelFromFile.setRegistry(new EmployeeRegistry(employees));
+        AttendanceRecord.setAttendanceStore(store);
+    }
+
+    /**
+     * Writes the employees in the EmployeeData.xlsx layout.
+     */
+    static Path writeEmployeeWorkbook(List<Employee> employees, Path directory) throws IOException {
+        Path file = directory.resolve("EmployeeData-" + employees.size() + ".xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(256)) {
+            Sheet sheet = workbook.createSheet("Employee Details");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Employee #");
+            int rowNum = 1;
+            for (Employee employee : employees) {
+                Row row = sheet.createRow(rowNum++);
+                row.createCell(0).setCellValue(Double.parseDouble(employee.getEmployeeNumber()));
+                String[] values = {
+                    employee.getLastName(), employee.getFirstName(), employee.getBirthday(),
+                    employee.getAddress(), employee.getPhoneNumber(), employee.getSssNumber(),
+                    employee.getPhilhealthNumber(), employee.getTinNumber(), employee.getPagIbigNumber(),
+                    employee.getStatus(), employee.getPosition(), employee.getImmediateSupervisor(),
+                    employee.getBasicSalary(), employee.getRiceSubsidy(), employee.getPhoneAllowance(),
+                    employee.getClothingAllowance(), employee.getGrossSemiMonthlyRate()
+                };
+                for (int i = 0; i < values.length; i++) {
+                    row.createCell(i + 1).setCellValue(values[i]);
+                }
+                row.createCell(18).setCellValue(employee.getHourlyRate());
+                row.createCell(19).setCellValue(employee.getShiftStartTime().toString());
+                row.createCell(20).setCellValue(String.valueOf(employee.isNightShift()));
+            }
+            write(workbook, file);
+        }
+        return file;
+    }
+
+    /**
+     * Writes the attendance store in the AttendanceRecord.xlsx layout.
+     */
+    static Path writeAttendanceWorkbook(AttendanceStore store, Path directory) throws IOException {
+        Path file = directory.resolve("AttendanceRecord-" + store.size() + ".xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(256)) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("mm/dd/yyyy"));
+            CellStyle timeStyle = workbook.createCellStyle();
+            timeStyle.setDataFormat(workbook.createDataFormat().getFormat("h:mm"));
+
+            Sheet sheet = workbook.createSheet("Attendance Record");
+            Row header = sheet.createRow(0);
+            String[] titles = {"Employee #", "Last Name", "First Name", "Date", "Log In", "Log Out"};
+            for (int i = 0; i < titles.length; i++) {
+                header.createCell(i).setCellValue(titles[i]);
+            }
+            for (int i = 0; i < store.size(); i++) {
+                Row row = sheet.createRow(i + 1);
+                String[] name = store.getName(i).split(" ", 2);
+                row.createCell(0).setCellValue(Double.parseDouble(store.getEmployeeId(i)));
+                row.createCell(1).setCellValue(name[0]);
+                row.createCell(2).setCellValue(name.length > 1 ? name[1] : "");
+                row.createCell(3).setCellValue(LocalDate.ofEpochDay(store.getEpochDay(i)));
+                row.getCell(3).setCellStyle(dateStyle);
+                row.createCell(4).setCellValue(store.getTimeInSecond(i) / 86400.0);
+                row.getCell(4).setCellStyle(timeStyle);
+                row.createCell(5).setCellValue(store.getTimeOutSecond(i) / 86400.0);
+                row.getCell(5).setCellStyle(timeStyle);
+            }
+            write(workbook, file);
+        }
+        return file;
+    }
+
+    private static void write(SXSSFWorkbook workbook, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            workbook.write(out);
+        }
+    }
+
+    // One row of employee data in the order the Employee constructor expects
+    private static String[] employeeRow(int index, String shift, int hourlyRate) {
+        int number = FIRST_EMPLOYEE_NUMBER + index;
+        return new String[] {
+            String.valueOf(number), "Surname" + index, "Name" + index, "01/01/1990",
+            "Address " + index, "000-000-" + number, "00-" + number, "0000" + number,
+            "000-" + number, "0000" + number, "Regular", "Staff", "Supervisor",
+            String.valueOf(hourlyRate * 168), "1500", "1000", "1000",
+            String.valueOf(hourlyRate * 84), String.valueOf(hourlyRate), shift, "false"
+        };
+    }
+}
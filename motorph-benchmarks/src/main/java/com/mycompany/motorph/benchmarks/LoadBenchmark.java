@@ -0,0 +1,77 @@
+package com.mycompany.motorph.benchmarks;
+
+import com.mycompany.motorph.AttendanceRecord;
+import com.mycompany.motorph.Employee;
+import com.mycompany.motorph.EmployeeModelFromFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks of parsing the employee and attendance workbooks.
+ * The parsers are called directly, so the binary snapshot cache is not involved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoadBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int employeeCount;
+
+    @Param({"22", "250"})
+    public int punchesPerEmployee;
+
+    private Path directory;
+    private String employeeFile;
+    private String attendanceFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("motorph-bench");
+        List<Employee> employees = BenchmarkData.employees(employeeCount);
+        employeeFile = BenchmarkData.writeEmployeeWorkbook(employees, directory).toString();
+        attendanceFile = BenchmarkData.writeAttendanceWorkbook(
+                BenchmarkData.attendance(employees, punchesPerEmployee), directory).toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object loadAttendance() throws IOException {
+        return AttendanceRecord.loadAttendance(attendanceFile);
+    }
+
+    @Benchmark
+    public Object loadEmployees() throws IOException {
+        return EmployeeModelFromFile.parseEmployees(employeeFile);
+    }
+}
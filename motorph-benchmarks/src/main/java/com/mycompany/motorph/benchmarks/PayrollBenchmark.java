@@ -0,0 +1,92 @@
+package com.mycompany.motorph.benchmarks;
+
+import com.mycompany.motorph.Employee;
+import com.mycompany.motorph.Grosswage;
+import com.mycompany.motorph.Netwage;
+import com.mycompany.motorph.SSS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the per-payslip calculations, over every synthetic employee for one week.
+ * Each operation computes all employees, so the score grows with employeeCount.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayrollBenchmark {
+    private static final int MONTH = 2;
+    private static final int WEEK = 2;
+
+    @Param({"100", "1000", "10000"})
+    public int employeeCount;
+
+    @Param({"22", "250"})
+    public int punchesPerEmployee;
+
+    private Employee[] employees;
+    private Grosswage[] computedGross;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Employee> list = BenchmarkData.employees(employeeCount);
+        BenchmarkData.install(list, BenchmarkData.attendance(list, punchesPerEmployee));
+        employees = list.toArray(new Employee[0]);
+
+        // Gross wages for the deduction benchmarks, computed once
+        computedGross = new Grosswage[employees.length];
+        for (int i = 0; i < employees.length; i++) {
+            computedGross[i] = newGrosswage(employees[i]);
+            computedGross[i].calculate();
+        }
+    }
+
+    @Benchmark
+    public void grosswageCalculate(Blackhole blackhole) {
+        for (Employee employee : employees) {
+            blackhole.consume(newGrosswage(employee).calculate());
+        }
+    }
+
+    @Benchmark
+    public void netwageDeductionsAndTax(Blackhole blackhole) {
+        for (int i = 0; i < employees.length; i++) {
+            Grosswage grosswage = computedGross[i];
+            // A fresh Netwage each time so its cached deductions are recomputed
+            Netwage netwage = new Netwage(employees[i].getEmployeeNumber(), employees[i].getLastName(),
+                    grosswage.getResult().getGross(), grosswage.getHoursWorked(), WEEK, grosswage,
+                    MONTH, BenchmarkData.YEAR);
+            blackhole.consume(netwage.getTotalDeductions());
+            blackhole.consume(netwage.getWithholdingTax());
+        }
+    }
+
+    @Benchmark
+    public void sssCalculate(Blackhole blackhole) {
+        for (Grosswage grosswage : computedGross) {
+            blackhole.consume(new SSS(grosswage.getResult()).calculate());
+        }
+    }
+
+    private static Grosswage newGrosswage(Employee employee) {
+        return new Grosswage(employee.getEmployeeNumber(), employee.getFirstName(), employee.getLastName(),
+                BenchmarkData.YEAR, MONTH, WEEK, employee.getShiftStartTime(), employee.isNightShift());
+    }
+}
@@ -0,0 +1,254 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Index over the loaded attendance records, grouped by employee ID and sorted by date.
+ * Period lookups binary-search the employee's own rows in the columnar store instead of
+ * scanning every punch in the company.
+ */
+public class AttendanceIndex {
+
+    // Columnar store whose rows are already grouped by employee and sorted by date
+    private final AttendanceStore store;
+
+    // Registry whose ordinals the index accepts, and the store slot of each ordinal (-1 if none)
+    private final EmployeeRegistry registry;
+    private final int[] slotByOrdinal;
+
+    // Running totals per ordinal, built on first use and carried over by appends
+    private final AtomicReferenceArray<AttendancePrefixSums> prefixSums;
+
+    /**
+     * Creates an index over an attendance store, with no employee ordinals.
+     *
+     * @param store the attendance store
+     */
+    public AttendanceIndex(AttendanceStore store) {
+        this(store, new EmployeeRegistry(Collections.emptyList()));
+    }
+
+    /**
+     * Creates an index over an attendance store that also accepts the ordinals of a registry.
+     *
+     * @param store the attendance store
+     * @param registry the employee registry
+     */
+    public AttendanceIndex(AttendanceStore store, EmployeeRegistry registry) {
+        this.store = store;
+        this.registry = registry;
+        this.slotByOrdinal = new int[registry.size()];
+        for (int ordinal = 0; ordinal < slotByOrdinal.length; ordinal++) {
+            slotByOrdinal[ordinal] = store.slotOf(registry.getByOrdinal(ordinal).getEmployeeNumber());
+        }
+        this.prefixSums = new AtomicReferenceArray<>(slotByOrdinal.length);
+    }
+
+    /**
+     * Derives the index over a store that merged punches into this index's store.
+     * Employees without new punches keep their prefix sums, which depend only on their own
+     * punches; the sums of employees that received punches are rebuilt on next use.
+     *
+     * @param merged the store with the punches appended
+     * @param added the punches that were appended
+     * @return the index over the merged store, for the same registry
+     */
+    AttendanceIndex withAppended(AttendanceStore merged, AttendanceStore added) {
+        AttendanceIndex next = new AttendanceIndex(merged, registry);
+        for (int ordinal = 0; ordinal < slotByOrdinal.length; ordinal++) {
+            AttendancePrefixSums sums = prefixSums.get(ordinal);
+            if (sums != null && added.slotOf(registry.getByOrdinal(ordinal).getEmployeeNumber()) < 0) {
+                next.prefixSums.set(ordinal, sums);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Builds an index from a list of attendance records.
+     *
+     * @param records the attendance records to index
+     * @return the attendance index
+     */
+    public static AttendanceIndex build(List<AttendanceRecord> records) {
+        AttendanceStore.Builder builder = new AttendanceStore.Builder();
+        for (AttendanceRecord record : records) {
+            if (record != null) {
+                builder.add(record.getId(), record.getName(), record.getEpochDay(),
+                        record.getTimeInSecond(), record.getTimeOutSecond());
+            }
+        }
+        return new AttendanceIndex(builder.build());
+    }
+
+    /**
+     * Gets all dated attendance records of an employee, sorted by date.
+     *
+     * @param employeeId the employee ID
+     * @return the employee's records, or an empty list if there are none
+     */
+    public List<AttendanceRecord> getRecords(String employeeId) {
+        return rows(store.findRows(employeeId, AttendanceStore.NONE + 1L, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Gets the attendance records of an employee within a date range.
+     *
+     * @param employeeId the employee ID
+     * @param from the first date of the range (inclusive)
+     * @param to the last date of the range (inclusive)
+     * @return a view of the employee's records within the range, sorted by date
+     */
+    public List<AttendanceRecord> getRecords(String employeeId, LocalDate from, LocalDate to) {
+        return rows(findRows(employeeId, from, to));
+    }
+
+    /**
+     * Finds the store rows of an employee within a date range, for loops that read the
+     * store's columns directly.
+     *
+     * @param employeeId the employee ID
+     * @param from the first date of the range (inclusive)
+     * @param to the last date of the range (inclusive)
+     * @return the row range packed as (start << 32) | end
+     */
+    public long findRows(String employeeId, LocalDate from, LocalDate to) {
+        return store.findRows(employeeId, from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Gets the attendance records of an employee, by registry ordinal, within a date range.
+     *
+     * @param ordinal the employee's ordinal in the index's registry
+     * @param from the first date of the range (inclusive)
+     * @param to the last date of the range (inclusive)
+     * @return a view of the employee's records within the range, sorted by date
+     */
+    public List<AttendanceRecord> getRecords(int ordinal, LocalDate from, LocalDate to) {
+        return rows(findRows(ordinal, from, to));
+    }
+
+    /**
+     * Finds the store rows of an employee, by registry ordinal, within a date range.
+     *
+     * @param ordinal the employee's ordinal in the index's registry
+     * @param from the first date of the range (inclusive)
+     * @param to the last date of the range (inclusive)
+     * @return the row range packed as (start << 32) | end
+     */
+    public long findRows(int ordinal, LocalDate from, LocalDate to) {
+        int slot = ordinal >= 0 && ordinal < slotByOrdinal.length ? slotByOrdinal[ordinal] : -1;
+        return store.findRows(slot, from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Gets the attendance records of an employee, by registry ordinal, for a week of a month.
+     *
+     * @param ordinal the employee's ordinal in the index's registry
+     * @param year the target year
+     * @param month the target month (1-12)
+     * @param week the week of the month
+     * @return a view of the employee's records in that week
+     */
+    public List<AttendanceRecord> getRecordsForWeek(int ordinal, int year, int month, int week) {
+        if (week < 1 || week > 4) {
+            return Collections.emptyList();
+        }
+        YearMonth yearMonth = YearMonth.of(year, month);
+        LatePenalty.PayrollCycle weekly = LatePenalty.PayrollCycle.WEEKLY;
+        return getRecords(ordinal, yearMonth.atDay(weekly.getFirstDay(week)), yearMonth.atDay(weekly.getLastDay(yearMonth, week)));
+    }
+
+    /**
+     * Gets the running totals of an employee's punches, by registry ordinal, for O(1) totals
+     * over any date range. The sums are built on first use and kept until the employee's pay
+     * settings, punches or the holiday calendar change.
+     *
+     * @param ordinal the employee's ordinal in the index's registry
+     * @param hourlyRate the employee's hourly rate in centavos
+     * @param shiftStart the employee's scheduled shift start
+     * @return the employee's prefix sums; empty if the employee has no punches
+     */
+    public AttendancePrefixSums getPrefixSums(int ordinal, long hourlyRate, LocalTime shiftStart) {
+        AttendancePrefixSums sums = prefixSums.get(ordinal);
+        if (sums == null || !sums.isValidFor(hourlyRate, shiftStart)) {
+            // Racing builders compute the same sums; the last one wins
+            long rows = store.findRows(slotByOrdinal[ordinal], AttendanceStore.NONE + 1L, Integer.MAX_VALUE);  // Dated punches only
+            sums = AttendancePrefixSums.build(store, (int) (rows >>> 32), (int) rows, hourlyRate, shiftStart);
+            prefixSums.set(ordinal, sums);
+        }
+        return sums;
+    }
+
+    /**
+     * Gets the attendance records of an employee for a week of a month.
+     * Week N covers days 7(N-1)+1 to 7N of the month, and week 4 runs to the end of the month,
+     * matching AttendanceRecord.getWeekOfMonth.
+     *
+     * @param employeeId the employee ID
+     * @param year the target year
+     * @param month the target month (1-12)
+     * @param week the week of the month
+     * @return a view of the employee's records in that week
+     */
+    public List<AttendanceRecord> getRecordsForWeek(String employeeId, int year, int month, int week) {
+        if (week < 1 || week > 4) {
+            return Collections.emptyList();
+        }
+        YearMonth yearMonth = YearMonth.of(year, month);
+        LatePenalty.PayrollCycle weekly = LatePenalty.PayrollCycle.WEEKLY;
+        return getRecords(employeeId, yearMonth.atDay(weekly.getFirstDay(week)), yearMonth.atDay(weekly.getLastDay(yearMonth, week)));
+    }
+
+    /**
+     * Gets the attendance records of an employee for a whole month.
+     *
+     * @param employeeId the employee ID
+     * @param year the target year
+     * @param month the target month (1-12)
+     * @return a view of the employee's records in that month
+     */
+    public List<AttendanceRecord> getRecordsForMonth(String employeeId, int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return getRecords(employeeId, yearMonth.atDay(1), yearMonth.atEndOfMonth());
+    }
+
+    /**
+     * Gets the number of employees with at least one indexed record.
+     *
+     * @return the number of employees in the index
+     */
+    public int getEmployeeCount() {
+        return store.getEmployeeCount();
+    }
+
+    /**
+     * Gets the registry whose ordinals the index accepts.
+     *
+     * @return the employee registry
+     */
+    public EmployeeRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Gets the columnar store behind the index.
+     *
+     * @return the attendance store
+     */
+    public AttendanceStore getStore() {
+        return store;
+    }
+
+    // Turns a packed row range into a list of record views
+    private List<AttendanceRecord> rows(long range) {
+        int start = (int) (range >>> 32);
+        int end = (int) range;
+        return start == end ? Collections.emptyList() : store.rows(start, end);
+    }
+}
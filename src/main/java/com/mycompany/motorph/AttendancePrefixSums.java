@@ -0,0 +1,214 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * Running totals of one employee's punches by day: regular, overtime, night, holiday and late
+ * minutes, and the matching pay and penalty amounts in centavos.
+ *
+ * The arrays are indexed by day offset from the first day of the month of the employee's
+ * earliest punch: entry d holds the totals of every punch before day firstDay + d, so days
+ * without punches repeat the previous entry and several punches on one day are summed into
+ * it. The total over any date range is then two array reads and a subtraction, with no search,
+ * whether the range is a week, a half-month, a custom pay period or a year to date. The
+ * arrays cover the employee's span of days, which for daily punches is about one entry per
+ * punch.
+ *
+ * Amounts are rounded per day, as in the per-punch calculation, so a range total equals the
+ * sum of its daily amounts. The sums depend on the employee's pay settings and the holiday
+ * calendar they were built with; AttendanceIndex rebuilds them when either changes.
+ */
+public final class AttendancePrefixSums {
+
+    private static final int GRACE_PERIOD_MINUTES = 15;
+
+    // Settings the sums were computed with
+    private final long hourlyRate;
+    private final LocalTime shiftStart;
+    private final long holidayVersion;
+
+    // Epoch day of entry 0, and the number of days the arrays cover
+    private final int firstDay;
+    private final int span;
+
+    // Epoch day of each punch, ascending
+    private final int[] days;
+
+    // Totals of the punches before each day offset
+    private final int[] punches;
+    private final int[] regularMinutes;
+    private final int[] overtimeMinutes;
+    private final int[] nightMinutes;
+    private final int[] holidayMinutes;
+    private final int[] lateMinutes;
+    private final long[] regularPay;
+    private final long[] overtimePay;
+    private final long[] nightDifferentialPay;
+    private final long[] holidayPay;
+    private final long[] latePenalty;
+
+    private AttendancePrefixSums(long hourlyRate, LocalTime shiftStart, long holidayVersion,
+                                 int firstDay, int span, int punchCount) {
+        this.hourlyRate = hourlyRate;
+        this.shiftStart = shiftStart;
+        this.holidayVersion = holidayVersion;
+        this.firstDay = firstDay;
+        this.span = span;
+        this.days = new int[punchCount];
+        this.punches = new int[span + 1];
+        this.regularMinutes = new int[span + 1];
+        this.overtimeMinutes = new int[span + 1];
+        this.nightMinutes = new int[span + 1];
+        this.holidayMinutes = new int[span + 1];
+        this.lateMinutes = new int[span + 1];
+        this.regularPay = new long[span + 1];
+        this.overtimePay = new long[span + 1];
+        this.nightDifferentialPay = new long[span + 1];
+        this.holidayPay = new long[span + 1];
+        this.latePenalty = new long[span + 1];
+    }
+
+    /**
+     * Computes the running totals of a range of store rows, which must hold one employee's
+     * punches sorted by date.
+     *
+     * @param store The attendance store.
+     * @param start The employee's first row.
+     * @param end One past the employee's last row.
+     * @param hourlyRate The employee's hourly rate in centavos.
+     * @param shiftStart The scheduled shift start, for late minutes.
+     * @return The prefix sums.
+     */
+    static AttendancePrefixSums build(AttendanceStore store, int start, int end, long hourlyRate,
+                                      LocalTime shiftStart) {
+        // Read the version first, so a holiday change during the build makes the sums stale
+        long holidayVersion = HolidayChecker.getVersion();
+        int firstDay = 0;
+        int span = 0;
+        if (end > start) {
+            firstDay = (int) LocalDate.ofEpochDay(store.getEpochDay(start)).withDayOfMonth(1).toEpochDay();
+            span = store.getEpochDay(end - 1) - firstDay + 1;
+        }
+        AttendancePrefixSums sums = new AttendancePrefixSums(hourlyRate, shiftStart, holidayVersion, firstDay, span, end - start);
+        ShiftSplitter splitter = new ShiftSplitter(hourlyRate);
+        int lateThreshold = shiftStart.plusMinutes(GRACE_PERIOD_MINUTES).toSecondOfDay();
+
+        int row = start;
+        for (int d = 1; d <= span; d++) {
+            sums.carry(d);
+            // Add the punches of day d - 1 to the totals before day d
+            for (; row < end && store.getEpochDay(row) == firstDay + d - 1; row++) {
+                int in = store.getTimeInSecond(row);
+                int out = store.getTimeOutSecond(row);
+                if (in == AttendanceStore.NONE || out == AttendanceStore.NONE) {
+                    System.err.println("TimeIn or TimeOut is null for record: " + store.getEmployeeId(row));
+                }
+
+                // Each daily amount is rounded to the centavo, as before the punch was split
+                splitter.split(firstDay + d - 1, in, out);
+
+                // A missing time in is never late
+                int dayLateMinutes = in != AttendanceStore.NONE && in > lateThreshold ? (in - lateThreshold) / 60 : 0;
+                long dayLatePenalty = Money.divide(hourlyRate * dayLateMinutes, 60);
+
+                sums.days[row - start] = firstDay + d - 1;
+                sums.punches[d]++;
+                sums.regularMinutes[d] += splitter.getRegularMinutes();
+                sums.overtimeMinutes[d] += splitter.getOvertimeMinutes();
+                sums.nightMinutes[d] += splitter.getNightMinutes();
+                sums.holidayMinutes[d] += splitter.getHolidayMinutes();
+                sums.lateMinutes[d] += dayLateMinutes;
+                sums.regularPay[d] += splitter.getRegularPayCentavos();
+                sums.overtimePay[d] += splitter.getOvertimePayCentavos();
+                sums.nightDifferentialPay[d] += splitter.getNightDifferentialPayCentavos();
+                sums.holidayPay[d] += splitter.getHolidayPayCentavos();
+                sums.latePenalty[d] += dayLatePenalty;
+            }
+        }
+        return sums;
+    }
+
+    // Starts entry d from the totals before the previous day
+    private void carry(int d) {
+        punches[d] = punches[d - 1];
+        regularMinutes[d] = regularMinutes[d - 1];
+        overtimeMinutes[d] = overtimeMinutes[d - 1];
+        nightMinutes[d] = nightMinutes[d - 1];
+        holidayMinutes[d] = holidayMinutes[d - 1];
+        lateMinutes[d] = lateMinutes[d - 1];
+        regularPay[d] = regularPay[d - 1];
+        overtimePay[d] = overtimePay[d - 1];
+        nightDifferentialPay[d] = nightDifferentialPay[d - 1];
+        holidayPay[d] = holidayPay[d - 1];
+        latePenalty[d] = latePenalty[d - 1];
+    }
+
+    // The sums were built with these settings and the current holiday calendar
+    boolean isValidFor(long hourlyRate, LocalTime shiftStart) {
+        return this.hourlyRate == hourlyRate && this.shiftStart.equals(shiftStart)
+                && holidayVersion == HolidayChecker.getVersion();
+    }
+
+    /**
+     * Finds the days within a date range.
+     *
+     * @param from The first date of the range (inclusive).
+     * @param to The last date of the range (inclusive).
+     * @return The range packed as (start << 32) | end, for the range getters.
+     */
+    public long range(LocalDate from, LocalDate to) {
+        return range((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    /**
+     * Finds the days within a range of epoch days. Days outside the employee's span clamp to
+     * its ends, so ranges before the first punch or after the last one are empty.
+     *
+     * @param fromDay The first epoch day of the range (inclusive).
+     * @param toDay The last epoch day of the range (inclusive).
+     * @return The range packed as (start << 32) | end, for the range getters.
+     */
+    public long range(int fromDay, int toDay) {
+        int start = offset(fromDay);
+        int end = Math.max(start, offset(toDay + 1L));
+        return ((long) start << 32) | end;
+    }
+
+    // Entry holding the totals before an epoch day, clamped to the covered days
+    private int offset(long day) {
+        return (int) Math.min(Math.max(day - firstDay, 0), span);
+    }
+
+    // Totals over a range from range(); each is one subtraction
+    public int getPunchCount(long range) { return punches[end(range)] - punches[start(range)]; }
+    public int getRegularMinutes(long range) { return regularMinutes[end(range)] - regularMinutes[start(range)]; }
+    public int getOvertimeMinutes(long range) { return overtimeMinutes[end(range)] - overtimeMinutes[start(range)]; }
+    public int getWorkedMinutes(long range) { return getRegularMinutes(range) + getOvertimeMinutes(range); }
+    public int getNightMinutes(long range) { return nightMinutes[end(range)] - nightMinutes[start(range)]; }
+    public int getHolidayMinutes(long range) { return holidayMinutes[end(range)] - holidayMinutes[start(range)]; }
+    public int getLateMinutes(long range) { return lateMinutes[end(range)] - lateMinutes[start(range)]; }
+    public long getRegularPayCentavos(long range) { return regularPay[end(range)] - regularPay[start(range)]; }
+    public long getOvertimePayCentavos(long range) { return overtimePay[end(range)] - overtimePay[start(range)]; }
+    public long getNightDifferentialPayCentavos(long range) { return nightDifferentialPay[end(range)] - nightDifferentialPay[start(range)]; }
+    public long getHolidayPayCentavos(long range) { return holidayPay[end(range)] - holidayPay[start(range)]; }
+    public long getLatePenaltyCentavos(long range) { return latePenalty[end(range)] - latePenalty[start(range)]; }
+
+    /**
+     * Gets the epoch days of the punches in a range.
+     * @param range A range from range().
+     * @return The epoch days, in date order.
+     */
+    public int[] getDays(long range) {
+        return Arrays.copyOfRange(days, punches[start(range)], punches[end(range)]);
+    }
+
+    private static int start(long range) {
+        return (int) (range >>> 32);
+    }
+
+    private static int end(long range) {
+        return (int) range;
+    }
+}
@@ -1,119 +1,255 @@
 package com.mycompany.motorph;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.mycompany.motorph.XlsxStreamReader.SheetRow;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.text.DecimalFormat;
-import java.time.Duration;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.List;
 
 public class AttendanceRecord {
-    // Attributes to store employee attendance details
-    private String name;
-    private String id;
-    private LocalDate date;
-    private LocalTime timeIn;
-    private LocalTime timeOut;
+    // Attendance details live in a columnar store; a record is a view over one of its rows
+    private final AttendanceStore store;
+    private final int row;
 
     // Constants for file path and formatting
     private static final String XLSX_FILE_PATH = "src/main/resources/AttendanceRecord.xlsx";
-    private static final DecimalFormat decimalFormat = new DecimalFormat("#.##");
     private static final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
     private static final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
-    // Collection to store attendance records
-    public static ArrayList<AttendanceRecord> attendanceRecords = new ArrayList<>();
+    // The loaded attendance store and its index live in the PayrollSnapshot
+
+    private static final Metrics.Timer LOAD_TIMER = Metrics.timer("load.attendance");
+    private static final Metrics.Timer DELTA_TIMER = Metrics.timer("load.attendanceDelta");
 
     // Constructor to initialize an AttendanceRecord object
     public AttendanceRecord(String name, String id, LocalDate date, LocalTime timeIn, LocalTime timeOut) {
-        this.name = name;
-        this.id = id;
-        this.date = date;
-        this.timeIn = timeIn;
-        this.timeOut = timeOut;
+        this(new AttendanceStore.Builder().add(id, name, date, timeIn, timeOut).build(), 0);
     }
 
     // Constructor to initialize an AttendanceRecord from an array of data
     public AttendanceRecord(String[] data) {
+        this(parseData(data), 0);
+    }
+
+    public AttendanceRecord() {
+        this(null, null, null, null, null);
+    }
+
+    // Constructor for a view over a row of an attendance store
+    AttendanceRecord(AttendanceStore store, int row) {
+        this.store = store;
+        this.row = row;
+    }
+
+    // Method to parse an array of data into a single-row store
+    private static AttendanceStore parseData(String[] data) {
         if (data.length < 6) {
             throw new IllegalArgumentException("Insufficient data to create AttendanceRecord");
         }
-        this.id = data[0];
-        this.name = data[1] + " " + data[2].trim();
-        this.date = LocalDate.parse(data[3], dateFormatter);
-        this.timeIn = LocalTime.parse(data[4], timeFormatter);
-        this.timeOut = LocalTime.parse(data[5], timeFormatter);
+        return new AttendanceStore.Builder().add(
+                data[0],
+                data[1] + " " + data[2].trim(),
+                LocalDate.parse(data[3], dateFormatter),
+                LocalTime.parse(data[4], timeFormatter),
+                LocalTime.parse(data[5], timeFormatter)).build();
     }
 
-    public AttendanceRecord() {}
+    // Codec for caching the parsed attendance store in a binary snapshot
+    private static final SnapshotCache.Codec<AttendanceStore> SNAPSHOT_CODEC = new SnapshotCache.Codec<>() {
+        @Override
+        public String getName() { return "attendance"; }
+
+        @Override
+        public int getVersion() { return 2; }
 
-    // Method to load attendance records from an Excel file
+        @Override
+        public void write(AttendanceStore store, SnapshotCache.SnapshotWriter out) throws IOException {
+            out.writeInt(store.size());
+            for (int i = 0; i < store.size(); i++) {
+                out.writeString(store.getEmployeeId(i));
+                out.writeString(store.getName(i));
+                out.writeInt(store.getEpochDay(i));
+                out.writeInt(store.getTimeInSecond(i));
+                out.writeInt(store.getTimeOutSecond(i));
+            }
+        }
+
+        @Override
+        public AttendanceStore read(SnapshotCache.SnapshotReader in) {
+            int size = in.readInt();
+            AttendanceStore.Builder builder = new AttendanceStore.Builder();
+            for (int i = 0; i < size; i++) {
+                builder.add(in.readString(), in.readString(), in.readInt(), in.readInt(), in.readInt());
+            }
+            return builder.build();
+        }
+    };
+
+    // Method to load attendance records from an Excel file, using the binary snapshot when it is current.
+    // Flat .csv/.ndjson exports are parsed directly; they load about as fast as a snapshot.
     public static void loadAttendanceFromExcel(String filePath) {
         try {
-            attendanceRecords = loadAttendance(filePath);
-            System.out.println("Loaded " + attendanceRecords.size() + " attendance records.");
+            AttendanceStore store = readAttendance(filePath);
+            setAttendanceStore(store);
+            System.out.println("Loaded " + store.size() + " attendance records.");
         } catch (IOException e) {
             System.err.println("Error loading attendance records: " + e.getMessage());
         }
     }
 
+    // Method to load the attendance the application starts with; failures are rethrown for the Dataset to report
+    static AttendanceStore loadStartupStore(String filePath) {
+        try {
+            AttendanceStore store = readAttendance(filePath);
+            System.out.println("Loaded " + store.size() + " attendance records.");
+            return store;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Method to read an attendance file into a store, through the binary snapshot for workbooks
+    private static AttendanceStore readAttendance(String filePath) throws IOException {
+        long start = Metrics.start();
+        try {
+            return FlatFileAttendanceLoader.isFlatFile(filePath)
+                    ? FlatFileAttendanceLoader.load(filePath)
+                    : SnapshotCache.loadOrParse(filePath, SNAPSHOT_CODEC, path -> List.of(loadAttendanceStore(path))).get(0);
+        } finally {
+            LOAD_TIMER.stop(start);
+        }
+    }
+
+    // Method to merge the punches of a delta file (e.g. one day's export) into the loaded attendance
+    public static void loadAttendanceDelta(String filePath) {
+        long start = Metrics.start();
+        try {
+            // Delta files are read once, so they skip the snapshot cache
+            AttendanceStore delta = loadAttendanceStore(filePath);
+            int added = appendAttendance(delta);
+            System.out.println("Merged " + added + " new attendance records from " + filePath
+                    + " (" + (delta.size() - added) + " already loaded).");
+        } catch (IOException e) {
+            System.err.println("Error loading attendance delta: " + e.getMessage());
+        } finally {
+            DELTA_TIMER.stop(start);
+        }
+    }
+
+    // Method to append punches to the loaded attendance without reloading it.
+    // Punches identical to a loaded one are skipped, so re-importing a file is harmless.
+    // Employees without new punches keep their rows and prefix sums; only the others are copied or rebuilt.
+    public static int appendAttendance(AttendanceStore delta) {
+        AttendanceStore[] addedRows = new AttendanceStore[1];
+        // Appends run under the publish lock, so no other reload can slip in between
+        PayrollSnapshot.publish(snapshot -> {
+            AttendanceStore base = snapshot.getAttendanceStore();
+            AttendanceStore.Builder builder = new AttendanceStore.Builder();
+            for (int i = 0; i < delta.size(); i++) {
+                String id = delta.getEmployeeId(i);
+                int day = delta.getEpochDay(i);
+                int in = delta.getTimeInSecond(i);
+                int out = delta.getTimeOutSecond(i);
+                if (!base.containsPunch(id, day, in, out)) {
+                    builder.add(id, delta.getName(i), day, in, out);
+                }
+            }
+            if (builder.size() == 0) {
+                return snapshot;
+            }
+            AttendanceStore added = builder.build();
+            AttendanceStore merged = base.append(added);
+            addedRows[0] = added;
+            return snapshot.withAppendedAttendance(merged, added);
+        });
+        if (addedRows[0] == null) {
+            return 0;
+        }
+
+        // Drop only the cached payslips of the weeks that received punches
+        AttendanceStore added = addedRows[0];
+        PayslipCache payslips = PayslipCache.getDefault();
+        for (int i = 0; i < added.size(); i++) {
+            if (added.getEpochDay(i) != AttendanceStore.NONE) {
+                payslips.invalidateAttendance(added.getEmployeeId(i), LocalDate.ofEpochDay(added.getEpochDay(i)));
+            }
+        }
+        return added.size();
+    }
+
+    // Method to append individual attendance records to the loaded attendance
+    public static int appendAttendance(List<AttendanceRecord> records) {
+        AttendanceStore.Builder builder = new AttendanceStore.Builder();
+        for (AttendanceRecord record : records) {
+            builder.add(record.getId(), record.getName(), record.getEpochDay(),
+                    record.getTimeInSecond(), record.getTimeOutSecond());
+        }
+        return appendAttendance(builder.build());
+    }
+
     // Method to read and parse attendance records from an Excel file
     public static ArrayList<AttendanceRecord> loadAttendance(String filePath) throws IOException {
-        ArrayList<AttendanceRecord> attendanceRecords = new ArrayList<>();
-
-        try (FileInputStream fis = new FileInputStream(filePath);
-             Workbook workbook = new XSSFWorkbook(fis)) {
+        return new ArrayList<>(loadAttendanceStore(filePath).asList());
+    }
 
-            Sheet sheet = workbook.getSheetAt(0);
+    // Method to read and parse attendance records from an Excel file (or a flat export) straight into a columnar store
+    public static AttendanceStore loadAttendanceStore(String filePath) throws IOException {
+        if (FlatFileAttendanceLoader.isFlatFile(filePath)) {
+            return FlatFileAttendanceLoader.load(filePath);
+        }
+        AttendanceStore.Builder builder = new AttendanceStore.Builder();
 
-            // Iterate through rows, skipping header row
-            for (int rowIndex = 1; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-                Row row = sheet.getRow(rowIndex);
-                if (row != null) {
-                    String id = getCellValueAsString(row.getCell(0)).replace(".0", "");
-                    String name = getCellValueAsString(row.getCell(1));
-                    String surname = getCellValueAsString(row.getCell(2)).trim();
+        // Stream the sheet row by row instead of building the whole workbook in memory
+        XlsxStreamReader.readFirstSheet(filePath, row -> {
+            // Skip header row
+            if (row.getRowNum() == 0) {
+                return;
+            }
 
-                    LocalDate date = parseDate(row.getCell(3));
-                    LocalTime timeIn = parseTime(row.getCell(4));
-                    LocalTime timeOut = parseTime(row.getCell(5));
+            String id = getCellValueAsString(row, 0).replace(".0", "");
+            String name = getCellValueAsString(row, 1);
+            String surname = getCellValueAsString(row, 2).trim();
 
-                    // Skip records with missing time values
-                    if (timeIn == null || timeOut == null) {
-                        System.out.println("Skipping record with missing time values: " + id);
-                        continue;
-                    }
+            LocalDate date = parseDate(row, 3);
+            LocalTime timeIn = parseTime(row, 4);
+            LocalTime timeOut = parseTime(row, 5);
 
-                    attendanceRecords.add(new AttendanceRecord(name + " " + surname, id, date, timeIn, timeOut));
-                }
+            // Skip records with missing time values
+            if (timeIn == null || timeOut == null) {
+                System.out.println("Skipping record with missing time values: " + id);
+                return;
             }
-        }
 
-        return attendanceRecords;
+            builder.add(id, name, surname, date, timeIn, timeOut);
+        });
+
+        return builder.build();
     }
 
-    // Method to parse a date value from an Excel cell
-    private static LocalDate parseDate(Cell cell) {
-        if (cell == null) {
+    // Method to parse a date value from a streamed Excel cell
+    private static LocalDate parseDate(SheetRow row, int column) {
+        int cell = row.indexOfColumn(column);
+        if (cell < 0) {
             System.err.println("Date cell is null.");
             return null;
         }
         try {
-            String cellValue = getCellValueAsString(cell);
+            CellType cellType = row.getTypeAt(cell);
 
-            if (cell.getCellType() == CellType.NUMERIC) {
-                return cell.getLocalDateTimeCellValue().toLocalDate();
-            } else if (cell.getCellType() == CellType.STRING) {
-                String dateString = cellValue.trim();
+            if (cellType == CellType.NUMERIC) {
+                return DateUtil.getLocalDateTime(row.getNumberAt(cell)).toLocalDate();
+            } else if (cellType == CellType.STRING) {
+                String dateString = row.getStringAt(cell).trim();
                 String dateOnly = dateString.substring(0, 10);
                 return LocalDate.parse(dateOnly, dateFormatter);
             } else {
-                System.err.println("Unsupported cell type for date: " + cell.getCellType());
+                System.err.println("Unsupported cell type for date: " + cellType);
                 return null;
             }
         } catch (Exception e) {
@@ -122,30 +258,31 @@ public class AttendanceRecord {
         }
     }
 
-    // Method to parse a time value from an Excel cell
-    private static LocalTime parseTime(Cell cell) {
-        if (cell == null) {
+    // Method to parse a time value from a streamed Excel cell
+    private static LocalTime parseTime(SheetRow row, int column) {
+        int cell = row.indexOfColumn(column);
+        if (cell < 0) {
             System.err.println("Time cell is null.");
             return null;
         }
         try {
-            String cellValue = getCellValueAsString(cell);
+            CellType cellType = row.getTypeAt(cell);
 
-            if (cell.getCellType() == CellType.NUMERIC) {
-                double numericValue = cell.getNumericCellValue();
+            if (cellType == CellType.NUMERIC) {
+                double numericValue = row.getNumberAt(cell);
                 int hours = (int) (numericValue * 24);
                 int minutes = (int) ((numericValue * 24 * 60) % 60);
                 int seconds = (int) ((numericValue * 24 * 60 * 60) % 60);
                 return LocalTime.of(hours, minutes, seconds);
-            } else if (cell.getCellType() == CellType.STRING) {
-                String timeString = cellValue.trim();
+            } else if (cellType == CellType.STRING) {
+                String timeString = row.getStringAt(cell).trim();
                 if (timeString.isEmpty()) {
                     System.err.println("Time string is empty.");
                     return null;
                 }
                 return LocalTime.parse(timeString, timeFormatter);
             } else {
-                System.err.println("Unsupported cell type for time: " + cell.getCellType());
+                System.err.println("Unsupported cell type for time: " + cellType);
                 return null;
             }
         } catch (Exception e) {
@@ -154,65 +291,70 @@ public class AttendanceRecord {
         }
     }
 
-    // Method to get the value of an Excel cell as a string
-    private static String getCellValueAsString(Cell cell) {
-        if (cell == null) {
+    // Method to get the value of a streamed Excel cell as a string
+    private static String getCellValueAsString(SheetRow row, int column) {
+        int cell = row.indexOfColumn(column);
+        if (cell < 0) {
             return "";
         }
-        return switch (cell.getCellType()) {
-            case STRING -> cell.getStringCellValue();
-            case NUMERIC -> String.valueOf(cell.getNumericCellValue());
-            case BOOLEAN -> String.valueOf(cell.getBooleanCellValue());
-            case FORMULA -> cell.getCellFormula();
+        return switch (row.getTypeAt(cell)) {
+            case STRING, BOOLEAN, FORMULA -> row.getStringAt(cell);
+            case NUMERIC -> String.valueOf(row.getNumberAt(cell));
             default -> "";
         };
     }
 
     // Method to calculate the number of hours worked in a day
     public double calculateHoursWorked() {
-        if (timeIn == null || timeOut == null) {
-            System.err.println("TimeIn or TimeOut is null for record: " + id);
+        int in = store.getTimeInSecond(row);
+        int out = store.getTimeOutSecond(row);
+        if (in == AttendanceStore.NONE || out == AttendanceStore.NONE) {
+            System.err.println("TimeIn or TimeOut is null for record: " + getId());
             return 0.0;
         }
-        Duration duration;
-        if (timeOut.isBefore(timeIn)) {
-            duration = Duration.between(timeIn, timeOut.plusHours(24)); // Handles overnight shifts
-        } else {
-            duration = Duration.between(timeIn, timeOut);
-        }
-        return duration.toHours() + (duration.toMinutes() % 60) / 60.0;
+        int minutes = AttendanceStore.workedMinutes(in, out);
+        return minutes / 60 + (minutes % 60) / 60.0;
     }
 
-    // Method to calculate total hours worked in a specific week
-    public static double calculateTotalHours(int year, int month, String employeeID, int week) {
-        double totalHours = 0;
+    // Method to get the per-employee index over the loaded attendance store, keyed by registry ordinal
+    public static AttendanceIndex getAttendanceIndex() {
+        return PayrollSnapshot.current().getAttendance();
+    }
 
-        for (AttendanceRecord record : attendanceRecords) {
-            if (record.getId().equals(employeeID)) {
-                LocalDate recordDate = record.getDate();
-                if (recordDate.getYear() == year && recordDate.getMonthValue() == month) {
-                    int recordWeek = getWeekOfMonth(recordDate);
-                    if (recordWeek == week) {
-                        double hoursWorked = record.calculateHoursWorked();
-                        totalHours += hoursWorked;
-                    }
-                }
-            }
-        }
+    // Method to get the loaded attendance store
+    public static AttendanceStore getAttendanceStore() {
+        return PayrollSnapshot.current().getAttendanceStore();
+    }
 
-        return totalHours;
+    // Method to replace the loaded attendance store; running calculations keep the store they started with
+    public static void setAttendanceStore(AttendanceStore store) {
+        PayrollSnapshot.publish(snapshot -> snapshot.withAttendance(store));
+        PayslipCache.getDefault().invalidateAll();
     }
 
-    // Method to determine which week of the month a date belongs to
+    // Method to determine which week (1-4) of the month a date belongs to; days 29-31 are in week 4
     public static int getWeekOfMonth(LocalDate date) {
-        return ((date.getDayOfMonth() - 1) / 7) + 1;
+        return Math.min((date.getDayOfMonth() - 1) / 7, 3) + 1;
+    }
+
+    // Getters for class attributes, decoded from the store's columns
+    public String getName() { return store.getName(row); }
+    public String getId() { return store.getEmployeeId(row); }
+    public LocalDate getDate() {
+        int day = store.getEpochDay(row);
+        return day != AttendanceStore.NONE ? LocalDate.ofEpochDay(day) : null;
     }
+    public LocalTime getTimeIn() { return toLocalTime(store.getTimeInSecond(row)); }
+    public LocalTime getTimeOut() { return toLocalTime(store.getTimeOutSecond(row)); }
 
-    // Getters for class attributes
-    public String getName() { return name; }
-    public String getId() { return id; }
-    public LocalDate getDate() { return date; }
-    public LocalTime getTimeIn() { return timeIn; }
-    public LocalTime getTimeOut() { return timeOut; }
-    public static ArrayList<AttendanceRecord> getAttendanceRecords() { return attendanceRecords; }
+    // Primitive getters for hot loops; a missing value is Integer.MIN_VALUE
+    public int getEpochDay() { return store.getEpochDay(row); }
+    public int getTimeInSecond() { return store.getTimeInSecond(row); }
+    public int getTimeOutSecond() { return store.getTimeOutSecond(row); }
+
+    public static List<AttendanceRecord> getAttendanceRecords() { return getAttendanceStore().asList(); }
+
+    private static LocalTime toLocalTime(int secondOfDay) {
+        return secondOfDay != AttendanceStore.NONE ? LocalTime.ofSecondOfDay(secondOfDay) : null;
+    }
 }
@@ -0,0 +1,512 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Columnar (struct-of-arrays) store of attendance punches.
+ * Each punch is a row of primitive columns: name slot, epoch day and time in/out as seconds of
+ * the day. Employee IDs and names are kept once in dictionaries. Each employee's rows live in
+ * their own column segment, sorted by date, and row numbers run through the employees in ID
+ * order, so one employee's punches are a contiguous range that period lookups can binary-search.
+ *
+ * Segments are never modified, so an append copies only the segments of employees that received
+ * punches and shares every other segment with the store it was derived from.
+ *
+ * AttendanceRecord objects handed out by the store are light views over a single row.
+ */
+public final class AttendanceStore {
+    // Sentinel for punches without a date or time
+    static final int NONE = Integer.MIN_VALUE;
+
+    // Source of store versions; a store built later always has a higher version
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    private final long version = VERSIONS.incrementAndGet();
+
+    // Dictionaries; rows refer to them by index
+    private final String[] employeeIds;
+    private final String[] names;
+    private final Map<String, Integer> employeeSlots;
+
+    // Row columns of each employee slot
+    private final Segment[] segments;
+
+    // Rows of employee slot e are [employeeStart[e], employeeStart[e + 1])
+    private final int[] employeeStart;
+
+    private AttendanceStore(String[] employeeIds, String[] names, Segment[] segments) {
+        this.employeeIds = employeeIds;
+        this.names = names;
+        this.segments = segments;
+
+        this.employeeSlots = new HashMap<>(employeeIds.length * 2);
+        this.employeeStart = new int[employeeIds.length + 1];
+        for (int i = 0; i < employeeIds.length; i++) {
+            employeeSlots.put(employeeIds[i], i);
+            employeeStart[i + 1] = employeeStart[i] + segments[i].size();
+        }
+    }
+
+    /**
+     * Creates an empty store.
+     * @return A store without rows.
+     */
+    public static AttendanceStore empty() {
+        return new Builder().build();
+    }
+
+    // Row accessors used by AttendanceRecord views and hot loops
+    public int size() { return employeeStart[employeeIds.length]; }
+    public String getEmployeeId(int row) { return employeeIds[slotOfRow(row)]; }
+    public String getName(int row) {
+        int slot = slotOfRow(row);
+        return names[segments[slot].nameSlot[row - employeeStart[slot]]];
+    }
+    public int getEpochDay(int row) {
+        int slot = slotOfRow(row);
+        return segments[slot].epochDay[row - employeeStart[slot]];
+    }
+    public int getTimeInSecond(int row) {
+        int slot = slotOfRow(row);
+        return segments[slot].timeIn[row - employeeStart[slot]];
+    }
+    public int getTimeOutSecond(int row) {
+        int slot = slotOfRow(row);
+        return segments[slot].timeOut[row - employeeStart[slot]];
+    }
+
+    // Finds the employee slot holding a row; slots are never empty, so their starts are increasing
+    private int slotOfRow(int row) {
+        if (row < 0 || row >= size()) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size());
+        }
+        int low = 0;
+        int high = employeeIds.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (employeeStart[mid] <= row) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    // Whole minutes between time in and time out; a time out before the time in is on the next day
+    static int workedMinutes(int inSecond, int outSecond) {
+        if (inSecond == NONE || outSecond == NONE) {
+            return 0;
+        }
+        if (outSecond < inSecond) {
+            outSecond += 24 * 60 * 60; // Handles overnight shifts
+        }
+        return (outSecond - inSecond) / 60;
+    }
+
+    /**
+     * Gets the slot of an employee ID in this store.
+     * @param employeeId The employee ID.
+     * @return The slot, or -1 if the employee has no rows.
+     */
+    public int slotOf(String employeeId) {
+        Integer slot = employeeSlots.get(employeeId);
+        return slot != null ? slot : -1;
+    }
+
+    /** @return the version of the store; stores built later have higher versions */
+    public long getVersion() { return version; }
+
+    /** @return the number of distinct employees in the store */
+    public int getEmployeeCount() { return employeeIds.length; }
+
+    /** @return the number of distinct employee names */
+    public int getNameCount() { return names.length; }
+
+    /**
+     * Finds the rows of an employee whose date lies in [fromEpochDay, toEpochDay].
+     *
+     * @param employeeId The employee ID.
+     * @param fromEpochDay The first epoch day (inclusive).
+     * @param toEpochDay The last epoch day (inclusive).
+     * @return The row range packed as (start << 32) | end; start == end when empty.
+     */
+    public long findRows(String employeeId, long fromEpochDay, long toEpochDay) {
+        return findRows(slotOf(employeeId), fromEpochDay, toEpochDay);
+    }
+
+    /**
+     * Finds the rows of an employee slot whose date lies in [fromEpochDay, toEpochDay].
+     *
+     * @param slot The employee slot, or -1 for an employee without rows.
+     * @param fromEpochDay The first epoch day (inclusive).
+     * @param toEpochDay The last epoch day (inclusive).
+     * @return The row range packed as (start << 32) | end; start == end when empty.
+     */
+    public long findRows(int slot, long fromEpochDay, long toEpochDay) {
+        if (slot < 0 || fromEpochDay > toEpochDay) {
+            return 0L;
+        }
+        Segment segment = segments[slot];
+        int start = segment.lowerBound(0, segment.size(), fromEpochDay);
+        int end = segment.lowerBound(start, segment.size(), toEpochDay + 1);
+        return ((long) (employeeStart[slot] + start) << 32) | (employeeStart[slot] + end);
+    }
+
+    /**
+     * Gets a read-only list of record views over a row range.
+     *
+     * @param start The first row (inclusive).
+     * @param end The last row (exclusive).
+     * @return The record views.
+     */
+    public List<AttendanceRecord> rows(int start, int end) {
+        return new RowList(start, end);
+    }
+
+    /**
+     * Gets a read-only list of record views over every row.
+     * @return The record views, grouped by employee and sorted by date.
+     */
+    public List<AttendanceRecord> asList() {
+        return new RowList(0, size());
+    }
+
+    /**
+     * Checks whether the store already holds an identical punch.
+     *
+     * @param employeeId The employee ID.
+     * @param day The epoch day.
+     * @param inSecond The time in as a second of the day.
+     * @param outSecond The time out as a second of the day.
+     * @return true if a row with the same employee, day and times exists.
+     */
+    public boolean containsPunch(String employeeId, int day, int inSecond, int outSecond) {
+        int slot = slotOf(employeeId);
+        if (slot < 0) {
+            return false;
+        }
+        Segment segment = segments[slot];
+        for (int i = segment.lowerBound(0, segment.size(), day); i < segment.size() && segment.epochDay[i] == day; i++) {
+            if (segment.timeIn[i] == inSecond && segment.timeOut[i] == outSecond) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a new store holding this store's rows and the rows of a delta store.
+     * Each employee's rows are merged by date, with this store's rows first on equal dates.
+     * Employees without new punches keep their segments, which the new store shares, so the
+     * cost grows with the delta, the rows of the employees it touches and the number of
+     * employees, but not with the rows of everyone else.
+     *
+     * @param delta The store with the new punches.
+     * @return The merged store; this store if the delta is empty.
+     */
+    public AttendanceStore append(AttendanceStore delta) {
+        if (delta.size() == 0) {
+            return this;
+        }
+
+        // Existing names keep their slots; names first seen in the delta are added after them
+        Map<String, Integer> nameSlots = new HashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            nameSlots.put(names[i], i);
+        }
+        List<String> mergedNames = new ArrayList<>(Arrays.asList(names));
+        int[] deltaNameRemap = new int[delta.names.length];
+        for (int i = 0; i < delta.names.length; i++) {
+            Integer slot = nameSlots.get(delta.names[i]);
+            if (slot == null) {
+                slot = mergedNames.size();
+                mergedNames.add(delta.names[i]);
+                nameSlots.put(delta.names[i], slot);
+            }
+            deltaNameRemap[i] = slot;
+        }
+
+        // Merge the employee dictionaries, which are both sorted by ID
+        Comparator<String> order = Comparator.nullsFirst(Comparator.naturalOrder());
+        String[] mergedIds = new String[employeeIds.length + delta.employeeIds.length];
+        Segment[] mergedSegments = new Segment[mergedIds.length];
+        int slots = 0;
+        for (int b = 0, d = 0; b < employeeIds.length || d < delta.employeeIds.length; slots++) {
+            int cmp = b == employeeIds.length ? 1
+                    : d == delta.employeeIds.length ? -1
+                    : order.compare(employeeIds[b], delta.employeeIds[d]);
+            if (cmp < 0) {
+                mergedIds[slots] = employeeIds[b];
+                mergedSegments[slots] = segments[b++];
+            } else if (cmp > 0) {
+                mergedIds[slots] = delta.employeeIds[d];
+                mergedSegments[slots] = Segment.merge(Segment.EMPTY, delta.segments[d++], deltaNameRemap);
+            } else {
+                mergedIds[slots] = employeeIds[b];
+                mergedSegments[slots] = Segment.merge(segments[b++], delta.segments[d++], deltaNameRemap);
+            }
+        }
+
+        return new AttendanceStore(Arrays.copyOf(mergedIds, slots), mergedNames.toArray(new String[0]),
+                Arrays.copyOf(mergedSegments, slots));
+    }
+
+    /**
+     * Immutable columns of one employee's rows, sorted by date.
+     */
+    private static final class Segment {
+        static final Segment EMPTY = new Segment(0);
+
+        final int[] nameSlot;
+        final int[] epochDay;
+        final int[] timeIn;
+        final int[] timeOut;
+
+        Segment(int size) {
+            nameSlot = new int[size];
+            epochDay = new int[size];
+            timeIn = new int[size];
+            timeOut = new int[size];
+        }
+
+        int size() {
+            return epochDay.length;
+        }
+
+        // Merges the rows of a delta segment into a base segment by date, base rows first on
+        // equal dates; the delta's name slots are renumbered through nameRemap
+        static Segment merge(Segment base, Segment delta, int[] nameRemap) {
+            Segment merged = new Segment(base.size() + delta.size());
+            int b = 0;
+            int out = 0;
+            for (int d = 0; d < delta.size(); ) {
+                // Existing rows up to and including the next new punch's date, then the new
+                // punches dated before the next existing row
+                int until = base.lowerBound(b, base.size(), delta.epochDay[d] + 1L);
+                out = base.copyTo(merged, b, until, out);
+                b = until;
+                int deltaUntil = b < base.size() ? delta.lowerBound(d, delta.size(), base.epochDay[b]) : delta.size();
+                for (; d < deltaUntil; d++, out++) {
+                    merged.nameSlot[out] = nameRemap[delta.nameSlot[d]];
+                    merged.epochDay[out] = delta.epochDay[d];
+                    merged.timeIn[out] = delta.timeIn[d];
+                    merged.timeOut[out] = delta.timeOut[d];
+                }
+            }
+            base.copyTo(merged, b, base.size(), out);
+            return merged;
+        }
+
+        // Copies rows [from, to) into another segment at the given position
+        private int copyTo(Segment target, int from, int to, int position) {
+            int count = to - from;
+            System.arraycopy(nameSlot, from, target.nameSlot, position, count);
+            System.arraycopy(epochDay, from, target.epochDay, position, count);
+            System.arraycopy(timeIn, from, target.timeIn, position, count);
+            System.arraycopy(timeOut, from, target.timeOut, position, count);
+            return position + count;
+        }
+
+        // Finds the first row in [low, high) whose epoch day is not before the given day
+        int lowerBound(int low, int high, long day) {
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (epochDay[mid] < day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Read-only list of AttendanceRecord views over a contiguous row range.
+     */
+    private final class RowList extends AbstractList<AttendanceRecord> implements RandomAccess {
+        private final int start;
+        private final int end;
+
+        RowList(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public AttendanceRecord get(int index) {
+            if (index < 0 || index >= end - start) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (end - start));
+            }
+            return new AttendanceRecord(AttendanceStore.this, start + index);
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+
+        @Override
+        public List<AttendanceRecord> subList(int fromIndex, int toIndex) {
+            if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+                throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex);
+            }
+            return new RowList(start + fromIndex, start + toIndex);
+        }
+    }
+
+    /**
+     * Accumulates punches column by column and builds a sorted store.
+     */
+    public static final class Builder {
+        private final List<String> employeeIds = new ArrayList<>();
+        private final Map<String, Integer> employeeSlots = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private final Map<String, Map<String, Integer>> nameSlots = new HashMap<>();
+        private final Map<String, Integer> fullNameSlots = new HashMap<>();
+
+        private int size;
+        private int[] employeeSlot = new int[1024];
+        private int[] nameSlot = new int[1024];
+        private int[] epochDay = new int[1024];
+        private int[] timeIn = new int[1024];
+        private int[] timeOut = new int[1024];
+
+        /**
+         * Adds a punch whose name is split into first name and surname, as in the workbook.
+         * The full name is only built the first time a (first name, surname) pair is seen.
+         */
+        public Builder add(String employeeId, String firstName, String surname,
+                           LocalDate date, LocalTime in, LocalTime out) {
+            Integer name = nameSlots.computeIfAbsent(firstName, k -> new HashMap<>()).get(surname);
+            if (name == null) {
+                name = nameSlot(firstName + " " + surname);
+                nameSlots.get(firstName).put(surname, name);
+            }
+            return add(employeeSlot(employeeId), name, toEpochDay(date), toSecond(in), toSecond(out));
+        }
+
+        /**
+         * Adds a punch with an already combined name.
+         */
+        public Builder add(String employeeId, String name, LocalDate date, LocalTime in, LocalTime out) {
+            return add(employeeSlot(employeeId), nameSlot(name), toEpochDay(date), toSecond(in), toSecond(out));
+        }
+
+        /**
+         * Adds a punch from raw column values; NONE marks a missing date or time.
+         */
+        public Builder add(String employeeId, String name, int day, int inSecond, int outSecond) {
+            return add(employeeSlot(employeeId), nameSlot(name), day, inSecond, outSecond);
+        }
+
+        private Builder add(int employee, int name, int day, int inSecond, int outSecond) {
+            if (size == epochDay.length) {
+                int newLength = size * 2;
+                employeeSlot = Arrays.copyOf(employeeSlot, newLength);
+                nameSlot = Arrays.copyOf(nameSlot, newLength);
+                epochDay = Arrays.copyOf(epochDay, newLength);
+                timeIn = Arrays.copyOf(timeIn, newLength);
+                timeOut = Arrays.copyOf(timeOut, newLength);
+            }
+            employeeSlot[size] = employee;
+            nameSlot[size] = name;
+            epochDay[size] = day;
+            timeIn[size] = inSecond;
+            timeOut[size] = outSecond;
+            size++;
+            return this;
+        }
+
+        /** @return the number of punches added so far */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Builds the store, sorting rows by employee slot, then date, keeping input order for ties.
+         * Employee slots are renumbered in ascending ID order.
+         *
+         * @return The immutable store.
+         */
+        public AttendanceStore build() {
+            // Renumber employee slots so that slot order follows employee ID order
+            String[] sortedIds = employeeIds.toArray(new String[0]);
+            Arrays.sort(sortedIds, Comparator.nullsFirst(Comparator.naturalOrder()));
+            int[] remap = new int[sortedIds.length];
+            for (int i = 0; i < sortedIds.length; i++) {
+                remap[employeeSlots.get(sortedIds[i])] = i;
+            }
+
+            // Bucket rows by employee (counting sort keeps input order within each bucket)
+            int[] start = new int[sortedIds.length + 1];
+            for (int row = 0; row < size; row++) {
+                start[remap[employeeSlot[row]] + 1]++;
+            }
+            for (int slot = 0; slot < sortedIds.length; slot++) {
+                start[slot + 1] += start[slot];
+            }
+            long[] keys = new long[size];
+            int[] next = Arrays.copyOf(start, sortedIds.length);
+            for (int row = 0; row < size; row++) {
+                // (day, row) packed so that a primitive sort orders by date, then input order
+                keys[next[remap[employeeSlot[row]]]++] = ((long) epochDay[row] << 32) | row;
+            }
+            for (int slot = 0; slot < sortedIds.length; slot++) {
+                Arrays.sort(keys, start[slot], start[slot + 1]);
+            }
+
+            Segment[] segments = new Segment[sortedIds.length];
+            for (int slot = 0; slot < sortedIds.length; slot++) {
+                Segment segment = new Segment(start[slot + 1] - start[slot]);
+                for (int i = 0; i < segment.size(); i++) {
+                    int row = (int) keys[start[slot] + i];
+                    segment.nameSlot[i] = nameSlot[row];
+                    segment.epochDay[i] = epochDay[row];
+                    segment.timeIn[i] = timeIn[row];
+                    segment.timeOut[i] = timeOut[row];
+                }
+                segments[slot] = segment;
+            }
+            return new AttendanceStore(sortedIds, names.toArray(new String[0]), segments);
+        }
+
+        private int employeeSlot(String employeeId) {
+            Integer slot = employeeSlots.get(employeeId);
+            if (slot == null) {
+                slot = employeeIds.size();
+                employeeIds.add(employeeId);
+                employeeSlots.put(employeeId, slot);
+            }
+            return slot;
+        }
+
+        private int nameSlot(String name) {
+            Integer slot = fullNameSlots.get(name);
+            if (slot == null) {
+                slot = names.size();
+                names.add(name);
+                fullNameSlots.put(name, slot);
+            }
+            return slot;
+        }
+
+        private static int toEpochDay(LocalDate date) {
+            return date != null ? (int) date.toEpochDay() : NONE;
+        }
+
+        private static int toSecond(LocalTime time) {
+            return time != null ? time.toSecondOfDay() : NONE;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.mycompany.motorph;
+
+import java.util.Arrays;
+
+/**
+ * Sorted bracket boundaries compiled into a primitive array.
+ * Finding the bracket for an amount is a binary search instead of a linear scan.
+ */
+public final class BracketTable {
+    private final double[] bounds;
+    private final boolean lowerBounds;
+
+    private BracketTable(double[] bounds, boolean lowerBounds) {
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] < bounds[i - 1]) {
+                throw new IllegalArgumentException("Bracket bounds must be sorted: " + Arrays.toString(bounds));
+            }
+        }
+        this.bounds = bounds.clone();
+        this.lowerBounds = lowerBounds;
+    }
+
+    /**
+     * Creates a table whose bracket i covers amounts up to and including bounds[i].
+     * Amounts above the last bound fall into bracket bounds.length.
+     *
+     * @param upperBounds The inclusive upper bound of each bracket but the last, sorted ascending.
+     * @return The compiled table with upperBounds.length + 1 brackets.
+     */
+    public static BracketTable ofUpperBounds(double[] upperBounds) {
+        return new BracketTable(upperBounds, false);
+    }
+
+    /**
+     * Creates a table whose bracket i covers amounts from bounds[i] up to the next bound.
+     * Amounts below the first bound fall into bracket 0.
+     *
+     * @param lowerBounds The inclusive lower bound of each bracket, sorted ascending.
+     * @return The compiled table with lowerBounds.length brackets.
+     */
+    public static BracketTable ofLowerBounds(double[] lowerBounds) {
+        if (lowerBounds.length == 0) {
+            throw new IllegalArgumentException("At least one bracket is required");
+        }
+        return new BracketTable(lowerBounds, true);
+    }
+
+    /**
+     * Finds the bracket an amount falls into.
+     *
+     * @param amount The amount to look up.
+     * @return The bracket index.
+     */
+    public int bracketOf(double amount) {
+        int low = 0;
+        int high = bounds.length;
+        if (lowerBounds) {
+            // Last bound that is <= amount
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (bounds[mid] <= amount) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return Math.max(0, low - 1);
+        }
+        // First bound that is >= amount
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bounds[mid] < amount) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Gets the number of brackets in the table.
+     * @return The number of brackets.
+     */
+    public int size() {
+        return lowerBounds ? bounds.length : bounds.length + 1;
+    }
+}
@@ -8,15 +8,16 @@ import java.text.DecimalFormat;
 
 /**
  * The Calculation class provides a base structure for performing various calculations.
- * It includes a decimal formatter for consistent number formatting.
+ * It includes a decimal formatter for consistent number formatting; calculations may run on
+ * many threads at once, so each thread gets its own formatter (DecimalFormat is not thread-safe).
  * This class is abstract and must be extended by subclasses implementing specific calculations.
  * 
  * @author angeliquerivera
  */
 public abstract class Calculation {
 
-    // Decimal formatter for consistent number formatting (e.g., rounding to 2 decimal places)
-    protected static final DecimalFormat decimalFormat = new DecimalFormat("#.##");
+    // Decimal formatter for consistent number formatting (e.g., rounding to 2 decimal places), one per thread
+    private static final ThreadLocal<DecimalFormat> decimalFormat = ThreadLocal.withInitial(() -> new DecimalFormat("#.##"));
 
     /**
      * Abstract method to perform the calculation.
@@ -34,6 +35,6 @@ public abstract class Calculation {
      * @return The formatted value as a String.
      */
     protected String format(double value) {
-        return decimalFormat.format(value);
+        return decimalFormat.get().format(value);
     }
 }
@@ -0,0 +1,106 @@
+package com.mycompany.motorph;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * A dataset that is loaded once, either in the background or by the first caller that needs it.
+ *
+ * Startup kicks off the loads with startAsync(); get() blocks only until this dataset is
+ * loaded, and loads it on the calling thread if nothing started it. A failed load is reported
+ * to every caller of get() as an IllegalStateException naming the dataset, instead of an
+ * ExceptionInInitializerError from a static initializer.
+ *
+ * @param <T> the loaded value
+ */
+public final class Dataset<T> {
+    private final String name;
+    private final Supplier<T> loader;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private Dataset(String name, Supplier<T> loader) {
+        this.name = name;
+        this.loader = loader;
+    }
+
+    /**
+     * Creates a dataset that is loaded on first use or by startAsync().
+     *
+     * @param name The dataset name for error messages, e.g. "employee data".
+     * @param loader Loads the value; may throw UncheckedIOException or IllegalStateException.
+     * @return The dataset.
+     */
+    public static <T> Dataset<T> lazy(String name, Supplier<T> loader) {
+        return new Dataset<>(name, loader);
+    }
+
+    /**
+     * Creates a dataset holding an already loaded value.
+     *
+     * @param name The dataset name.
+     * @param value The value.
+     * @return The dataset.
+     */
+    public static <T> Dataset<T> of(String name, T value) {
+        Dataset<T> dataset = new Dataset<>(name, () -> value);
+        dataset.started.set(true);
+        dataset.result.complete(value);
+        return dataset;
+    }
+
+    /**
+     * Starts loading on an executor, unless loading already started.
+     *
+     * @param executor The executor to load on.
+     * @return A future completed with the value, or exceptionally if the load fails.
+     */
+    public CompletableFuture<T> startAsync(Executor executor) {
+        if (started.compareAndSet(false, true)) {
+            executor.execute(this::load);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the value, waiting for a background load or loading it on this thread.
+     *
+     * @return The loaded value.
+     * @throws IllegalStateException if the load failed
+     */
+    public T get() {
+        if (started.compareAndSet(false, true)) {
+            load();
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            String message = cause instanceof UncheckedIOException
+                    ? "Failed to load " + name + ": " + cause.getCause().getMessage()
+                    : cause.getMessage();
+            throw new IllegalStateException(message, cause);
+        }
+    }
+
+    /**
+     * Tells whether the dataset finished loading, successfully or not.
+     * @return true if get() would not block.
+     */
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    // Runs the loader once and completes the result with its value or failure
+    private void load() {
+        try {
+            result.complete(loader.get());
+        } catch (RuntimeException | Error e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
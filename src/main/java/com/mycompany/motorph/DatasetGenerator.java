@@ -0,0 +1,533 @@
+package com.mycompany.motorph;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Generates synthetic datasets in the layout of EmployeeData.xlsx and AttendanceRecord.xlsx,
+ * for scale and soak testing beyond the bundled workbooks.
+ *
+ * Output is streamed: XLSX through POI's SXSSF, which keeps only a window of rows in memory,
+ * and CSV through a buffered writer, so files can be larger than the heap. Every random value
+ * is derived from (seed, employee, day), so the same seed always produces the same files,
+ * whatever the format.
+ *
+ * Usage: DatasetGenerator [--employees N] [--start yyyy-MM-dd] [--days N | --years N]
+ *                         [--seed N] [--format xlsx|csv] [--out directory]
+ * The default is 10,000 employees over 2024 as CSV; that many punches do not fit on one
+ * worksheet, so XLSX output is only accepted for datasets that do.
+ */
+public class DatasetGenerator {
+
+    /**
+     * Output formats. CSV uses the same columns and header as the workbook.
+     */
+    public enum Format { XLSX, CSV }
+
+    // Data rows that fit on one worksheet; the loaders only read the first sheet
+    private static final int XLSX_MAX_DATA_ROWS = 1_048_575;
+
+    // Rows SXSSF keeps in memory before flushing to its temporary file
+    private static final int XLSX_ROW_WINDOW = 256;
+
+    private static final int FIRST_EMPLOYEE_NUMBER = 10001;
+
+    private static final String[] EMPLOYEE_HEADER = {
+        "Employee #", "Last Name", "First Name", "Birthday", "Address", "Phone Number", "SSS #",
+        "Philhealth #", "TIN #", "Pag-ibig #", "Status", "Position", "Immediate Supervisor",
+        "Basic Salary", "Rice Subsidy", "Phone Allowance", "Clothing Allowance",
+        "Gross Semi-monthly Rate", "Hourly Rate", "Shift Start", "Night Shift"
+    };
+    private static final String[] ATTENDANCE_HEADER = {
+        "Employee #", "Last Name", "First Name", "Date", "Log In", "Log Out"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Garcia", "Lim", "Aquino", "Reyes", "Hernandez", "Villanueva", "San Jose", "Romualdez",
+        "Atienza", "Alvaro", "Salcedo", "Lopez", "Farala", "Martinez", "Romero", "Mata",
+        "De Leon", "Gonzales", "Mendoza", "Santos", "Cruz", "Bautista", "Ramos", "Castillo"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Manuel", "Antonio", "Bianca Sofia", "Isabella", "Eduard", "Andrea Mae", "Brad",
+        "Alice", "Rosie", "Roderick", "Anthony", "Josie", "Martha", "Leila", "Fredrick",
+        "Christian", "Selena", "Allison", "Cydney", "Mark", "Darlene", "Kolby", "Vella", "Tomas"
+    };
+    private static final String[] CITIES = {
+        "Makati City", "Quezon City", "Taguig", "Pasig City", "Mandaluyong", "Manila",
+        "Dasmarinas, Cavite", "Santa Rosa, Laguna", "Antipolo, Rizal", "Bacoor, Cavite"
+    };
+    // Positions with their monthly basic salary range
+    private static final String[] POSITIONS = {
+        "Account Rank and File", "Sales & Marketing", "Customer Service and Relations",
+        "Supply Chain and Logistics", "HR Rank and File", "Account Team Leader", "Payroll Team Leader",
+        "IT Operations and Systems", "Accounting Head"
+    };
+    private static final int[][] SALARY_RANGES = {
+        {22500, 24000}, {48000, 52670}, {50825, 53000}, {50825, 52670}, {22500, 24000},
+        {38000, 42975}, {38000, 45000}, {50000, 52670}, {52670, 62670}
+    };
+
+    private static final DateTimeFormatter CSV_DATE = DateTimeFormatter.ofPattern("MM/dd/yyyy", Locale.ROOT);
+
+    private final long seed;
+    private final int employeeCount;
+    private final LocalDate startDate;
+    private final int days;
+    private final Format format;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed seed for every random choice
+     * @param employeeCount number of employees to generate
+     * @param startDate first day of attendance
+     * @param days number of calendar days of attendance
+     * @param format output format
+     */
+    public DatasetGenerator(long seed, int employeeCount, LocalDate startDate, int days, Format format) {
+        if (employeeCount < 1) {
+            throw new IllegalArgumentException("Employee count must be positive");
+        }
+        if (days < 1) {
+            throw new IllegalArgumentException("Days must be positive");
+        }
+        if (startDate == null || format == null) {
+            throw new IllegalArgumentException("Start date and format cannot be null");
+        }
+        if (format == Format.XLSX && employeeCount > XLSX_MAX_DATA_ROWS) {
+            throw new IllegalArgumentException("Too many employees for one worksheet; use the CSV format");
+        }
+        this.seed = seed;
+        this.employeeCount = employeeCount;
+        this.startDate = startDate;
+        this.days = days;
+        this.format = format;
+
+        // Reject an attendance sheet that cannot fit before anything is written
+        if (format == Format.XLSX && (long) employeeCount * days > XLSX_MAX_DATA_ROWS
+                && countPunches(XLSX_MAX_DATA_ROWS + 1L) > XLSX_MAX_DATA_ROWS) {
+            throw new IllegalArgumentException(
+                    "Attendance would exceed " + XLSX_MAX_DATA_ROWS + " rows on one worksheet; use the CSV format");
+        }
+    }
+
+    /**
+     * Writes the employee file.
+     *
+     * @param directory output directory
+     * @return the written file
+     * @throws IOException if the file cannot be written
+     */
+    public Path writeEmployees(Path directory) throws IOException {
+        Path file = directory.resolve("EmployeeData." + extension());
+        try (RowSink sink = openSink(file, "Employee Details", EMPLOYEE_HEADER)) {
+            for (int employee = 0; employee < employeeCount; employee++) {
+                writeEmployee(sink, employee);
+            }
+        } catch (IOException | RuntimeException e) {
+            deletePartial(file, e);
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * Writes the attendance file, one row per punch, ordered by date and then employee.
+     * A file that fails part way is deleted rather than left truncated.
+     *
+     * @param directory output directory
+     * @return the number of punches written
+     * @throws IOException if the file cannot be written
+     */
+    public long writeAttendance(Path directory) throws IOException {
+        Path file = directory.resolve("AttendanceRecord." + extension());
+        long rows = 0;
+        try (RowSink sink = openSink(file, "Attendance Record", ATTENDANCE_HEADER)) {
+            for (int day = 0; day < days; day++) {
+                LocalDate date = startDate.plusDays(day);
+                for (int employee = 0; employee < employeeCount; employee++) {
+                    if (worksOn(employee, date, day)) {
+                        writePunch(sink, employee, date, day);
+                        rows++;
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            deletePartial(file, e);
+            throw e;
+        }
+        return rows;
+    }
+
+    // Counts the punches writeAttendance would write, stopping once the limit is reached
+    private long countPunches(long limit) {
+        long rows = 0;
+        for (int day = 0; day < days && rows < limit; day++) {
+            LocalDate date = startDate.plusDays(day);
+            for (int employee = 0; employee < employeeCount && rows < limit; employee++) {
+                if (worksOn(employee, date, day)) {
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Deletes a partly written file, keeping the failure that stopped it
+    private static void deletePartial(Path file, Exception failure) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    // Writes one employee row; every column is derived from the employee index
+    private void writeEmployee(RowSink sink, int employee) throws IOException {
+        int position = (int) (random(employee, -1, 0) % POSITIONS.length);
+        int[] range = SALARY_RANGES[position];
+        long basicSalary = range[0] + random(employee, -1, 1) % (range[1] - range[0] + 1);
+        long phoneAllowance = 500 + 500 * (random(employee, -1, 2) % 4);
+        long clothingAllowance = 500 + 250 * (random(employee, -1, 3) % 3);
+        double hourlyRate = Math.round(basicSalary / 21.75 / 8 * 100) / 100.0;
+
+        sink.number(employeeNumber(employee));
+        sink.text(lastName(employee));
+        sink.text(firstName(employee));
+        sink.date(LocalDate.of(1960, 1, 1).plusDays(random(employee, -1, 4) % (42 * 365)));
+        sink.text((1 + random(employee, -1, 5) % 999) + " " + LAST_NAMES[(int) (random(employee, -1, 6) % LAST_NAMES.length)]
+                + " Street, " + CITIES[(int) (random(employee, -1, 7) % CITIES.length)]);
+        sink.text(digits(employee, 8, 3) + "-" + digits(employee, 9, 3) + "-" + digits(employee, 10, 3));
+        sink.text(digits(employee, 11, 2) + "-" + digits(employee, 12, 7) + "-" + digits(employee, 13, 1));
+        sink.text(digits(employee, 14, 12));
+        sink.text(digits(employee, 15, 3) + "-" + digits(employee, 16, 3) + "-" + digits(employee, 17, 3) + "-000");
+        sink.text(digits(employee, 18, 12));
+        sink.text(random(employee, -1, 19) % 5 == 0 ? "Probationary" : "Regular");
+        sink.text(POSITIONS[position]);
+        sink.text(employee == 0 ? "N/A" : supervisorName(employee));
+        sink.number(basicSalary);
+        sink.number(1500);
+        sink.number(phoneAllowance);
+        sink.number(clothingAllowance);
+        sink.number(basicSalary / 2.0);
+        sink.number(hourlyRate);
+        sink.text(String.format(Locale.ROOT, "%02d:00", shiftStartHour(employee)));
+        sink.text(String.valueOf(isNightShift(employee)));
+        sink.endRow();
+    }
+
+    // Writes one punch: time in around the shift start, time out after a nine-hour day plus overtime
+    private void writePunch(RowSink sink, int employee, LocalDate date, int day) throws IOException {
+        int shiftStart = shiftStartHour(employee) * 3600;
+        long lateRoll = random(employee, day, 1) % 100;
+        int inMinutes = lateRoll < 15
+                ? 16 + (int) (random(employee, day, 2) % 105)   // Late beyond the grace period
+                : -30 + (int) (random(employee, day, 2) % 45);  // Early or within the grace period
+        int timeIn = shiftStart + inMinutes * 60;
+
+        int overtimeMinutes = random(employee, day, 3) % 4 == 0 ? 1 + (int) (random(employee, day, 4) % 180) : 0;
+        int jitterMinutes = -10 + (int) (random(employee, day, 5) % 30);
+        int timeOut = Math.max(timeIn + 3600, shiftStart + 9 * 3600 + (overtimeMinutes + jitterMinutes) * 60);
+
+        sink.number(employeeNumber(employee));
+        sink.text(lastName(employee));
+        sink.text(firstName(employee));
+        sink.date(date);
+        sink.time(timeIn);
+        sink.time(Math.min(timeOut, 86399));
+        sink.endRow();
+    }
+
+    // Monday to Friday with a small absence rate; some Saturday and holiday work
+    private boolean worksOn(int employee, LocalDate date, int day) {
+        long roll = random(employee, day, 0) % 100;
+        if (date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            return false;
+        }
+        if (HolidayChecker.isHoliday(date)) {
+            return roll < 25;
+        }
+        if (date.getDayOfWeek() == DayOfWeek.SATURDAY) {
+            return roll < 10;
+        }
+        return roll >= 3;
+    }
+
+    private int shiftStartHour(int employee) {
+        long roll = random(employee, -1, 20) % 10;
+        return roll < 5 ? 8 : roll < 8 ? 9 : 10;
+    }
+
+    private boolean isNightShift(int employee) {
+        return random(employee, -1, 21) % 10 == 0;
+    }
+
+    private static int employeeNumber(int employee) {
+        return FIRST_EMPLOYEE_NUMBER + employee;
+    }
+
+    private String lastName(int employee) {
+        return LAST_NAMES[(int) (random(employee, -1, 22) % LAST_NAMES.length)];
+    }
+
+    private String firstName(int employee) {
+        return FIRST_NAMES[(int) (random(employee, -1, 23) % FIRST_NAMES.length)];
+    }
+
+    // Supervisors are earlier employees, so the reporting lines form a tree rooted at the first one
+    private String supervisorName(int employee) {
+        int supervisor = (int) (random(employee, -1, 24) % Math.min(employee, 50));
+        return lastName(supervisor) + ", " + firstName(supervisor);
+    }
+
+    private String digits(int employee, int stream, int count) {
+        StringBuilder text = new StringBuilder(count);
+        long value = random(employee, -1, stream);
+        for (int i = 0; i < count; i++) {
+            if (i % 15 == 14) {
+                value = mix(value) >>> 1;
+            }
+            text.append((char) ('0' + value % 10));
+            value /= 10;
+        }
+        return text.toString();
+    }
+
+    // Non-negative random value for (employee, day, stream); day -1 is used for employee data
+    private long random(int employee, int day, int stream) {
+        long hash = mix(seed ^ 0x9E3779B97F4A7C15L * (employee + 1));
+        hash = mix(hash + 0xBF58476D1CE4E5B9L * (day + 2));
+        return mix(hash + 0x94D049BB133111EBL * (stream + 1)) >>> 1;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private String extension() {
+        return format == Format.XLSX ? "xlsx" : "csv";
+    }
+
+    private RowSink openSink(Path file, String sheetName, String[] header) throws IOException {
+        RowSink sink = format == Format.XLSX ? new XlsxSink(file, sheetName) : new CsvSink(file);
+        for (String title : header) {
+            sink.text(title);
+        }
+        sink.endRow();
+        return sink;
+    }
+
+    /**
+     * Receives generated rows cell by cell.
+     */
+    private interface RowSink extends Closeable {
+        void text(String value) throws IOException;
+        void number(double value) throws IOException;
+        void date(LocalDate value) throws IOException;
+        void time(int secondOfDay) throws IOException;
+        void endRow() throws IOException;
+    }
+
+    /**
+     * Streams rows into the first sheet of an .xlsx file.
+     */
+    private static final class XlsxSink implements RowSink {
+        private final Path file;
+        private final SXSSFWorkbook workbook;
+        private final Sheet sheet;
+        private final CellStyle dateStyle;
+        private final CellStyle timeStyle;
+        private Row row;
+        private int rowNum;
+        private int column;
+
+        XlsxSink(Path file, String sheetName) {
+            this.file = file;
+            this.workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+            workbook.setCompressTempFiles(true);
+            this.sheet = workbook.createSheet(sheetName);
+            this.dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("mm/dd/yyyy"));
+            this.timeStyle = workbook.createCellStyle();
+            timeStyle.setDataFormat(workbook.createDataFormat().getFormat("h:mm"));
+        }
+
+        private Row row() {
+            if (row == null) {
+                row = sheet.createRow(rowNum);
+            }
+            return row;
+        }
+
+        @Override
+        public void text(String value) {
+            row().createCell(column++).setCellValue(value);
+        }
+
+        @Override
+        public void number(double value) {
+            row().createCell(column++).setCellValue(value);
+        }
+
+        @Override
+        public void date(LocalDate value) {
+            Cell cell = row().createCell(column++);
+            cell.setCellValue(value);
+            cell.setCellStyle(dateStyle);
+        }
+
+        @Override
+        public void time(int secondOfDay) {
+            Cell cell = row().createCell(column++);
+            cell.setCellValue(secondOfDay / 86400.0);
+            cell.setCellStyle(timeStyle);
+        }
+
+        @Override
+        public void endRow() {
+            row = null;
+            rowNum++;
+            column = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            } finally {
+                workbook.close();  // Also deletes SXSSF's temporary files
+            }
+        }
+    }
+
+    /**
+     * Streams rows into a comma-separated file with the workbook's header.
+     * Dates are written as MM/dd/yyyy and times as H:mm.
+     */
+    private static final class CsvSink implements RowSink {
+        private final Writer out;
+        private boolean firstCell = true;
+
+        CsvSink(Path file) throws IOException {
+            this.out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16);
+        }
+
+        private void separator() throws IOException {
+            if (!firstCell) {
+                out.write(',');
+            }
+            firstCell = false;
+        }
+
+        @Override
+        public void text(String value) throws IOException {
+            separator();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0) {
+                out.write('"');
+                out.write(value.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+
+        @Override
+        public void number(double value) throws IOException {
+            separator();
+            if (value == Math.rint(value)) {
+                out.write(Long.toString((long) value));
+            } else {
+                out.write(Double.toString(value));
+            }
+        }
+
+        @Override
+        public void date(LocalDate value) throws IOException {
+            separator();
+            out.write(CSV_DATE.format(value));
+        }
+
+        @Override
+        public void time(int secondOfDay) throws IOException {
+            separator();
+            int minutes = secondOfDay / 60;
+            out.write(Integer.toString(minutes / 60));
+            out.write(minutes % 60 < 10 ? ":0" : ":");
+            out.write(Integer.toString(minutes % 60));
+        }
+
+        @Override
+        public void endRow() throws IOException {
+            out.write('\n');
+            firstCell = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    public static void main(String[] args) {
+        int employees = 10_000;
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        int days = 366;
+        int years = 0;
+        long seed = 17L;
+        Format format = Format.CSV;
+        Path out = Paths.get("target/generated-data");
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                switch (args[i]) {
+                    case "--employees" -> employees = Integer.parseInt(value);
+                    case "--start" -> start = LocalDate.parse(value);
+                    case "--days" -> days = Integer.parseInt(value);
+                    case "--years" -> years = Integer.parseInt(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--format" -> format = Format.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "--out" -> out = Paths.get(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+                i++;
+            }
+
+            if (years > 0) {
+                days = (int) (start.plusYears(years).toEpochDay() - start.toEpochDay());
+            }
+
+            Files.createDirectories(out);
+            DatasetGenerator generator = new DatasetGenerator(seed, employees, start, days, format);
+            Path employeeFile = generator.writeEmployees(out);
+            System.out.println("Wrote " + employees + " employees to " + employeeFile);
+            long punches = generator.writeAttendance(out);
+            System.out.println("Wrote " + punches + " attendance records to " + out.resolve("AttendanceRecord." + generator.extension()));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error generating dataset: " + e.getMessage());
+            System.err.println("Usage: DatasetGenerator [--employees N] [--start yyyy-MM-dd] [--days N | --years N]"
+                    + " [--seed N] [--format xlsx|csv] [--out directory]");
+            System.exit(1);
+        }
+    }
+}
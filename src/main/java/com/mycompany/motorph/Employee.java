@@ -1,8 +1,8 @@
 package com.mycompany.motorph;
 
-import java.text.DecimalFormat;
 import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
+import java.util.Objects;
 
 /**
  * Class representing an Employee with personal and employment details.
@@ -30,9 +30,6 @@ public class Employee {
     private final LocalTime shiftStartTime;
     private final boolean nightShift;
 
-    // Decimal formatter for formatting numeric values
-    private static final DecimalFormat decimalFormat = new DecimalFormat("#.##");
-
     // Default shift start time if not specified
     private static final LocalTime DEFAULT_SHIFT_START = LocalTime.of(8, 0);
 
@@ -153,6 +150,39 @@ public class Employee {
     public LocalTime getShiftStartTime() { return shiftStartTime; }
     public boolean isNightShift() { return nightShift; }
 
+    /**
+     * Tells whether another employee object holds exactly the same master data.
+     * Employees are otherwise compared by identity, so a reload keeps the old object for an
+     * unchanged employee and cached payslips stay valid.
+     *
+     * @param other The employee to compare with.
+     * @return true if every field is equal.
+     */
+    boolean hasSameData(Employee other) {
+        return other != null
+                && Objects.equals(employeeNumber, other.employeeNumber)
+                && Objects.equals(lastName, other.lastName)
+                && Objects.equals(firstName, other.firstName)
+                && Objects.equals(birthday, other.birthday)
+                && Objects.equals(address, other.address)
+                && Objects.equals(phoneNumber, other.phoneNumber)
+                && Objects.equals(sssNumber, other.sssNumber)
+                && Objects.equals(philhealthNumber, other.philhealthNumber)
+                && Objects.equals(tinNumber, other.tinNumber)
+                && Objects.equals(pagIbigNumber, other.pagIbigNumber)
+                && Objects.equals(status, other.status)
+                && Objects.equals(position, other.position)
+                && Objects.equals(immediateSupervisor, other.immediateSupervisor)
+                && Objects.equals(basicSalary, other.basicSalary)
+                && Objects.equals(riceSubsidy, other.riceSubsidy)
+                && Objects.equals(phoneAllowance, other.phoneAllowance)
+                && Objects.equals(clothingAllowance, other.clothingAllowance)
+                && Objects.equals(grossSemiMonthlyRate, other.grossSemiMonthlyRate)
+                && Double.compare(hourlyRate, other.hourlyRate) == 0
+                && Objects.equals(shiftStartTime, other.shiftStartTime)
+                && nightShift == other.nightShift;
+    }
+
     @Override
     public String toString() {
         return toString(true); // Default to detailed view
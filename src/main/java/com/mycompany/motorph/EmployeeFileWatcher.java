@@ -0,0 +1,110 @@
+package com.mycompany.motorph;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the employee workbook and reloads the employees when it changes, so a master-data
+ * fix takes effect without restarting the process or reloading attendance.
+ *
+ * The watcher listens on the file's directory, since editors often save by writing a
+ * temporary file and renaming it over the original. Events are debounced: the reload runs
+ * once the file has been quiet for QUIET_MILLIS, so a save that fires several events is read
+ * once, after it is complete. A reload that fails (e.g. the file is half written or broken)
+ * is reported and the current employees stay published.
+ *
+ * Usage:
+ *     try (EmployeeFileWatcher watcher = EmployeeFileWatcher.start()) { ... }
+ */
+public final class EmployeeFileWatcher implements AutoCloseable {
+
+    // Time without further events before a change is reloaded
+    private static final long QUIET_MILLIS = 500;
+
+    private final Path file;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    private EmployeeFileWatcher(Path file) throws IOException {
+        this.file = file.toAbsolutePath().normalize();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::watch, "employee-file-watcher");
+        thread.setDaemon(true);  // Never keeps the JVM alive
+    }
+
+    /**
+     * Starts watching the employee file EmployeeModelFromFile currently reads.
+     * @return The running watcher; close it to stop watching.
+     * @throws IOException if the file's directory cannot be watched
+     */
+    public static EmployeeFileWatcher start() throws IOException {
+        EmployeeFileWatcher watcher = new EmployeeFileWatcher(Path.of(EmployeeModelFromFile.getFilePath()));
+        watcher.thread.start();
+        return watcher;
+    }
+
+    /**
+     * Stops watching. A reload already running completes.
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();  // Wakes the watcher thread, which then exits
+        } catch (IOException e) {
+            System.err.println("Error closing employee file watcher: " + e.getMessage());
+        }
+    }
+
+    // Waits for changes to the file and reloads after each burst of events
+    private void watch() {
+        try {
+            while (true) {
+                if (!drain(watchService.take())) {
+                    continue;
+                }
+                // Keep collecting events until the file has been quiet for a while
+                WatchKey next;
+                while ((next = watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    drain(next);
+                }
+                reload();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Closed; stop watching
+        }
+    }
+
+    // Consumes a key's events and tells whether any of them concern the watched file
+    private boolean drain(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || file.getFileName().equals(event.context())) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    private void reload() {
+        try {
+            EmployeeModelFromFile.ReloadResult result = EmployeeModelFromFile.reload();
+            if (result.isPublished()) {
+                System.out.println("Employee data reloaded: " + result + ".");
+            }
+        } catch (IOException | RuntimeException e) {
+            // A half-written or broken file leaves the published employees in place
+            System.err.println("Error reloading employee data, keeping the current employees: " + e.getMessage());
+        }
+    }
+}
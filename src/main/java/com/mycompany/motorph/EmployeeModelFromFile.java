@@ -1,79 +1,215 @@
 package com.mycompany.motorph;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.usermodel.DateUtil;
 
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
 import java.text.SimpleDateFormat;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class EmployeeModelFromFile {
     // Default path for the Excel file containing employee data
-    private static String filePath = "src/main/resources/EmployeeData.xlsx";
+    private static volatile String filePath = "src/main/resources/EmployeeData.xlsx";
+
+    private static final Metrics.Timer LOAD_TIMER = Metrics.timer("load.employees");
+    private static final Metrics.Timer RELOAD_TIMER = Metrics.timer("load.employeesReload");
     
-    // List to store employee objects loaded from the Excel file
-    private static final List<Employee> employees = loadEmployees();
+    // Codec for caching parsed employees in a binary snapshot
+    private static final SnapshotCache.Codec<Employee> SNAPSHOT_CODEC = new SnapshotCache.Codec<>() {
+        @Override
+        public String getName() { return "employees"; }
+
+        @Override
+        public int getVersion() { return 1; }
+
+        @Override
+        public void write(Employee employee, SnapshotCache.SnapshotWriter out) throws IOException {
+            out.writeString(employee.getEmployeeNumber());
+            out.writeString(employee.getLastName());
+            out.writeString(employee.getFirstName());
+            out.writeString(employee.getBirthday());
+            out.writeString(employee.getAddress());
+            out.writeString(employee.getPhoneNumber());
+            out.writeString(employee.getSssNumber());
+            out.writeString(employee.getPhilhealthNumber());
+            out.writeString(employee.getTinNumber());
+            out.writeString(employee.getPagIbigNumber());
+            out.writeString(employee.getStatus());
+            out.writeString(employee.getPosition());
+            out.writeString(employee.getImmediateSupervisor());
+            out.writeString(employee.getBasicSalary());
+            out.writeString(employee.getRiceSubsidy());
+            out.writeString(employee.getPhoneAllowance());
+            out.writeString(employee.getClothingAllowance());
+            out.writeString(employee.getGrossSemiMonthlyRate());
+            out.writeDouble(employee.getHourlyRate());
+            out.writeString(employee.getShiftStartTime().toString());
+            out.writeBoolean(employee.isNightShift());
+        }
+
+        @Override
+        public Employee read(SnapshotCache.SnapshotReader in) {
+            // Rebuild the same row data the Employee constructor parses
+            String[] data = new String[21];
+            for (int i = 0; i < 18; i++) {
+                data[i] = in.readString();
+            }
+            data[18] = BigDecimal.valueOf(in.readDouble()).toPlainString();
+            data[19] = in.readString();
+            data[20] = String.valueOf(in.readBoolean());
+            return new Employee(data);
+        }
+    };
 
     /**
-     * Loads employee data from the Excel file
+     * Loads the employees from the Excel file into a registry, for the first PayrollSnapshot
+     * @return Registry of the loaded employees, keyed by dense ordinal and employee number
+     * @throws UncheckedIOException if the employee file cannot be read
+     */
+    static EmployeeRegistry loadRegistry() {
+        return loadRegistry(filePath);
+    }
+
+    // Loads the employees of one file into a registry
+    private static EmployeeRegistry loadRegistry(String path) {
+        long start = Metrics.start();
+        try {
+            return new EmployeeRegistry(SnapshotCache.loadOrParse(path, SNAPSHOT_CODEC, EmployeeModelFromFile::parseEmployees));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            LOAD_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Re-reads the employee file and publishes the result in a new snapshot.
+     * Employees whose data did not change keep their Employee object, so their cached payslips
+     * stay valid; the payslips of changed and removed employees are dropped. Calculations
+     * already running keep the registry they started with. If nothing changed, no snapshot is
+     * published.
+     *
+     * @return What the reload added, changed and removed.
+     * @throws IOException if the employee file cannot be read
+     */
+    public static ReloadResult reload() throws IOException {
+        long start = Metrics.start();
+        try {
+            List<Employee> parsed = SnapshotCache.loadOrParse(filePath, SNAPSHOT_CODEC, EmployeeModelFromFile::parseEmployees);
+            ReloadResult[] result = new ReloadResult[1];
+            // Diff against the registry being replaced, so a concurrent reload cannot be lost
+            PayrollSnapshot.publish(snapshot -> {
+                result[0] = merge(currentOrNull(snapshot), parsed);
+                return result[0].isPublished() ? snapshot.withEmployees(result[0].registry) : snapshot;
+            });
+            for (String employeeId : result[0].changedIds) {
+                PayslipCache.getDefault().invalidateEmployee(employeeId);
+            }
+            return result[0];
+        } finally {
+            RELOAD_TIMER.stop(start);
+        }
+    }
+
+    // The registry of a snapshot, or null if it could not be loaded (e.g. the file was broken at startup)
+    private static EmployeeRegistry currentOrNull(PayrollSnapshot snapshot) {
+        try {
+            return snapshot.getEmployees();
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
+
+    // Builds the new registry, reusing the current Employee object wherever the data is unchanged
+    private static ReloadResult merge(EmployeeRegistry current, List<Employee> parsed) {
+        List<Employee> merged = new ArrayList<>(parsed.size());
+        Set<String> seen = new HashSet<>(parsed.size() * 2);
+        List<String> changedIds = new ArrayList<>();
+        int added = 0;
+        int changed = 0;
+        boolean sameOrder = current != null && current.size() == parsed.size();
+        for (int i = 0; i < parsed.size(); i++) {
+            Employee employee = parsed.get(i);
+            // Duplicate rows are kept in the list but counted once; the registry uses the first
+            boolean first = seen.add(employee.getEmployeeNumber());
+            Employee previous = current != null ? current.getByNumber(employee.getEmployeeNumber()) : null;
+            if (previous != null && previous.hasSameData(employee)) {
+                employee = previous;
+            } else if (first && previous == null) {
+                added++;
+            } else if (first) {
+                changed++;
+                changedIds.add(employee.getEmployeeNumber());
+            }
+            sameOrder = sameOrder && current.getByOrdinal(i) == employee;
+            merged.add(employee);
+        }
+
+        int removed = 0;
+        if (current != null) {
+            for (Employee employee : current.getEmployees()) {
+                if (!seen.contains(employee.getEmployeeNumber())) {
+                    removed++;
+                    changedIds.add(employee.getEmployeeNumber());
+                }
+            }
+        }
+        EmployeeRegistry registry = sameOrder ? current : new EmployeeRegistry(merged);
+        return new ReloadResult(registry, registry != current, added, changed, removed, changedIds);
+    }
+
+    /**
+     * Parses employee data from the Excel file
+     * @param path Path to the employee workbook
      * @return List of Employee objects
+     * @throws IOException if the workbook cannot be read
      */
-    private static List<Employee> loadEmployees() {
+    public static List<Employee> parseEmployees(String path) throws IOException {
         // List to hold employee objects
         List<Employee> employeeList = new ArrayList<>();
 
-        // Try-with-resources to automatically close resources after use
-        try (FileInputStream fis = new FileInputStream(filePath);
-             Workbook workbook = new XSSFWorkbook(fis)) {
-
-            // Get the first sheet in the workbook
-            Sheet sheet = workbook.getSheetAt(0);
-
-            // Iterate over each row in the sheet
-            for (Row row : sheet) {
-                // Skip header row
-                if (row.getRowNum() == 0) continue;
-
-                // List to hold the row data
-                List<String> rowData = new ArrayList<>();
-
-                // Iterate over each cell in the row
-                for (Cell cell : row) {
-                    switch (cell.getCellType()) {
-                        // Handle string cells
-                        case STRING -> rowData.add(cell.getStringCellValue().trim());
-                        
-                        // Handle numeric cells (including date and non-date numbers)
-                        case NUMERIC -> {
-                            if (DateUtil.isCellDateFormatted(cell)) {
-                                // Handle date-formatted cells
-                                Date date = cell.getDateCellValue();
-                                SimpleDateFormat dateFormat = new SimpleDateFormat("MM/dd/yyyy");
-                                rowData.add(dateFormat.format(date));
-                            } else {
-                                // Handle numeric cells (convert to string to avoid scientific notation)
-                                rowData.add(String.valueOf((long) cell.getNumericCellValue())); // Casting to long for proper representation
-                            }
-                        }
+        // Stream the sheet row by row instead of building the whole workbook in memory
+        XlsxStreamReader.readFirstSheet(path, row -> {
+            // Skip header row
+            if (row.getRowNum() == 0) return;
 
-                        // Handle other cell types by adding an empty string
-                        default -> rowData.add("");
+            // List to hold the row data
+            List<String> rowData = new ArrayList<>();
+
+            // Iterate over each cell present in the row
+            for (int i = 0; i < row.getCellCount(); i++) {
+                switch (row.getTypeAt(i)) {
+                    // Handle string cells
+                    case STRING -> rowData.add(row.getStringAt(i).trim());
+
+                    // Handle numeric cells (including date and non-date numbers)
+                    case NUMERIC -> {
+                        if (row.isDateFormattedAt(i)) {
+                            // Handle date-formatted cells
+                            Date date = DateUtil.getJavaDate(row.getNumberAt(i));
+                            SimpleDateFormat dateFormat = new SimpleDateFormat("MM/dd/yyyy");
+                            rowData.add(dateFormat.format(date));
+                        } else {
+                            // Handle numeric cells (convert to string to avoid scientific notation)
+                            rowData.add(String.valueOf((long) row.getNumberAt(i))); // Casting to long for proper representation
+                        }
                     }
-                }
 
-                // If the row contains enough data (at least 19 cells), create an Employee object
-                if (rowData.size() >= 19) {
-                    employeeList.add(new Employee(rowData.toArray(new String[0])));
+                    // Handle other cell types by adding an empty string
+                    default -> rowData.add("");
                 }
             }
-        } catch (IOException e) {
-            // Error handling in case of issues with reading the file
-            System.err.println("Error loading employee data: " + e.getMessage());
-        }
+
+            // If the row contains enough data (at least 19 cells), create an Employee object
+            if (rowData.size() >= 19) {
+                employeeList.add(new Employee(rowData.toArray(new String[0])));
+            }
+        });
 
         // Return the list of employees loaded from the file
         return employeeList;
@@ -84,8 +220,8 @@ public class EmployeeModelFromFile {
      * @return List of Employee objects
      */
     public static List<Employee> getEmployeeModelList() {
-        // Return an unmodifiable list to ensure data integrity
-        return Collections.unmodifiableList(employees);
+        // The registry hands out the same unmodifiable list on every call
+        return getRegistry().getEmployees();
     }
 
     /**
@@ -94,19 +230,87 @@ public class EmployeeModelFromFile {
      * @return Employee object if found, null otherwise
      */
     public static Employee getEmployeeById(String employeeId) {
-        // Stream through the employee list and find the employee by ID
-        return employees.stream()
-                .filter(e -> e.getEmployeeNumber().equals(employeeId))
-                .findFirst()
-                .orElse(null);
+        // Hash lookup instead of scanning the employee list
+        return getRegistry().getByNumber(employeeId);
+    }
+
+    /**
+     * Gets the employee registry of the current snapshot, which maps employee numbers to dense ordinals
+     * @return The employee registry
+     */
+    public static EmployeeRegistry getRegistry() {
+        return PayrollSnapshot.current().getEmployees();
+    }
+
+    /**
+     * Replaces the employee registry, e.g. with synthetic employees for benchmarks.
+     * The new registry is published in a new snapshot, with the attendance index rebuilt for it.
+     * @param newRegistry The new employee registry
+     */
+    public static void setRegistry(EmployeeRegistry newRegistry) {
+        if (newRegistry == null) {
+            throw new IllegalArgumentException("Registry cannot be null");
+        }
+        PayrollSnapshot.publish(snapshot -> snapshot.withEmployees(newRegistry));
     }
 
     /**
-     * Updates the file path for the employee data
+     * Switches to the employee data in another file; it is loaded on first use.
+     * Calculations already running keep the registry they started with.
      * @param newFilePath New path to the employee data file
      */
     public static void setFilePath(String newFilePath) {
-        // Update the file path to a new value
+        if (newFilePath == null || newFilePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("File path cannot be empty");
+        }
         filePath = newFilePath;
+        PayrollSnapshot.publish(snapshot -> snapshot.withEmployees(
+                Dataset.lazy("employee data", () -> loadRegistry(newFilePath))));
+        PayslipCache.getDefault().invalidateAll();
+    }
+
+    /**
+     * Gets the path of the employee data file.
+     * @return The path of the employee workbook
+     */
+    public static String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Outcome of an employee reload.
+     */
+    public static final class ReloadResult {
+        private final EmployeeRegistry registry;
+        private final boolean published;
+        private final int added;
+        private final int changed;
+        private final int removed;
+        private final List<String> changedIds;
+
+        private ReloadResult(EmployeeRegistry registry, boolean published, int added, int changed, int removed,
+                             List<String> changedIds) {
+            this.registry = registry;
+            this.published = published;
+            this.added = added;
+            this.changed = changed;
+            this.removed = removed;
+            this.changedIds = changedIds;
+        }
+
+        /** @return whether a new registry was published; false when the file held the same employees */
+        public boolean isPublished() {
+            return published;
+        }
+
+        public EmployeeRegistry getRegistry() { return registry; }
+        public int getAdded() { return added; }
+        public int getChanged() { return changed; }
+        public int getRemoved() { return removed; }
+
+        @Override
+        public String toString() {
+            return added + " added, " + changed + " changed, " + removed + " removed";
+        }
     }
 }
@@ -0,0 +1,76 @@
+package com.mycompany.motorph;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable registry assigning each employee a dense int ordinal (0..size-1) in list order.
+ * Lookups by employee number or ordinal are O(1), so hot loops can key arrays by ordinal
+ * instead of comparing employee number strings.
+ */
+public final class EmployeeRegistry {
+    // Returned by ordinalOf for unknown employee numbers
+    public static final int NOT_FOUND = -1;
+
+    private final Employee[] employees;
+    private final Map<String, Integer> ordinals;
+    private final List<Employee> employeeList;
+
+    /**
+     * Creates a registry over a list of employees.
+     * If an employee number appears more than once, the first occurrence wins, as it did
+     * with the linear search.
+     *
+     * @param employees The employees, in display order.
+     */
+    public EmployeeRegistry(List<Employee> employees) {
+        this.employees = employees.toArray(new Employee[0]);
+        this.ordinals = new HashMap<>(this.employees.length * 2);
+        for (int i = 0; i < this.employees.length; i++) {
+            ordinals.putIfAbsent(this.employees[i].getEmployeeNumber(), i);
+        }
+        this.employeeList = Collections.unmodifiableList(Arrays.asList(this.employees));
+    }
+
+    /**
+     * Gets the ordinal of an employee number.
+     * @param employeeNumber The employee number.
+     * @return The ordinal, or NOT_FOUND if the number is not registered.
+     */
+    public int ordinalOf(String employeeNumber) {
+        Integer ordinal = ordinals.get(employeeNumber);
+        return ordinal != null ? ordinal : NOT_FOUND;
+    }
+
+    /**
+     * Gets an employee by employee number.
+     * @param employeeNumber The employee number.
+     * @return The employee, or null if the number is not registered.
+     */
+    public Employee getByNumber(String employeeNumber) {
+        int ordinal = ordinalOf(employeeNumber);
+        return ordinal != NOT_FOUND ? employees[ordinal] : null;
+    }
+
+    /**
+     * Gets an employee by ordinal.
+     * @param ordinal The ordinal, between 0 and size() - 1.
+     * @return The employee.
+     */
+    public Employee getByOrdinal(int ordinal) {
+        return employees[ordinal];
+    }
+
+    /** @return the number of registered employees */
+    public int size() {
+        return employees.length;
+    }
+
+    /** @return an unmodifiable list of the employees in ordinal order; the same instance on every call */
+    public List<Employee> getEmployees() {
+        return employeeList;
+    }
+}
@@ -0,0 +1,687 @@
+package com.mycompany.motorph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Loader for attendance exported as flat files by the time-clock system, as an alternative
+ * to AttendanceRecord.xlsx.
+ *
+ * Supported formats, chosen by file extension:
+ * - .csv: columns Employee #, Last Name, First Name, Date, Log In, Log Out (the workbook's
+ *   column order); an optional header line; fields may be quoted.
+ * - .ndjson / .jsonl: one object per line with the keys employeeId, lastName, firstName,
+ *   date, timeIn and timeOut.
+ * Dates are yyyy-MM-dd or MM/dd/yyyy and times are HH:mm:ss or HH:mm.
+ *
+ * The file is memory-mapped and split on line boundaries into chunks that are parsed in
+ * parallel. Fields are parsed straight from the bytes: only the first occurrence of each
+ * employee ID and name becomes a String, and dates and times go directly to epoch days and
+ * seconds of the day.
+ */
+public class FlatFileAttendanceLoader {
+
+    // Target chunk size; also keeps every mapped region far below the 2 GB mapping limit
+    private static final long CHUNK_SIZE = 8L << 20;
+
+    // Number of malformed lines reported individually before only counting them
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    // Field positions
+    private static final int ID = 0;
+    private static final int LAST_NAME = 1;
+    private static final int FIRST_NAME = 2;
+    private static final int DATE = 3;
+    private static final int TIME_IN = 4;
+    private static final int TIME_OUT = 5;
+    private static final int FIELD_COUNT = 6;
+
+    // NDJSON keys, in field order
+    private static final byte[][] JSON_KEYS = {
+        ascii("employeeId"), ascii("lastName"), ascii("firstName"),
+        ascii("date"), ascii("timeIn"), ascii("timeOut")
+    };
+
+    private FlatFileAttendanceLoader() {}
+
+    /**
+     * Checks whether a path names a flat attendance file this loader can read.
+     *
+     * @param filePath the file path
+     * @return true for .csv, .ndjson and .jsonl files
+     */
+    public static boolean isFlatFile(String filePath) {
+        String name = filePath.toLowerCase(Locale.ROOT);
+        return name.endsWith(".csv") || name.endsWith(".ndjson") || name.endsWith(".jsonl");
+    }
+
+    /**
+     * Loads a flat attendance file into a columnar store, parsing chunks on the common pool.
+     *
+     * @param filePath path to the .csv, .ndjson or .jsonl file
+     * @return the attendance store
+     * @throws IOException if the file cannot be read
+     */
+    public static AttendanceStore load(String filePath) throws IOException {
+        return load(filePath, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads a flat attendance file into a columnar store, parsing chunks on the given pool.
+     *
+     * @param filePath path to the .csv, .ndjson or .jsonl file
+     * @param pool pool the chunks are parsed on
+     * @return the attendance store
+     * @throws IOException if the file cannot be read
+     */
+    public static AttendanceStore load(String filePath, ForkJoinPool pool) throws IOException {
+        if (!isFlatFile(filePath)) {
+            throw new IllegalArgumentException("Unsupported attendance file type: " + filePath);
+        }
+        boolean json = !filePath.toLowerCase(Locale.ROOT).endsWith(".csv");
+        Path path = Paths.get(filePath);
+
+        List<ChunkTask> tasks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (long[] range : splitOnLines(channel)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, range[0], range[1] - range[0]);
+                tasks.add(new ChunkTask(buffer, json, range[0] == 0));
+            }
+        }
+        for (ChunkTask task : tasks) {
+            pool.execute(task);
+        }
+
+        // Merge the chunks in file order, so ties keep the order of the file
+        AttendanceStore.Builder builder = new AttendanceStore.Builder();
+        int skipped = 0;
+        int malformed = 0;
+        for (ChunkTask task : tasks) {
+            Chunk chunk = task.join();
+            for (int i = 0; i < chunk.size; i++) {
+                builder.add(chunk.ids.get(chunk.idSlot[i]), chunk.names.get(chunk.nameSlot[i]),
+                        chunk.epochDay[i], chunk.timeIn[i], chunk.timeOut[i]);
+            }
+            skipped += chunk.skipped;
+            malformed += chunk.malformed;
+            for (String error : chunk.errors) {
+                System.err.println(error);
+            }
+        }
+        if (skipped > 0) {
+            System.out.println("Skipped " + skipped + " records with missing time values in " + filePath);
+        }
+        if (malformed > 0) {
+            System.err.println("Skipped " + malformed + " malformed lines in " + filePath);
+        }
+        return builder.build();
+    }
+
+    // Splits the file into ranges that end just after a line break (or at the end of the file)
+    private static List<long[]> splitOnLines(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<long[]> ranges = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(start + CHUNK_SIZE, size);
+            // Move the end forward to just after the next line break
+            boolean found = false;
+            while (end < size && !found) {
+                probe.clear();
+                int read = channel.read(probe, end);
+                if (read <= 0) {
+                    end = size;
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        end += i + 1;
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    end += read;
+                }
+            }
+            ranges.add(new long[]{start, end});
+            start = end;
+        }
+        return ranges;
+    }
+
+    /**
+     * Parses one chunk of lines. Never serialized; see PayrollRun.ChunkTask.
+     */
+    @SuppressWarnings("serial")
+    private static final class ChunkTask extends RecursiveTask<Chunk> {
+        private final MappedByteBuffer buffer;
+        private final boolean json;
+        private final boolean firstChunk;
+
+        ChunkTask(MappedByteBuffer buffer, boolean json, boolean firstChunk) {
+            this.buffer = buffer;
+            this.json = json;
+            this.firstChunk = firstChunk;
+        }
+
+        @Override
+        protected Chunk compute() {
+            Chunk chunk = new Chunk();
+            LineParser parser = new LineParser();
+            int limit = buffer.limit();
+            int lineStart = 0;
+            int lineNumber = 0;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                int contentEnd = lineEnd;
+                if (contentEnd > lineStart && buffer.get(contentEnd - 1) == '\r') {
+                    contentEnd--;
+                }
+                lineNumber++;
+
+                boolean header = firstChunk && lineNumber == 1 && !json && isCsvHeader(buffer, lineStart, contentEnd);
+                if (!header && contentEnd > lineStart) {
+                    parser.parse(buffer, lineStart, contentEnd, json, chunk);
+                }
+                lineStart = lineEnd + 1;
+            }
+            return chunk;
+        }
+
+        // A header line starts with something other than a digit or a quoted digit
+        private static boolean isCsvHeader(MappedByteBuffer buffer, int start, int end) {
+            int i = start;
+            if (i < end && buffer.get(i) == '"') {
+                i++;
+            }
+            return i < end && !isDigit(buffer.get(i));
+        }
+    }
+
+    /**
+     * Parsed rows of one chunk, with chunk-local ID and name dictionaries.
+     */
+    private static final class Chunk {
+        private final ByteDictionary ids = new ByteDictionary();
+        private final ByteDictionary names = new ByteDictionary();
+        private final List<String> errors = new ArrayList<>();
+        private int size;
+        private int[] idSlot = new int[1024];
+        private int[] nameSlot = new int[1024];
+        private int[] epochDay = new int[1024];
+        private int[] timeIn = new int[1024];
+        private int[] timeOut = new int[1024];
+        private int skipped;
+        private int malformed;
+
+        void add(int id, int name, int day, int in, int out) {
+            if (size == epochDay.length) {
+                int newLength = size * 2;
+                idSlot = Arrays.copyOf(idSlot, newLength);
+                nameSlot = Arrays.copyOf(nameSlot, newLength);
+                epochDay = Arrays.copyOf(epochDay, newLength);
+                timeIn = Arrays.copyOf(timeIn, newLength);
+                timeOut = Arrays.copyOf(timeOut, newLength);
+            }
+            idSlot[size] = id;
+            nameSlot[size] = name;
+            epochDay[size] = day;
+            timeIn[size] = in;
+            timeOut[size] = out;
+            size++;
+        }
+
+        void malformed(String message) {
+            malformed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(message);
+            }
+        }
+    }
+
+    /**
+     * Splits a line into its six fields, copying (and unescaping) each field into a reusable
+     * buffer, then converts the fields to store columns.
+     */
+    private static final class LineParser {
+        private final byte[][] fields = new byte[FIELD_COUNT][64];
+        private final int[] lengths = new int[FIELD_COUNT];
+        private byte[] name = new byte[128];
+
+        void parse(MappedByteBuffer buffer, int start, int end, boolean json, Chunk chunk) {
+            Arrays.fill(lengths, -1);
+            boolean complete = json ? splitJson(buffer, start, end) : splitCsv(buffer, start, end);
+            if (!complete || lengths[ID] <= 0 || lengths[DATE] <= 0) {
+                chunk.malformed("Malformed attendance line: " + text(buffer, start, end));
+                return;
+            }
+
+            // Employee ID, trimmed, dropping the ".0" that spreadsheet exports add to numbers
+            int idStart = leadingSpaces(ID);
+            int idEnd = trimmedEnd(ID);
+            if (idEnd - idStart > 2 && fields[ID][idEnd - 2] == '.' && fields[ID][idEnd - 1] == '0') {
+                idEnd -= 2;
+            }
+
+            int day = parseDate(fields[DATE], lengths[DATE]);
+            if (day == AttendanceStore.NONE) {
+                chunk.malformed("Invalid date in attendance line: " + text(buffer, start, end));
+                return;
+            }
+            int in = parseTime(fields[TIME_IN], lengths[TIME_IN]);
+            int out = parseTime(fields[TIME_OUT], lengths[TIME_OUT]);
+            if (in == AttendanceStore.NONE || out == AttendanceStore.NONE) {
+                // Same rule as the workbook loader: punches without both times are skipped
+                chunk.skipped++;
+                return;
+            }
+
+            // Name as "Last First" with the first name trimmed, as the workbook loader passes
+            // column B (Last Name) as the name and trimmed column C (First Name) as the surname
+            int lastLength = Math.max(lengths[LAST_NAME], 0);
+            int firstStart = leadingSpaces(FIRST_NAME);
+            int firstLength = Math.max(trimmedEnd(FIRST_NAME) - firstStart, 0);
+            int nameLength = lastLength + 1 + firstLength;
+            if (name.length < nameLength) {
+                name = Arrays.copyOf(name, nameLength * 2);
+            }
+            System.arraycopy(fields[LAST_NAME], 0, name, 0, lastLength);
+            name[lastLength] = ' ';
+            System.arraycopy(fields[FIRST_NAME], firstStart, name, lastLength + 1, firstLength);
+
+            chunk.add(chunk.ids.slotOf(fields[ID], idStart, idEnd - idStart),
+                    chunk.names.slotOf(name, 0, nameLength), day, in, out);
+        }
+
+        // Splits a CSV line; quoted fields may contain commas and doubled quotes
+        private boolean splitCsv(MappedByteBuffer buffer, int start, int end) {
+            int field = 0;
+            int i = start;
+            while (field < FIELD_COUNT) {
+                int length = 0;
+                if (i < end && buffer.get(i) == '"') {
+                    i++;
+                    while (i < end) {
+                        byte b = buffer.get(i++);
+                        if (b == '"') {
+                            if (i < end && buffer.get(i) == '"') {
+                                i++;
+                            } else {
+                                break;
+                            }
+                        }
+                        length = append(field, length, b);
+                    }
+                    while (i < end && buffer.get(i) != ',') {
+                        i++;
+                    }
+                } else {
+                    while (i < end && buffer.get(i) != ',') {
+                        length = append(field, length, buffer.get(i++));
+                    }
+                }
+                lengths[field++] = length;
+                if (i >= end) {
+                    break;
+                }
+                i++;  // Skip the comma
+            }
+            // Columns after Log Out are ignored
+            return field >= DATE + 1;
+        }
+
+        // Splits a flat JSON object; unknown keys and non-string values other than numbers are skipped
+        private boolean splitJson(MappedByteBuffer buffer, int start, int end) {
+            int i = skipSpaces(buffer, start, end);
+            if (i >= end || buffer.get(i) != '{') {
+                return false;
+            }
+            i++;
+            while (true) {
+                i = skipSpaces(buffer, i, end);
+                if (i < end && buffer.get(i) == '}') {
+                    return true;
+                }
+                if (i >= end || buffer.get(i) != '"') {
+                    return false;
+                }
+                // Key
+                int keyStart = ++i;
+                while (i < end && buffer.get(i) != '"') {
+                    i++;
+                }
+                int field = keyField(buffer, keyStart, i);
+                i = skipSpaces(buffer, i + 1, end);
+                if (i >= end || buffer.get(i) != ':') {
+                    return false;
+                }
+                i = skipSpaces(buffer, i + 1, end);
+                if (i >= end) {
+                    return false;
+                }
+
+                // Value
+                int length = 0;
+                if (buffer.get(i) == '"') {
+                    i++;
+                    while (i < end && buffer.get(i) != '"') {
+                        byte b = buffer.get(i++);
+                        if (b == '\\' && i < end) {
+                            b = buffer.get(i++);
+                            if (b == 'u' && i + 4 <= end) {
+                                length = appendCodePoint(field, length, hex(buffer, i));
+                                i += 4;
+                                continue;
+                            }
+                            b = switch (b) {
+                                case 'n' -> (byte) '\n';
+                                case 't' -> (byte) '\t';
+                                case 'r' -> (byte) '\r';
+                                case 'b' -> (byte) '\b';
+                                case 'f' -> (byte) '\f';
+                                default -> b;
+                            };
+                        }
+                        if (field >= 0) {
+                            length = append(field, length, b);
+                        }
+                    }
+                    i++;  // Closing quote
+                } else {
+                    // Number, true, false or null
+                    boolean isNull = buffer.get(i) == 'n';
+                    while (i < end && buffer.get(i) != ',' && buffer.get(i) != '}' && buffer.get(i) != ' ') {
+                        if (field >= 0 && !isNull) {
+                            length = append(field, length, buffer.get(i));
+                        }
+                        i++;
+                    }
+                    if (isNull) {
+                        length = -1;
+                    }
+                }
+                if (field >= 0) {
+                    lengths[field] = length;
+                }
+
+                i = skipSpaces(buffer, i, end);
+                if (i < end && buffer.get(i) == ',') {
+                    i++;
+                }
+            }
+        }
+
+        private int keyField(MappedByteBuffer buffer, int start, int end) {
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                byte[] key = JSON_KEYS[field];
+                if (key.length != end - start) {
+                    continue;
+                }
+                int i = 0;
+                while (i < key.length && buffer.get(start + i) == key[i]) {
+                    i++;
+                }
+                if (i == key.length) {
+                    return field;
+                }
+            }
+            return -1;
+        }
+
+        private int append(int field, int length, byte b) {
+            if (length == fields[field].length) {
+                fields[field] = Arrays.copyOf(fields[field], length * 2);
+            }
+            fields[field][length] = b;
+            return length + 1;
+        }
+
+        // Appends a \\uXXXX escape as UTF-8 (surrogate pairs are rare in names and kept as-is)
+        private int appendCodePoint(int field, int length, int codePoint) {
+            if (field < 0) {
+                return length;
+            }
+            if (codePoint < 0x80) {
+                return append(field, length, (byte) codePoint);
+            }
+            if (codePoint < 0x800) {
+                length = append(field, length, (byte) (0xC0 | (codePoint >> 6)));
+                return append(field, length, (byte) (0x80 | (codePoint & 0x3F)));
+            }
+            length = append(field, length, (byte) (0xE0 | (codePoint >> 12)));
+            length = append(field, length, (byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            return append(field, length, (byte) (0x80 | (codePoint & 0x3F)));
+        }
+
+        private int leadingSpaces(int field) {
+            int i = 0;
+            while (i < lengths[field] && fields[field][i] == ' ') {
+                i++;
+            }
+            return i;
+        }
+
+        // End of the field without trailing spaces
+        private int trimmedEnd(int field) {
+            int end = Math.max(lengths[field], 0);
+            while (end > 0 && fields[field][end - 1] == ' ') {
+                end--;
+            }
+            return end;
+        }
+    }
+
+    /**
+     * Parses yyyy-MM-dd or M/d/yyyy into an epoch day. Anything after the date, such as a
+     * time of day, is ignored.
+     * @return the epoch day, or NONE if the date is invalid
+     */
+    static int parseDate(byte[] bytes, int length) {
+        int i = 0;
+        while (i < length && bytes[i] == ' ') {
+            i++;
+        }
+        int first = 0;
+        int second = 0;
+        int third = 0;
+        int part = 0;
+        int digits = 0;
+        byte separator = 0;
+        for (; i < length; i++) {
+            byte b = bytes[i];
+            if (isDigit(b)) {
+                int digit = b - '0';
+                if (part == 0) {
+                    first = first * 10 + digit;
+                } else if (part == 1) {
+                    second = second * 10 + digit;
+                } else {
+                    third = third * 10 + digit;
+                }
+                if (++digits > 4) {
+                    return AttendanceStore.NONE;
+                }
+            } else if ((b == '-' || b == '/') && part < 2 && digits > 0 && (separator == 0 || separator == b)) {
+                separator = b;
+                part++;
+                digits = 0;
+            } else if (part == 2 && digits > 0) {
+                break;
+            } else {
+                return AttendanceStore.NONE;
+            }
+        }
+        if (part != 2 || digits == 0) {
+            return AttendanceStore.NONE;
+        }
+        int year = separator == '-' ? first : third;
+        int month = separator == '-' ? second : first;
+        int day = separator == '-' ? third : second;
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return AttendanceStore.NONE;
+        }
+        return (int) epochDay(year, month, day);
+    }
+
+    /**
+     * Parses H:mm or H:mm:ss into a second of the day.
+     * @return the second of the day, or NONE if the time is missing or invalid
+     */
+    static int parseTime(byte[] bytes, int length) {
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int part = 0;
+        int digits = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = bytes[i];
+            if (isDigit(b)) {
+                int digit = b - '0';
+                if (part == 0) {
+                    hour = hour * 10 + digit;
+                } else if (part == 1) {
+                    minute = minute * 10 + digit;
+                } else {
+                    second = second * 10 + digit;
+                }
+                if (++digits > 2) {
+                    return AttendanceStore.NONE;
+                }
+            } else if (b == ':' && part < 2 && digits > 0) {
+                part++;
+                digits = 0;
+            } else if (b != ' ') {
+                return AttendanceStore.NONE;
+            }
+        }
+        if (part == 0 || digits == 0 || hour > 23 || minute > 59 || second > 59) {
+            return AttendanceStore.NONE;
+        }
+        return hour * 3600 + minute * 60 + second;
+    }
+
+    // Days since 1970-01-01 of a proleptic Gregorian date, without allocating a LocalDate
+    private static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static int skipSpaces(MappedByteBuffer buffer, int i, int end) {
+        while (i < end && (buffer.get(i) == ' ' || buffer.get(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int hex(MappedByteBuffer buffer, int start) {
+        int value = 0;
+        for (int i = start; i < start + 4; i++) {
+            value = value * 16 + Character.digit(buffer.get(i), 16);
+        }
+        return value;
+    }
+
+    private static String text(MappedByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[Math.min(end - start, 200)];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Open-addressing dictionary from byte sequences to slots, creating a String only the
+     * first time a sequence is seen.
+     */
+    private static final class ByteDictionary {
+        private byte[][] keys = new byte[64][];
+        private int[] slots = new int[64];
+        private final List<String> values = new ArrayList<>();
+
+        int slotOf(byte[] bytes, int offset, int length) {
+            int hash = hash(bytes, offset, length);
+            int mask = keys.length - 1;
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                byte[] key = keys[i];
+                if (key == null) {
+                    int slot = values.size();
+                    keys[i] = Arrays.copyOfRange(bytes, offset, offset + length);
+                    slots[i] = slot;
+                    values.add(new String(bytes, offset, length, StandardCharsets.UTF_8));
+                    if (values.size() * 2 > keys.length) {
+                        grow();
+                    }
+                    return slot;
+                }
+                if (Arrays.equals(key, 0, key.length, bytes, offset, offset + length)) {
+                    return slots[i];
+                }
+            }
+        }
+
+        String get(int slot) {
+            return values.get(slot);
+        }
+
+        private void grow() {
+            byte[][] oldKeys = keys;
+            int[] oldSlots = slots;
+            keys = new byte[oldKeys.length * 2][];
+            slots = new int[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] != null) {
+                    int i = hash(oldKeys[j], 0, oldKeys[j].length) & mask;
+                    while (keys[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    slots[i] = oldSlots[j];
+                }
+            }
+        }
+
+        private static int hash(byte[] bytes, int offset, int length) {
+            int hash = 1;
+            for (int i = offset; i < offset + length; i++) {
+                hash = 31 * hash + bytes[i];
+            }
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.mycompany.motorph;
+
+import java.time.LocalTime;
+
+/**
+ * Immutable snapshot of a completed gross wage calculation.
+ * Produced once by Grosswage and shared by every deduction calculator for the payslip,
+ * so none of them has to re-run the gross computation. Pay amounts are kept in centavos;
+ * the double getters convert them to pesos.
+ */
+public final class GrosswageResult {
+    private final String employeeID;
+    private final int employeeOrdinal;
+    private final String employeeName;
+    private final int year;
+    private final int month;
+    private final LatePenalty.PayrollCycle cycle;
+    private final int week;
+    private final LocalTime shiftStartTime;
+    private final boolean nightShift;
+    private final double hourlyRate;
+    private final double hoursWorked;
+    private final double regularHours;
+    private final double overtimeHours;
+    private final long regularPay;
+    private final long overtimePay;
+    private final long nightDifferentialPay;
+    private final long holidayPay;
+    private final long gross;
+    private final long monthGross;
+    private final long latePenalty;
+    private final int[] monthDays;
+    private final PayrollSnapshot snapshot;
+
+    GrosswageResult(Grosswage grosswage, PayrollSnapshot snapshot, int employeeOrdinal, double hourlyRate, double hoursWorked, double regularHours,
+                    double overtimeHours, long regularPay, long overtimePay, long nightDifferentialPay, long holidayPay,
+                    long gross, long monthGross, long latePenalty, int[] monthDays) {
+        this.employeeID = grosswage.getEmployeeID();
+        this.employeeOrdinal = employeeOrdinal;
+        this.employeeName = grosswage.getEmployeeName();
+        this.year = grosswage.getYear();
+        this.month = grosswage.getMonth();
+        this.cycle = grosswage.getCycle();
+        this.week = grosswage.getWeek();
+        this.shiftStartTime = grosswage.getShiftStartTime();
+        this.nightShift = grosswage.isNightShift();
+        this.hourlyRate = hourlyRate;
+        this.hoursWorked = hoursWorked;
+        this.regularHours = regularHours;
+        this.overtimeHours = overtimeHours;
+        this.regularPay = regularPay;
+        this.overtimePay = overtimePay;
+        this.nightDifferentialPay = nightDifferentialPay;
+        this.holidayPay = holidayPay;
+        this.gross = gross;
+        this.monthGross = monthGross;
+        this.latePenalty = latePenalty;
+        this.monthDays = monthDays;
+        this.snapshot = snapshot;
+    }
+
+    // Getters
+    public String getEmployeeID() { return employeeID; }
+    public int getEmployeeOrdinal() { return employeeOrdinal; }
+    public String getEmployeeName() { return employeeName; }
+    public int getYear() { return year; }
+    public int getMonth() { return month; }
+    public LatePenalty.PayrollCycle getCycle() { return cycle; }
+    public int getWeek() { return week; }
+    public LocalTime getShiftStartTime() { return shiftStartTime; }
+    public boolean isNightShift() { return nightShift; }
+    public double getHourlyRate() { return hourlyRate; }
+    public double getHoursWorked() { return hoursWorked; }
+    public double getRegularHours() { return regularHours; }
+    public double getOvertimeHours() { return overtimeHours; }
+    public double getRegularPay() { return Money.toPesos(regularPay); }
+    public double getOvertimePay() { return Money.toPesos(overtimePay); }
+    public double getNightDifferentialPay() { return Money.toPesos(nightDifferentialPay); }
+    public double getHolidayPay() { return Money.toPesos(holidayPay); }
+    public double getGross() { return Money.toPesos(gross); }
+
+    // Amounts in centavos
+    public long getRegularPayCentavos() { return regularPay; }
+    public long getOvertimePayCentavos() { return overtimePay; }
+    public long getNightDifferentialPayCentavos() { return nightDifferentialPay; }
+    public long getHolidayPayCentavos() { return holidayPay; }
+    public long getGrossCentavos() { return gross; }
+
+    // Gross of the whole month; the statutory brackets are monthly, so they are looked up with it
+    public long getMonthGrossCentavos() { return monthGross; }
+
+    // Late penalty for the period, from the same period totals as the pay
+    public long getLatePenaltyCentavos() { return latePenalty; }
+
+    // Data snapshot the gross was computed from; deductions read the same snapshot
+    public PayrollSnapshot getSnapshot() { return snapshot; }
+    public RateTable getRateTable() { return snapshot.getRateTable(year); }
+
+    // Epoch days of the month's punches, in date order; the deductions depend on all of them
+    public int[] getMonthDays() { return monthDays.clone(); }
+}
@@ -1,76 +1,185 @@
 package com.mycompany.motorph;
 
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
-import java.time.Month;
-import java.util.Set;
-import java.util.HashSet;
+import java.time.format.DateTimeParseException;
+import java.util.BitSet;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * This class contains Philippine holidays for the year 2024 only.
+ * This class contains the Philippine holiday calendar for every year defined in Holidays.properties.
  * - Regular holidays provide 200% pay.
  * - Special non-working days provide 130% pay.
+ *
+ * The calendar is loaded on first use into one byte per day, indexed by epoch day, so a lookup
+ * is a single array read. Changes copy the array and swap it in, so readers never lock.
  */
 public class HolidayChecker {
+    // Default path for the holiday definitions
+    static final String DEFAULT_PATH = "src/main/resources/Holidays.properties";
 
-    // Set to store regular holidays (200% pay)
-    private static final Set<LocalDate> REGULAR_HOLIDAYS = new HashSet<>();
-    
-    // Set to store special non-working days (130% pay)
-    private static final Set<LocalDate> SPECIAL_NON_WORKING_DAYS = new HashSet<>();
-
-    // Static block to initialize holiday sets
-    static {
-        // Adding regular holidays to the set (200% pay)
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.JANUARY, 1));   // New Year's Day
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.APRIL, 9));     // Araw ng Kagitingan
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.APRIL, 10));    // Eid'l Fitr
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.MAY, 1));       // Labor Day
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.JUNE, 12));     // Independence Day
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.JUNE, 17));     // Eid'l Adha
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.AUGUST, 26));   // National Heroes Day
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.NOVEMBER, 30)); // Bonifacio Day
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.DECEMBER, 25)); // Christmas Day
-        REGULAR_HOLIDAYS.add(LocalDate.of(2024, Month.DECEMBER, 30)); // Rizal Day
-
-        // Adding special non-working days to the set (130% pay)
-        SPECIAL_NON_WORKING_DAYS.add(LocalDate.of(2024, Month.FEBRUARY, 10)); // Chinese New Year
-        SPECIAL_NON_WORKING_DAYS.add(LocalDate.of(2024, Month.MARCH, 28));    // Maundy Thursday
-        SPECIAL_NON_WORKING_DAYS.add(LocalDate.of(2024, Month.MARCH, 29));    // Good Friday
-        SPECIAL_NON_WORKING_DAYS.add(LocalDate.of(2024, Month.MARCH, 30));    // Black Saturday
-        SPECIAL_NON_WORKING_DAYS.add(LocalDate.of(2024, Month.AUGUST, 21));   // Ninoy Aquino Day
-        SPECIAL_NON_WORKING_DAYS.add(LocalDate.of(2024, Month.NOVEMBER, 1));  // All Saints' Day
-        SPECIAL_NON_WORKING_DAYS.add(LocalDate.of(2024, Month.DECEMBER, 8));  // Immaculate Conception
-        SPECIAL_NON_WORKING_DAYS.add(LocalDate.of(2024, Month.DECEMBER, 31)); // New Year's Eve
+    // Day kinds stored in the calendar, and the pay multiplier of each
+    private static final byte WORKING_DAY = 0;
+    private static final byte SPECIAL_NON_WORKING_DAY = 1;
+    private static final byte REGULAR_HOLIDAY = 2;
+    private static final double[] MULTIPLIERS = {1.0, 1.3, 2.0};
+
+    private static final Metrics.Timer LOAD_TIMER = Metrics.timer("load.holidays");
+
+    // Bumped by every change to the calendar, so totals computed from it can tell they are stale
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private static final Object LOCK = new Object();
+    private static volatile String filePath = DEFAULT_PATH;
+    private static volatile Calendar calendar;  // Null until first use
+
+    /**
+     * Immutable day kinds from the first day of the earliest year to the last day of the latest
+     * year, plus the years the file defines.
+     */
+    private static final class Calendar {
+        final int firstDay;  // Epoch day of kinds[0]
+        final byte[] kinds;
+        final BitSet years;  // Years defined in the file
+
+        Calendar(int firstDay, byte[] kinds, BitSet years) {
+            this.firstDay = firstDay;
+            this.kinds = kinds;
+            this.years = years;
+        }
+
+        byte kindOf(int epochDay) {
+            int offset = epochDay - firstDay;
+            return offset >= 0 && offset < kinds.length ? kinds[offset] : WORKING_DAY;
+        }
+
+        // Copy with one day changed, grown to cover the day's year if needed
+        Calendar with(LocalDate date, byte kind) {
+            int day = (int) date.toEpochDay();
+            int first = Math.min(firstDay, (int) date.withDayOfYear(1).toEpochDay());
+            int end = Math.max(firstDay + kinds.length, (int) date.withDayOfYear(date.lengthOfYear()).toEpochDay() + 1);
+            byte[] copy = new byte[end - first];
+            System.arraycopy(kinds, 0, copy, firstDay - first, kinds.length);
+            copy[day - first] = kind;
+            return new Calendar(first, copy, years);
+        }
     }
 
+    private HolidayChecker() {}
+
     /**
      * Checks if a given date is a regular holiday (200% pay).
-     * 
+     *
      * @param date the date to check
      * @return true if the date is a regular holiday, false otherwise
      */
     public static boolean isRegularHoliday(LocalDate date) {
-        return REGULAR_HOLIDAYS.contains(date);
+        return calendar().kindOf((int) date.toEpochDay()) == REGULAR_HOLIDAY;
     }
 
     /**
      * Checks if a given date is a special non-working day (130% pay).
-     * 
+     *
      * @param date the date to check
      * @return true if the date is a special non-working day, false otherwise
      */
     public static boolean isSpecialNonWorkingDay(LocalDate date) {
-        return SPECIAL_NON_WORKING_DAYS.contains(date);
+        return calendar().kindOf((int) date.toEpochDay()) == SPECIAL_NON_WORKING_DAY;
     }
 
     /**
      * Checks if a given date is either a regular holiday or a special non-working day.
-     * 
+     *
      * @param date the date to check
      * @return true if the date is either a regular holiday or a special non-working day
      */
     public static boolean isHoliday(LocalDate date) {
-        return isRegularHoliday(date) || isSpecialNonWorkingDay(date);
+        return isHoliday((int) date.toEpochDay());
+    }
+
+    /**
+     * Checks if an epoch day is either a regular holiday or a special non-working day.
+     *
+     * @param epochDay the day to check, as LocalDate.toEpochDay()
+     * @return true if the day is either a regular holiday or a special non-working day
+     */
+    public static boolean isHoliday(int epochDay) {
+        return calendar().kindOf(epochDay) != WORKING_DAY;
+    }
+
+    /**
+     * Checks whether the holiday file defines a year. Payroll for other years would silently
+     * pay holidays as working days, so it is refused.
+     *
+     * @param year the year to check
+     * @return true if the year has holiday entries
+     */
+    public static boolean hasCalendar(int year) {
+        return year >= 0 && calendar().years.get(year);
+    }
+
+    /**
+     * Declares a date a regular holiday (200% pay), e.g. a proclaimed holiday.
+     * Cached payslips with a punch on that date are recomputed on next access.
+     *
+     * @param date the date to declare
+     */
+    public static void addRegularHoliday(LocalDate date) {
+        set(date, REGULAR_HOLIDAY);
+    }
+
+    /**
+     * Declares a date a special non-working day (130% pay).
+     * Cached payslips with a punch on that date are recomputed on next access.
+     *
+     * @param date the date to declare
+     */
+    public static void addSpecialNonWorkingDay(LocalDate date) {
+        set(date, SPECIAL_NON_WORKING_DAY);
+    }
+
+    /**
+     * Makes a date an ordinary working day again.
+     * Cached payslips with a punch on that date are recomputed on next access.
+     *
+     * @param date the date to clear
+     */
+    public static void removeHoliday(LocalDate date) {
+        set(date, WORKING_DAY);
+    }
+
+    /**
+     * Switches to the holiday definitions in another file; they are loaded on next use.
+     * Every cached payslip is recomputed on next access.
+     * @param newFilePath New path to the holiday definitions
+     */
+    public static void setFilePath(String newFilePath) {
+        if (newFilePath == null || newFilePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("Holiday file path cannot be null or empty");
+        }
+        synchronized (LOCK) {
+            filePath = newFilePath;
+            calendar = null;
+            VERSION.incrementAndGet();
+        }
+        PayslipCache.getDefault().invalidateAll();
+    }
+
+    // Gets the path of the holiday definitions
+    public static String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Gets the version of the holiday calendar, which changes whenever a holiday is added or removed.
+     *
+     * @return the calendar version
+     */
+    static long getVersion() {
+        return VERSION.get();
     }
 
     /**
@@ -78,13 +187,124 @@ public class HolidayChecker {
      * - 2.0 for regular holidays (200% pay)
      * - 1.3 for special non-working days (130% pay)
      * - 1.0 otherwise (normal pay)
-     * 
+     *
      * @param date the date to check
      * @return the pay multiplier for the given date
      */
     public static double getHolidayPayMultiplier(LocalDate date) {
-        if (isRegularHoliday(date)) return 2.0;  // 200% pay for regular holidays
-        if (isSpecialNonWorkingDay(date)) return 1.3; // 130% pay for special non-working days
-        return 1.0;  // Normal pay for other days
+        return getHolidayPayMultiplier((int) date.toEpochDay());
+    }
+
+    /**
+     * Gets the pay multiplier for an epoch day; see getHolidayPayMultiplier(LocalDate).
+     *
+     * @param epochDay the day to check, as LocalDate.toEpochDay()
+     * @return the pay multiplier for the day
+     */
+    public static double getHolidayPayMultiplier(int epochDay) {
+        return MULTIPLIERS[calendar().kindOf(epochDay)];
+    }
+
+    // Replaces one day's kind and tells dependants the calendar changed
+    private static void set(LocalDate date, byte kind) {
+        if (date == null) {
+            throw new IllegalArgumentException("Holiday date cannot be null");
+        }
+        synchronized (LOCK) {
+            calendar = calendar().with(date, kind);
+            VERSION.incrementAndGet();
+        }
+        PayslipCache.getDefault().invalidateHoliday(date);
+    }
+
+    // The loaded calendar; the file is read by the first caller
+    private static Calendar calendar() {
+        Calendar loaded = calendar;
+        if (loaded == null) {
+            synchronized (LOCK) {
+                loaded = calendar;
+                if (loaded == null) {
+                    loaded = load(filePath);
+                    calendar = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Loads every year defined in a holiday file. Keys are "year.regular" and "year.special",
+     * each a comma-separated list of ISO dates within that year.
+     *
+     * @param path Path to the properties file.
+     * @return The calendar.
+     * @throws IllegalStateException if the file cannot be read or an entry is invalid
+     */
+    private static Calendar load(String path) {
+        long start = Metrics.start();
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(path)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load holidays from " + path + ": " + e.getMessage(), e);
+        }
+
+        BitSet years = new BitSet();
+        for (String name : properties.stringPropertyNames()) {
+            years.set(parseYear(name, path));
+        }
+        if (years.isEmpty()) {
+            throw new IllegalStateException("No holidays defined in " + path);
+        }
+
+        int firstDay = (int) LocalDate.of(years.nextSetBit(0), 1, 1).toEpochDay();
+        int endDay = (int) LocalDate.of(years.length(), 1, 1).toEpochDay();  // Day after the last year
+        byte[] kinds = new byte[endDay - firstDay];
+        // Regular holidays go last, so a date listed under both pays the higher rate
+        for (int year = years.nextSetBit(0); year >= 0; year = years.nextSetBit(year + 1)) {
+            mark(kinds, firstDay, year, properties.getProperty(year + ".special"), SPECIAL_NON_WORKING_DAY, path);
+        }
+        for (int year = years.nextSetBit(0); year >= 0; year = years.nextSetBit(year + 1)) {
+            mark(kinds, firstDay, year, properties.getProperty(year + ".regular"), REGULAR_HOLIDAY, path);
+        }
+        LOAD_TIMER.stop(start);
+        return new Calendar(firstDay, kinds, years);
+    }
+
+    // Year of a "year.kind" key
+    private static int parseYear(String name, String path) {
+        int dot = name.indexOf('.');
+        String kind = dot < 0 ? "" : name.substring(dot + 1);
+        if (!kind.equals("regular") && !kind.equals("special")) {
+            throw new IllegalStateException("Unknown holiday key " + name + " in " + path);
+        }
+        try {
+            int year = Integer.parseInt(name.substring(0, dot));
+            if (year < 1 || year > 9999) {
+                throw new NumberFormatException();
+            }
+            return year;
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid year in holiday key " + name + " in " + path, e);
+        }
+    }
+
+    // Marks the dates of one list in the calendar
+    private static void mark(byte[] kinds, int firstDay, int year, String dates, byte kind, String path) {
+        if (dates == null || dates.isBlank()) {
+            return;
+        }
+        for (String value : dates.split(",")) {
+            LocalDate date;
+            try {
+                date = LocalDate.parse(value.trim());
+            } catch (DateTimeParseException e) {
+                throw new IllegalStateException("Invalid holiday date " + value.trim() + " in " + path, e);
+            }
+            if (date.getYear() != year) {
+                throw new IllegalStateException("Holiday " + date + " is listed under " + year + " in " + path);
+            }
+            kinds[(int) date.toEpochDay() - firstDay] = kind;
+        }
     }
 }
@@ -9,26 +9,126 @@ import java.time.DateTimeException;
 
 /**
  * This class calculates the late penalty for employees based on their attendance
- * for a specific month, year, and week. The penalty is calculated based on the 
+ * for a pay period: a week, half or the whole of a month. The penalty is calculated based on the 
  * employee's lateness beyond a grace period after their scheduled shift start time.
  */
 public class LatePenalty extends Calculation {
     private final String targetEmployeeID;  // Employee ID for which the penalty is calculated
     private final int targetMonth;          // Target month for the calculation
     private final int targetYear;           // Target year for the calculation
-    private final int week;                 // The week (1-4) within the month
+    private final PayrollCycle cycle;       // Pay cycle the penalty is calculated for
+    private final int week;                 // The week (1-4) within the month, for the weekly cycle
     private final double hourlyRate;        // Employee's hourly rate for penalty calculation
     private final LocalTime shiftStartTime; // Scheduled shift start time for the employee
     
     // Constants
     private static final int GRACE_PERIOD_MINUTES = 15;  // Grace period in minutes
+    private static final Metrics.Timer TIMER = Metrics.timer("calc.latePenalty");
     private static final LocalTime SHIFT_8AM = LocalTime.of(8, 0);  // 8:00 AM shift
     private static final LocalTime SHIFT_9AM = LocalTime.of(9, 0);  // 9:00 AM shift
     private static final LocalTime SHIFT_10AM = LocalTime.of(10, 0);  // 10:00 AM shift
 
-    // Enum to represent different payroll cycles (weekly, first half, second half)
+    /**
+     * Pay cycles and the days of the month each pay period covers.
+     * Monthly statutory contributions are split evenly over the periods of a month.
+     */
     public enum PayrollCycle {
-        WEEKLY, FIRST_HALF, SECOND_HALF
+        WEEKLY(4, "Weekly"),            // Weeks 1-4: days 1-7, 8-14, 15-21 and 22 to the end of the month
+        FIRST_HALF(2, "First Half"),    // Days 1-15
+        SECOND_HALF(2, "Second Half"),  // Day 16 to the end of the month
+        MONTHLY(1, "Monthly");          // The whole month
+
+        private final int periodsPerMonth;
+        private final String displayName;
+
+        PayrollCycle(int periodsPerMonth, String displayName) {
+            this.periodsPerMonth = periodsPerMonth;
+            this.displayName = displayName;
+        }
+
+        /** @return the number of pay periods of this cycle in a month */
+        public int getPeriodsPerMonth() { return periodsPerMonth; }
+
+        /** @return the name shown in menus, e.g. "First Half" */
+        public String getDisplayName() { return displayName; }
+
+        /**
+         * Checks a week number against the cycle; only the weekly cycle uses it.
+         * @param week The week of the month.
+         * @throws IllegalArgumentException if the cycle is weekly and the week is not 1-4
+         */
+        public void validateWeek(int week) {
+            if (this == WEEKLY && (week < 1 || week > 4)) {
+                throw new IllegalArgumentException("Week must be between 1-4");
+            }
+        }
+
+        /**
+         * Gets the first day of the month a pay period covers.
+         * @param week The week of the month; ignored unless the cycle is weekly.
+         * @return The first day of the month (1-31).
+         */
+        public int getFirstDay(int week) {
+            return switch (this) {
+                case WEEKLY -> 1 + (week - 1) * 7;
+                case SECOND_HALF -> 16;
+                default -> 1;
+            };
+        }
+
+        /**
+         * Gets the last day of the month a pay period covers.
+         * @param yearMonth The pay month.
+         * @param week The week of the month; ignored unless the cycle is weekly.
+         * @return The last day of the month (1-31).
+         */
+        public int getLastDay(YearMonth yearMonth, int week) {
+            return switch (this) {
+                case WEEKLY -> week >= 4 ? yearMonth.lengthOfMonth() : week * 7;  // Days 29-31 belong to week 4
+                case FIRST_HALF -> 15;
+                default -> yearMonth.lengthOfMonth();
+            };
+        }
+
+        /**
+         * Describes a pay period for headings, e.g. "Week 2" or "First Half".
+         * @param week The week of the month; ignored unless the cycle is weekly.
+         * @return The period description.
+         */
+        public String describe(int week) {
+            return this == WEEKLY ? "Week " + week : displayName;
+        }
+
+        /**
+         * Gets a short code for a pay period, for file names: w1-w4, h1, h2 or m.
+         * @param week The week of the month; ignored unless the cycle is weekly.
+         * @return The period code.
+         */
+        public String getCode(int week) {
+            return switch (this) {
+                case WEEKLY -> "w" + week;
+                case FIRST_HALF -> "h1";
+                case SECOND_HALF -> "h2";
+                case MONTHLY -> "m";
+            };
+        }
+
+        /**
+         * Parses a cycle name such as "weekly", "first_half" or "MONTHLY".
+         * @param name The cycle name, in any case, with '-' or '_' between words.
+         * @return The cycle.
+         * @throws IllegalArgumentException if the name is not a cycle
+         */
+        public static PayrollCycle parse(String name) {
+            if (name == null) {
+                throw new IllegalArgumentException("Pay cycle cannot be null");
+            }
+            try {
+                return valueOf(name.trim().toUpperCase().replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown pay cycle: " + name);
+            }
+        }
     }
 
     /**
@@ -37,6 +137,15 @@ public class LatePenalty extends Calculation {
      */
     public LatePenalty(String targetEmployeeID, int targetMonth, int targetYear, 
                        int week, double hourlyRate, LocalTime shiftStartTime) {
+        this(targetEmployeeID, targetMonth, targetYear, PayrollCycle.WEEKLY, week, hourlyRate, shiftStartTime);
+    }
+
+    /**
+     * Constructor for a late penalty over a pay period of any cycle.
+     * The week is only used, and validated, for the weekly cycle.
+     */
+    public LatePenalty(String targetEmployeeID, int targetMonth, int targetYear, PayrollCycle cycle,
+                       int week, double hourlyRate, LocalTime shiftStartTime) {
         if (targetEmployeeID == null || targetEmployeeID.trim().isEmpty()) {
             throw new IllegalArgumentException("Employee ID cannot be null or empty");
         }
@@ -46,9 +155,10 @@ public class LatePenalty extends Calculation {
         if (targetYear < 2000 || targetYear > LocalDate.now().getYear() + 1) {
             throw new IllegalArgumentException("Invalid year");
         }
-        if (week < 1 || week > 4) {
-            throw new IllegalArgumentException("Week must be between 1-4");
+        if (cycle == null) {
+            throw new IllegalArgumentException("Pay cycle cannot be null");
         }
+        cycle.validateWeek(week);
         if (hourlyRate <= 0) {
             throw new IllegalArgumentException("Hourly rate must be positive");
         }
@@ -66,6 +176,7 @@ public class LatePenalty extends Calculation {
         this.targetEmployeeID = targetEmployeeID;
         this.targetMonth = targetMonth;
         this.targetYear = targetYear;
+        this.cycle = cycle;
         this.week = week;
         this.hourlyRate = hourlyRate;
         this.shiftStartTime = shiftStartTime;
@@ -80,69 +191,46 @@ public class LatePenalty extends Calculation {
      */
     @Override
     public double calculate() {
+        long start = Metrics.start();
         try {
-            // Get the first and last dates for the week in the target month
+            // Get the first and last dates of the pay period in the target month
             YearMonth yearMonth = YearMonth.of(targetYear, targetMonth);
-            LocalDate startDate = calculateWeekStartDate(yearMonth);
-            LocalDate endDate = calculateWeekEndDate(yearMonth);
+            LocalDate startDate = yearMonth.atDay(cycle.getFirstDay(week));
+            LocalDate endDate = yearMonth.atDay(cycle.getLastDay(yearMonth, week));
             
-            double totalLateDeduction = 0;
+            long totalLateDeduction = 0;  // In centavos
+            long hourlyRateCentavos = Money.ofPesos(hourlyRate);
             
-            // Get all attendance records
-            List<AttendanceRecord> attendanceRecords = AttendanceRecord.getAttendanceRecords();
+            // Get the employee's attendance records for the pay period from the index, by ordinal when registered
+            AttendanceIndex index = PayrollSnapshot.current().getAttendance();
+            int ordinal = index.getRegistry().ordinalOf(targetEmployeeID);
+            List<AttendanceRecord> attendanceRecords = ordinal != EmployeeRegistry.NOT_FOUND
+                    ? index.getRecords(ordinal, startDate, endDate)
+                    : index.getRecords(targetEmployeeID, startDate, endDate);
 
+            // Calculate late penalty if the employee arrived after the grace period
+            int lateThreshold = shiftStartTime.plusMinutes(GRACE_PERIOD_MINUTES).toSecondOfDay();
             for (AttendanceRecord record : attendanceRecords) {
-                if (record != null && record.getId().equals(targetEmployeeID)) {
-                    LocalDate recordDate = record.getDate();
-                    if (recordDate != null && 
-                        !recordDate.isBefore(startDate) && 
-                        !recordDate.isAfter(endDate)) {
-                        
-                        LocalTime timeIn = record.getTimeIn();
-                        if (timeIn != null) {
-                            // Calculate late penalty if the employee arrived after the grace period
-                            LocalTime lateThreshold = shiftStartTime.plusMinutes(GRACE_PERIOD_MINUTES);
-                            if (timeIn.isAfter(lateThreshold)) {
-                                long minutesLate = java.time.Duration.between(lateThreshold, timeIn).toMinutes();
-                                double deduction = (hourlyRate / 60.0) * minutesLate;  // Penalty based on hourly rate
-                                totalLateDeduction += Math.max(0, deduction);  // Avoid negative deductions
-                            }
-                        }
-                    }
+                int timeIn = record.getTimeInSecond();  // A missing time is never late
+                if (timeIn > lateThreshold) {
+                    long minutesLate = (timeIn - lateThreshold) / 60;
+                    long deduction = Money.divide(hourlyRateCentavos * minutesLate, 60);  // Penalty based on hourly rate
+                    totalLateDeduction += Math.max(0, deduction);  // Avoid negative deductions
                 }
             }
-            return totalLateDeduction;  // Return the total late penalty
+            return Money.toPesos(totalLateDeduction);  // Return the total late penalty
         } catch (DateTimeException e) {
             throw new IllegalStateException("Failed to calculate late penalty: " + e.getMessage(), e);
+        } finally {
+            TIMER.stop(start);
         }
     }
 
-    /**
-     * Calculates the start date of the target week based on the given month and year.
-     * 
-     * @param yearMonth the YearMonth representing the target month and year
-     * @return the LocalDate representing the start date of the week
-     */
-    private LocalDate calculateWeekStartDate(YearMonth yearMonth) {
-        int startDay = 1 + (week - 1) * 7;  // First day of the target week
-        return yearMonth.atDay(Math.min(startDay, yearMonth.lengthOfMonth()));  // Return the valid start date
-    }
-
-    /**
-     * Calculates the end date of the target week based on the given month and year.
-     * 
-     * @param yearMonth the YearMonth representing the target month and year
-     * @return the LocalDate representing the end date of the week
-     */
-    private LocalDate calculateWeekEndDate(YearMonth yearMonth) {
-        int endDay = week * 7;  // Last day of the target week
-        return yearMonth.atDay(Math.min(endDay, yearMonth.lengthOfMonth()));  // Return the valid end date
-    }
-
     // Getters for the instance variables
     public String getTargetEmployeeID() { return targetEmployeeID; }
     public int getTargetMonth() { return targetMonth; }
     public int getTargetYear() { return targetYear; }
+    public PayrollCycle getCycle() { return cycle; }
     public int getWeek() { return week; }
     public double getHourlyRate() { return hourlyRate; }
     public LocalTime getShiftStartTime() { return shiftStartTime; }
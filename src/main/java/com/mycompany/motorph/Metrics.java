@@ -0,0 +1,323 @@
+package com.mycompany.motorph;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Registry of counters and timers for the payroll hot paths.
+ *
+ * Metrics are off unless the JVM is started with -Dmotorph.metrics=true. ENABLED is a
+ * constant, so when it is false the JIT drops the recording code and an instrumented method
+ * pays nothing beyond the call. When enabled:
+ * - counters and timers are LongAdders, so threads recording at once do not contend,
+ * - timers keep a latency histogram with four buckets per power of two (within 25%),
+ * - every metric is registered as an MBean under com.mycompany.motorph:type=Counter|Timer,
+ * - a text summary of every metric is printed when the JVM exits.
+ *
+ * Usage:
+ *     private static final Metrics.Timer TIMER = Metrics.timer("calc.sss");
+ *     long start = Metrics.start();
+ *     try { ... } finally { TIMER.stop(start); }
+ */
+public final class Metrics {
+
+    // Whether metrics are recorded; read once at startup so disabled checks fold away
+    public static final boolean ENABLED = Boolean.getBoolean("motorph.metrics");
+
+    private static final String JMX_DOMAIN = "com.mycompany.motorph";
+
+    // Metrics by name, sorted for the summary
+    private static final Map<String, Object> METRICS = new ConcurrentSkipListMap<>();
+
+    static {
+        if (ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.print(summary()), "metrics-summary"));
+        }
+    }
+
+    private Metrics() {}
+
+    /**
+     * Gets or creates a counter.
+     * @param name The metric name, e.g. "payslipCache.hit".
+     * @return The counter.
+     */
+    public static Counter counter(String name) {
+        return register(name, Counter::new, Counter.class, CounterMBean.class);
+    }
+
+    /**
+     * Gets or creates a timer.
+     * @param name The metric name, e.g. "calc.grosswage".
+     * @return The timer.
+     */
+    public static Timer timer(String name) {
+        return register(name, Timer::new, Timer.class, TimerMBean.class);
+    }
+
+    /**
+     * Starts timing an operation.
+     * @return The start time to pass to Timer.stop, or 0 when metrics are disabled.
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Renders every metric as text, one per line.
+     * @return The summary.
+     */
+    public static String summary() {
+        StringBuilder text = new StringBuilder(256).append("----- METRICS -----").append(System.lineSeparator());
+        for (Object metric : METRICS.values()) {
+            text.append(metric).append(System.lineSeparator());
+        }
+        return text.append("-------------------").append(System.lineSeparator()).toString();
+    }
+
+    // Returns the metric registered under the name; only a name seen for the first time creates
+    // a metric (and its MBean), so repeated lookups allocate nothing
+    private static <T, M> T register(String name, Function<String, T> factory, Class<T> type, Class<M> mbeanType) {
+        Object existing = METRICS.get(name);
+        if (existing == null) {
+            T metric = factory.apply(name);
+            existing = METRICS.putIfAbsent(name, metric);
+            if (existing == null) {
+                registerMBean(name, metric, type, mbeanType);
+                return metric;
+            }
+        }
+        if (!type.isInstance(existing)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a "
+                    + existing.getClass().getSimpleName());
+        }
+        return type.cast(existing);
+    }
+
+    // Registers a new metric as an MBean when metrics are enabled
+    private static <T, M> void registerMBean(String name, T metric, Class<T> type, Class<M> mbeanType) {
+        if (ENABLED) {
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=" + type.getSimpleName()
+                        + ",name=" + ObjectName.quote(name));
+                server.registerMBean(new StandardMBean(mbeanType.cast(metric), mbeanType), objectName);
+            } catch (JMException e) {
+                System.err.println("Error registering metric " + name + " with JMX: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * JMX view of a counter.
+     */
+    public interface CounterMBean {
+        long getCount();
+        void reset();
+    }
+
+    /**
+     * JMX view of a timer; times are in milliseconds.
+     */
+    public interface TimerMBean {
+        long getCount();
+        double getTotalMillis();
+        double getMeanMillis();
+        double getMaxMillis();
+        double getMedianMillis();
+        double get95thPercentileMillis();
+        double get99thPercentileMillis();
+        void reset();
+    }
+
+    /**
+     * Monotonic count of events.
+     */
+    public static final class Counter implements CounterMBean {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+
+        private Counter(String name) {
+            this.name = name;
+        }
+
+        public void increment() {
+            if (ENABLED) {
+                count.increment();
+            }
+        }
+
+        public void add(long amount) {
+            if (ENABLED) {
+                count.add(amount);
+            }
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public void reset() {
+            count.reset();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-32s count=%d", name, getCount());
+        }
+    }
+
+    /**
+     * Count, total, maximum and latency histogram of timed operations.
+     */
+    public static final class Timer implements TimerMBean {
+        // Four buckets per power of two up to Long.MAX_VALUE nanoseconds
+        private static final int BUCKETS = 248;
+
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        private Timer(String name) {
+            this.name = name;
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Records the time since a Metrics.start() value.
+         * @param start The value Metrics.start() returned.
+         */
+        public void stop(long start) {
+            if (ENABLED) {
+                record(System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Records one operation.
+         * @param nanos The operation's duration in nanoseconds.
+         */
+        public void record(long nanos) {
+            if (!ENABLED) {
+                return;
+            }
+            if (nanos < 0) {
+                nanos = 0;
+            }
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            buckets[bucketOf(nanos)].increment();
+        }
+
+        // 0-3 map to themselves; above that, the power of two plus the next two bits
+        private static int bucketOf(long nanos) {
+            if (nanos < 4) {
+                return (int) nanos;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            return 4 * (exponent - 1) + (int) ((nanos >>> (exponent - 2)) & 3);
+        }
+
+        // Largest value that falls in a bucket
+        private static long upperBoundOf(int bucket) {
+            if (bucket < 4) {
+                return bucket;
+            }
+            int exponent = bucket / 4 + 1;
+            long lower = (4L + bucket % 4) << (exponent - 2);
+            return lower + (1L << (exponent - 2)) - 1;
+        }
+
+        // Upper bound of the bucket holding the given fraction of the recorded operations
+        private double percentileMillis(double fraction) {
+            long total = 0;
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0.0;
+            }
+            long rank = (long) Math.ceil(fraction * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), maxNanos.get()) / 1e6;
+                }
+            }
+            return maxNanos.get() / 1e6;
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public double getTotalMillis() {
+            return totalNanos.sum() / 1e6;
+        }
+
+        @Override
+        public double getMeanMillis() {
+            long n = count.sum();
+            return n == 0 ? 0.0 : totalNanos.sum() / 1e6 / n;
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return maxNanos.get() / 1e6;
+        }
+
+        @Override
+        public double getMedianMillis() {
+            return percentileMillis(0.50);
+        }
+
+        @Override
+        public double get95thPercentileMillis() {
+            return percentileMillis(0.95);
+        }
+
+        @Override
+        public double get99thPercentileMillis() {
+            return percentileMillis(0.99);
+        }
+
+        @Override
+        public void reset() {
+            count.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%-32s count=%d total=%.3fms mean=%.3fms p50=%.3fms p95=%.3fms p99=%.3fms max=%.3fms",
+                    name, getCount(), getTotalMillis(), getMeanMillis(), getMedianMillis(),
+                    get95thPercentileMillis(), get99thPercentileMillis(), getMaxMillis());
+        }
+    }
+}
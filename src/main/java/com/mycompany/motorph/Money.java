@@ -0,0 +1,127 @@
+package com.mycompany.motorph;
+
+/**
+ * Fixed-point money arithmetic on amounts held as a long number of centavos.
+ * Amounts never live in a double between calculations, so sums are exact and do not depend
+ * on the order they are added in, and none of the operations allocate.
+ *
+ * Rounding rule: whenever an amount has to be rounded to the centavo (a peso value from the
+ * workbook, a rate applied to an amount, or a division), it is rounded half away from zero.
+ */
+public final class Money {
+    public static final long ZERO = 0L;
+
+    private static final long CENTAVOS_PER_PESO = 100L;
+
+    private Money() {}
+
+    /**
+     * Converts a peso amount to centavos.
+     * @param pesos The amount in pesos.
+     * @return The amount in centavos, rounded half away from zero.
+     */
+    public static long ofPesos(double pesos) {
+        return round(pesos * CENTAVOS_PER_PESO);
+    }
+
+    /**
+     * Converts centavos to a peso amount, for display and for the double-based getters.
+     * @param centavos The amount in centavos.
+     * @return The amount in pesos.
+     */
+    public static double toPesos(long centavos) {
+        return centavos / (double) CENTAVOS_PER_PESO;
+    }
+
+    /**
+     * Multiplies an amount by a factor such as a rate or a number of hours.
+     * @param centavos The amount in centavos.
+     * @param factor The factor.
+     * @return The product in centavos, rounded half away from zero.
+     */
+    public static long multiply(long centavos, double factor) {
+        return round(centavos * factor);
+    }
+
+    /**
+     * Divides an amount into equal parts, for example a monthly contribution into weeks.
+     * @param centavos The amount in centavos.
+     * @param divisor The divisor; must be positive.
+     * @return The quotient in centavos, rounded half away from zero.
+     */
+    public static long divide(long centavos, long divisor) {
+        if (divisor <= 0) {
+            throw new IllegalArgumentException("Divisor must be positive");
+        }
+        long quotient = centavos / divisor;
+        long remainder = Math.abs(centavos % divisor);
+        // Round away from zero when the remainder is at least half the divisor
+        if (remainder * 2 >= divisor) {
+            quotient += centavos < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    /**
+     * Formats an amount as pesos with two decimals and comma grouping, e.g. "12,345.60".
+     * The output does not depend on the default locale.
+     *
+     * @param centavos The amount in centavos.
+     * @return The formatted amount.
+     */
+    public static String format(long centavos) {
+        StringBuilder text = new StringBuilder(24);
+        if (centavos < 0) {
+            text.append('-');
+        }
+        long abs = Math.abs(centavos);
+        String pesos = Long.toString(abs / CENTAVOS_PER_PESO);
+        for (int i = 0; i < pesos.length(); i++) {
+            if (i > 0 && (pesos.length() - i) % 3 == 0) {
+                text.append(',');
+            }
+            text.append(pesos.charAt(i));
+        }
+        long fraction = abs % CENTAVOS_PER_PESO;
+        text.append('.').append(fraction < 10 ? "0" : "").append(fraction);
+        return text.toString();
+    }
+
+    /**
+     * Formats an amount as a plain decimal with two places and no grouping, e.g. "-12345.60",
+     * for machine-readable output such as JSON or CSV.
+     *
+     * @param centavos The amount in centavos.
+     * @return The formatted amount.
+     */
+    public static String toPlainString(long centavos) {
+        StringBuilder text = new StringBuilder(24);
+        appendPlain(text, centavos);
+        return text.toString();
+    }
+
+    /**
+     * Appends an amount as a plain decimal with two places and no grouping, without creating
+     * intermediate strings.
+     *
+     * @param text The builder to append to.
+     * @param centavos The amount in centavos.
+     * @return The builder.
+     */
+    public static StringBuilder appendPlain(StringBuilder text, long centavos) {
+        if (centavos < 0) {
+            text.append('-');
+        }
+        long abs = Math.abs(centavos);
+        long fraction = abs % CENTAVOS_PER_PESO;
+        return text.append(abs / CENTAVOS_PER_PESO).append('.').append(fraction < 10 ? "0" : "").append(fraction);
+    }
+
+    // Rounds a centavo value half away from zero
+    private static long round(double centavos) {
+        if (Double.isNaN(centavos) || Double.isInfinite(centavos)) {
+            throw new IllegalArgumentException("Amount is not a finite number: " + centavos);
+        }
+        return centavos < 0 ? -Math.round(-centavos) : Math.round(centavos);
+    }
+}
@@ -1,10 +1,12 @@
 /*
  * Main class for MotorPH application.
  * Handles user login, menu navigation, and core functionalities.
- * Updated for weekly payroll processing.
+ * Updated for weekly, semi-monthly and monthly payroll processing.
  */
 package com.mycompany.motorph;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Scanner;
 import java.text.DecimalFormat;
@@ -13,27 +15,36 @@ public class MotorPHMain {
     private static final Scanner scanner = new Scanner(System.in);
     private static final DecimalFormat decimalFormat = new DecimalFormat("#.##");
 
+    // Time spent rendering results to the console
+    private static final Metrics.Timer REGISTER_RENDER_TIMER = Metrics.timer("console.register");
+    private static final Metrics.Timer GROSS_RENDER_TIMER = Metrics.timer("console.grossDetails");
+    private static final Metrics.Timer PAYROLL_RENDER_TIMER = Metrics.timer("console.payrollDetails");
+
     public static void main(String[] args) {
+        // Load employees, attendance and rate tables in the background while the user logs in
+        PayrollSnapshot.loadInBackground();
+        watchEmployeeFile();
+
         // Attempt to log in before proceeding to the main menu
         if (login()) {
             System.out.println("Current Working Directory: " + System.getProperty("user.dir"));
 
-            // Load attendance records from the Excel file
-            try {
-                AttendanceRecord.loadAttendanceFromExcel("src/main/resources/AttendanceRecord.xlsx");
-                System.out.println("Attendance records loaded successfully.");
-            } catch (Exception e) {
-                System.err.println("Error loading attendance records: " + e.getMessage());
-                return; // Exit if attendance records cannot be loaded
-            }
-
-            // Display the main menu
+            // Display the main menu; each option waits only for the data it needs
             menu();
         } else {
             System.out.println("Login failed. Exiting application.");
         }
     }
 
+    // Reloads the employees whenever the employee workbook is saved
+    private static void watchEmployeeFile() {
+        try {
+            EmployeeFileWatcher.start();
+        } catch (IOException e) {
+            System.err.println("Error watching the employee file, changes need a restart: " + e.getMessage());
+        }
+    }
+
     private static boolean login() {
         String correctUsername = "admin";
         String correctPassword = "admin";
@@ -55,6 +66,10 @@ public class MotorPHMain {
                     1: Show Employee Details
                     2: Calculate Gross Wage
                     3: Calculate Net Wage
+                    4: Run Payroll for All Employees
+                    5: Import Attendance Delta File
+                    6: Export Payroll Register
+                    7: Generate Payslip Files
                     0: EXIT
                     -------------------------
                     CHOOSE: """);
@@ -62,15 +77,24 @@ public class MotorPHMain {
             String choice = scanner.next();
             System.out.println("-------------------------");
 
-            switch (choice) {
-                case "1" -> handleEmployeeDetails();
-                case "2" -> calculateGrossWage();
-                case "3" -> calculateNetWage();
-                case "0" -> {
-                    System.out.println("Exiting application. Goodbye!");
-                    System.exit(0);
+            // Load failures and invalid input surface here instead of ending the session
+            try {
+                switch (choice) {
+                    case "1" -> handleEmployeeDetails();
+                    case "2" -> calculateGrossWage();
+                    case "3" -> calculateNetWage();
+                    case "4" -> runPayrollForAllEmployees();
+                    case "5" -> importAttendanceDelta();
+                    case "6" -> exportPayrollRegister();
+                    case "7" -> generatePayslips();
+                    case "0" -> {
+                        System.out.println("Exiting application. Goodbye!");
+                        System.exit(0);
+                    }
+                    default -> System.out.println("Invalid input! Please try again.");
                 }
-                default -> System.out.println("Invalid input! Please try again.");
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                System.err.println("Error: " + e.getMessage());
             }
 
             System.out.println("Back to menu? 1 = yes, 0 = no");
@@ -130,13 +154,7 @@ public class MotorPHMain {
     }
 
     private static Employee findEmployeeById(String empId) {
-        List<Employee> employees = EmployeeModelFromFile.getEmployeeModelList();
-        for (Employee employee : employees) {
-            if (employee.getEmployeeNumber().equals(empId)) {
-                return employee;
-            }
-        }
-        return null;
+        return EmployeeModelFromFile.getEmployeeById(empId);
     }
 
     private static void calculateGrossWage() {
@@ -152,20 +170,23 @@ public class MotorPHMain {
         System.out.println("Employee Name: " + employee.getLastName() + ", " + employee.getFirstName());
         int year = getYear();
         int month = getMonth();
-        int week = getWeek();
+        LatePenalty.PayrollCycle cycle = getCycle();
+        int week = getWeek(cycle);
 
         Grosswage grosswage = new Grosswage(
+            null,
             empId, 
             employee.getFirstName(), 
             employee.getLastName(), 
             year, 
             month, 
+            cycle,
             week, 
             employee.getShiftStartTime(), 
             employee.isNightShift()
         );
 
-        displayGrossWageDetails(week, month, year, grosswage);
+        displayGrossWageDetails(cycle.describe(week), month, year, grosswage);
     }
 
     private static void calculateNetWage() {
@@ -181,15 +202,18 @@ public class MotorPHMain {
 
         int year = getYear();
         int month = getMonth();
-        int week = getWeek();
+        LatePenalty.PayrollCycle cycle = getCycle();
+        int week = getWeek(cycle);
         String employeeName = employee.getLastName() + ", " + employee.getFirstName();
 
         Grosswage grosswage = new Grosswage(
+            null,
             empId, 
             employee.getFirstName(), 
             employee.getLastName(), 
             year, 
             month, 
+            cycle,
             week, 
             employee.getShiftStartTime(), 
             employee.isNightShift()
@@ -206,38 +230,119 @@ public class MotorPHMain {
             year
         );
 
-        displayPayrollResults(week, month, year, empId, employeeName, grosswage, netwage);
+        displayPayrollResults(cycle.describe(week), month, year, empId, employeeName, grosswage, netwage);
+    }
+
+    private static void runPayrollForAllEmployees() {
+        int year = getYear();
+        int month = getMonth();
+        LatePenalty.PayrollCycle cycle = getCycle();
+        int week = getWeek(cycle);
+
+        PayrollRegister register = new PayrollRun(year, month, cycle, week).run();
+        long start = Metrics.start();
+        String format = "%-10s %-30s %15s %15s%n";
+
+        System.out.println("\n" + cycle.describe(week) + " Payroll Register " + month + "/" + year + ":");
+        System.out.println("------------------------------------------------------------------------");
+        System.out.printf(format, "ID", "Employee Name", "Gross (PHP)", "Net (PHP)");
+        System.out.println("------------------------------------------------------------------------");
+        for (PayrollRegister.Entry entry : register.getEntries()) {
+            Employee employee = entry.getEmployee();
+            String employeeName = employee.getLastName() + ", " + employee.getFirstName();
+            if (entry.isSuccessful()) {
+                System.out.printf(format, employee.getEmployeeNumber(), employeeName,
+                        decimalFormat.format(entry.getGross()), decimalFormat.format(entry.getNet()));
+            } else {
+                System.out.printf("%-10s %-30s ERROR: %s%n", employee.getEmployeeNumber(), employeeName, entry.getError());
+            }
+        }
+        System.out.println("------------------------------------------------------------------------");
+        System.out.printf(format, "TOTAL", register.getEntries().size() + " employees",
+                decimalFormat.format(register.getTotalGross()), decimalFormat.format(register.getTotalNet()));
+        if (register.getFailureCount() > 0) {
+            System.out.println(register.getFailureCount() + " employee(s) could not be computed.");
+        }
+        System.out.println("------------------------------------------------------------------------");
+        REGISTER_RENDER_TIMER.stop(start);
+    }
+
+    private static void importAttendanceDelta() {
+        System.out.print("Enter path of the attendance file to merge (.xlsx, .csv or .ndjson): ");
+        String path = scanner.next();
+        AttendanceRecord.loadAttendanceDelta(path);
+    }
+
+    private static void exportPayrollRegister() {
+        int year = getYear();
+        int month = getMonth();
+        LatePenalty.PayrollCycle cycle = getCycle();
+        int week = getWeek(cycle);
+        System.out.print("Enter path of the register file to write (.csv or .xlsx): ");
+        String path = scanner.next();
+
+        try {
+            int rows = PayrollRegisterExporter.exportPeriod(new PayrollRun(year, month, cycle, week), Path.of(path));
+            System.out.println("Exported " + rows + " employees to " + path + ".");
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error exporting payroll register: " + e.getMessage());
+        }
+    }
+
+    private static void generatePayslips() {
+        int year = getYear();
+        int month = getMonth();
+        LatePenalty.PayrollCycle cycle = getCycle();
+        int week = getWeek(cycle);
+        System.out.print("Enter directory to write the payslips to: ");
+        String directory = scanner.next();
+
+        try {
+            long start = System.nanoTime();
+            int written = PayslipGenerator.generate(new PayrollRun(year, month, cycle, week), Path.of(directory));
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("Wrote " + written + " payslips to " + directory + " in " + millis + " ms.");
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error generating payslips: " + e.getMessage());
+        }
     }
 
-    private static void displayGrossWageDetails(int week, int month, int year, Grosswage grosswage) {
+    private static void displayGrossWageDetails(String period, int month, int year, Grosswage grosswage) {
         double gross = grosswage.calculate();
+        long start = Metrics.start();
         double regularHours = grosswage.getRegularHours();
         double overtimeHours = grosswage.getOvertimeHours();
         double regularPay = grosswage.getRegularPay();
         double overtimePay = grosswage.getOvertimePay();
+        double nightDifferentialPay = grosswage.getNightDifferentialPay();
         double holidayPay = grosswage.getHolidayPay();
 
-        System.out.println("\nWeek " + week + " of Month " + month + "/" + year + ":");
+        System.out.println("\n" + period + " of Month " + month + "/" + year + ":");
         System.out.println("------------------------------------------");
         System.out.printf("%-25s: %s hrs%n", "Regular Hours", decimalFormat.format(regularHours));
         System.out.printf("%-25s: %s hrs%n", "Overtime Hours", decimalFormat.format(overtimeHours));
         System.out.printf("%-25s: PHP %s%n", "Regular Pay", decimalFormat.format(regularPay));
         System.out.printf("%-25s: PHP %s%n", "Overtime Pay", decimalFormat.format(overtimePay));
+        System.out.printf("%-25s: PHP %s%n", "Night Differential", decimalFormat.format(nightDifferentialPay));
         System.out.printf("%-25s: PHP %s%n", "Holiday Premium Pay", decimalFormat.format(holidayPay));
         System.out.printf("%-25s: PHP %s%n", "Total Gross Wage", decimalFormat.format(gross));
         System.out.println("------------------------------------------");
+        GROSS_RENDER_TIMER.stop(start);
     }
 
-    private static void displayPayrollResults(int week, int month, int year, String empId, 
+    private static void displayPayrollResults(String period, int month, int year, String empId, 
                                            String employeeName, Grosswage grosswage, Netwage netwage) {
-        double gross = grosswage.calculate();
-        double regularHours = grosswage.getRegularHours();
-        double overtimeHours = grosswage.getOvertimeHours();
-        double regularPay = grosswage.getRegularPay();
-        double overtimePay = grosswage.getOvertimePay();
-        double holidayPay = grosswage.getHolidayPay();
-
-        // Get weekly deductions
+        // Reuse the gross computed for the Netwage instead of recalculating it
+        GrosswageResult grossResult = grosswage.getResult();
+        double gross = grossResult.getGross();
+        double regularHours = grossResult.getRegularHours();
+        double overtimeHours = grossResult.getOvertimeHours();
+        double regularPay = grossResult.getRegularPay();
+        double overtimePay = grossResult.getOvertimePay();
+        double nightDifferentialPay = grossResult.getNightDifferentialPay();
+        double holidayPay = grossResult.getHolidayPay();
+
+        // Get the deductions for the pay period
         double sssDeduction = netwage.getSSSDeduction();
         double philhealthDeduction = netwage.getPhilhealthDeduction();
         double pagibigDeduction = netwage.getPagIbigDeduction();
@@ -246,9 +351,10 @@ public class MotorPHMain {
         double totalDeductions = netwage.getTotalDeductions();
         double taxableIncome = netwage.getTaxableIncome();
         double withholdingTax = netwage.getWithholdingTax();
-        double netWage = gross - totalDeductions - withholdingTax;
+        double netWage = netwage.calculate();
+        long start = Metrics.start();
 
-        System.out.println("\nWeek " + week + " Payroll Details " + month + "/" + year + ":");
+        System.out.println("\n" + period + " Payroll Details " + month + "/" + year + ":");
         System.out.println("------------------------------------------");
         System.out.printf("%-20s: %s%n", "Employee ID", empId);
         System.out.printf("%-20s: %s%n", "Employee Name", employeeName);
@@ -257,6 +363,7 @@ public class MotorPHMain {
         System.out.printf("%-20s: %s hrs%n", "Overtime Hours", decimalFormat.format(overtimeHours));
         System.out.printf("%-20s: PHP %s%n", "Regular Pay", decimalFormat.format(regularPay));
         System.out.printf("%-20s: PHP %s%n", "Overtime Pay", decimalFormat.format(overtimePay));
+        System.out.printf("%-20s: PHP %s%n", "Night Differential", decimalFormat.format(nightDifferentialPay));
         System.out.printf("%-20s: PHP %s%n", "Holiday Premium Pay", decimalFormat.format(holidayPay));
         System.out.printf("%-20s: PHP %s%n", "Gross Wage", decimalFormat.format(gross));
         
@@ -271,6 +378,7 @@ public class MotorPHMain {
         System.out.println("------------------------------------------");
         System.out.printf("%-20s: PHP %s%n", "NET WAGE", decimalFormat.format(netWage));
         System.out.println("------------------------------------------");
+        PAYROLL_RENDER_TIMER.stop(start);
     }
 
     private static int getYear() {
@@ -299,6 +407,32 @@ public class MotorPHMain {
         return month;
     }
 
+    private static LatePenalty.PayrollCycle getCycle() {
+        LatePenalty.PayrollCycle[] cycles = LatePenalty.PayrollCycle.values();
+        StringBuilder prompt = new StringBuilder("Enter Pay Cycle (");
+        for (int i = 0; i < cycles.length; i++) {
+            prompt.append(i == 0 ? "" : ", ").append(i + 1).append(" = ").append(cycles[i].getDisplayName());
+        }
+        prompt.append("): ");
+        while (true) {
+            System.out.print(prompt);
+            while (!scanner.hasNextInt()) {
+                System.out.print("Invalid input. " + prompt);
+                scanner.next();
+            }
+            int choice = scanner.nextInt();
+            if (choice >= 1 && choice <= cycles.length) {
+                return cycles[choice - 1];
+            }
+            System.out.print("Pay cycle must be between 1-" + cycles.length + ". ");
+        }
+    }
+
+    // Only the weekly cycle asks for a week
+    private static int getWeek(LatePenalty.PayrollCycle cycle) {
+        return cycle == LatePenalty.PayrollCycle.WEEKLY ? getWeek() : 0;
+    }
+
     private static int getWeek() {
         int week;
         while (true) {
@@ -1,27 +1,29 @@
 package com.mycompany.motorph;
 
-import java.text.DecimalFormat;
 import java.time.LocalDate;
-import java.time.LocalTime;
-import java.util.List;
 
 public class Netwage extends Calculation {
-    private static final DecimalFormat decimalFormat = new DecimalFormat("#,##0.00");  // Format for displaying wage amounts
+    private static final long NOT_CALCULATED = Long.MIN_VALUE;  // Marks a cached amount that has not been calculated yet
     private final Grosswage grosswage;  // Grosswage object, which is used to retrieve gross wage and hourly rate
+    private final GrosswageResult result;  // Immutable gross wage result every deduction is computed from
     private final String employeeID;  // Employee's unique identifier
     private final String employeeName;  // Employee's full name
-    private final double gross;  // Employee's gross wage for the period
+    private final long gross;  // Employee's gross wage for the period, in centavos
     private final double hours;  // Total working hours for the employee
-    private final int week;  // Target week number (1-4)
+    private final int week;  // Target week number (1-4), for the weekly cycle
+    private final int periodsPerMonth;  // Pay periods per month of the gross wage's cycle
     private final int targetMonth;  // Target month for wage calculation (1-12)
     private final int targetYear;  // Target year for wage calculation
     
-    // Cached calculations to avoid recalculating repeatedly
-    private Double sssDeduction;  // Social Security System deduction
-    private Double philhealthDeduction;  // PhilHealth deduction
-    private Double pagibigDeduction;  // Pag-IBIG Fund deduction
-    private Double lateDeduction;  // Deduction for being late
-    private Double withholdingTax;  // Tax deduction based on taxable income
+    // Cached calculations in centavos to avoid recalculating repeatedly.
+    // Each is a pure function of the immutable result, so threads racing to fill one write the
+    // same value; volatile makes the write atomic and visible without locking.
+    private volatile long sssDeduction = NOT_CALCULATED;  // Social Security System deduction
+    private volatile long philhealthDeduction = NOT_CALCULATED;  // PhilHealth deduction
+    private volatile long pagibigDeduction = NOT_CALCULATED;  // Pag-IBIG Fund deduction
+    private volatile long withholdingTax = NOT_CALCULATED;  // Tax deduction based on taxable income
+
+    private static final Metrics.Timer TIMER = Metrics.timer("calc.netwage");
 
     // Constructor for initializing the Netwage object with essential parameters
     public Netwage(String employeeID, String employeeName, double gross, double hours, 
@@ -45,9 +47,7 @@ public class Netwage extends Calculation {
         if (targetMonth < 1 || targetMonth > 12) {
             throw new IllegalArgumentException("Month must be between 1-12");
         }
-        if (week < 1 || week > 4) {
-            throw new IllegalArgumentException("Week must be between 1-4");
-        }
+        grosswage.getCycle().validateWeek(week);
         if (targetYear < 2000 || targetYear > LocalDate.now().getYear() + 1) {
             throw new IllegalArgumentException("Invalid year");
         }
@@ -55,10 +55,12 @@ public class Netwage extends Calculation {
         // Assigning values to instance variables after validation
         this.employeeID = employeeID;
         this.employeeName = employeeName;
-        this.gross = gross;
+        this.gross = Money.ofPesos(gross);
         this.hours = hours;
         this.week = week;
         this.grosswage = grosswage;
+        this.result = grosswage.getResult();  // Computes the gross wage now if it has not been computed yet
+        this.periodsPerMonth = result.getCycle().getPeriodsPerMonth();
         this.targetMonth = targetMonth;
         this.targetYear = targetYear;
     }
@@ -66,106 +68,125 @@ public class Netwage extends Calculation {
     // Method to calculate net wage by deducting various deductions and withholding tax from the gross wage
     @Override
     public double calculate() {
-        double totalDeductions = getTotalDeductions();  // Get total deductions (SSS, PhilHealth, Pag-Ibig, Late penalty)
-        double withholdingTax = getWithholdingTax();  // Get the withholding tax
-        double netWage = gross - totalDeductions - withholdingTax;  // Calculate net wage
-        return Double.parseDouble(decimalFormat.format(netWage));  // Format and return the result
+        return Money.toPesos(getNetWageCentavos());  // Exact centavo amount; no format/parse round trip
+    }
+
+    // Calculate the net wage in centavos
+    public long getNetWageCentavos() {
+        long start = Metrics.start();
+        try {
+            return gross - getTotalDeductionsCentavos() - getWithholdingTaxCentavos();
+        } finally {
+            TIMER.stop(start);
+        }
     }
 
     // Calculate the SSS deduction based on the employee's gross wage
     public double getSSSDeduction() {
-        if (sssDeduction == null) {
-            Calculation sss = new SSS(grosswage);  // Create an SSS deduction calculation object
-            sssDeduction = sss.calculate() / 4;  // Divide by 4 to get weekly deduction (monthly deduction / 4)
+        return Money.toPesos(getSSSDeductionCentavos());
+    }
+
+    // SSS deduction for the pay period in centavos (monthly contribution / periods per month, rounded half away from zero)
+    public long getSSSDeductionCentavos() {
+        long deduction = sssDeduction;
+        if (deduction == NOT_CALCULATED) {
+            SSS sss = new SSS(result);  // Create an SSS deduction calculation object
+            deduction = Money.divide(sss.calculateCentavos(), periodsPerMonth);  // Split the monthly deduction over the cycle's periods
+            sssDeduction = deduction;
         }
-        return sssDeduction;  // Return the cached SSS deduction value
+        return deduction;  // Return the cached SSS deduction value
     }
 
     // Calculate the PhilHealth deduction based on the employee's gross wage
     public double getPhilhealthDeduction() {
-        if (philhealthDeduction == null) {
-            Calculation philhealth = new Philhealth(grosswage);  // Create a PhilHealth deduction calculation object
-            philhealthDeduction = philhealth.calculate() / 4;  // Divide by 4 to get weekly deduction
+        return Money.toPesos(getPhilhealthDeductionCentavos());
+    }
+
+    // PhilHealth deduction for the pay period in centavos
+    public long getPhilhealthDeductionCentavos() {
+        long deduction = philhealthDeduction;
+        if (deduction == NOT_CALCULATED) {
+            Philhealth philhealth = new Philhealth(result);  // Create a PhilHealth deduction calculation object
+            deduction = Money.divide(philhealth.calculateCentavos(), periodsPerMonth);  // Split the monthly deduction over the cycle's periods
+            philhealthDeduction = deduction;
         }
-        return philhealthDeduction;  // Return the cached PhilHealth deduction value
+        return deduction;  // Return the cached PhilHealth deduction value
     }
 
     // Calculate the Pag-IBIG Fund deduction based on the employee's gross wage
     public double getPagIbigDeduction() {
-        if (pagibigDeduction == null) {
-            Calculation pagibig = new Pagibig(grosswage);  // Create a Pag-Ibig deduction calculation object
-            pagibigDeduction = pagibig.calculate() / 4;  // Divide by 4 to get weekly deduction
+        return Money.toPesos(getPagIbigDeductionCentavos());
+    }
+
+    // Pag-IBIG deduction for the pay period in centavos
+    public long getPagIbigDeductionCentavos() {
+        long deduction = pagibigDeduction;
+        if (deduction == NOT_CALCULATED) {
+            Pagibig pagibig = new Pagibig(result);  // Create a Pag-Ibig deduction calculation object
+            deduction = Money.divide(pagibig.calculateCentavos(), periodsPerMonth);  // Split the monthly deduction over the cycle's periods
+            pagibigDeduction = deduction;
         }
-        return pagibigDeduction;  // Return the cached Pag-IBIG deduction value
+        return deduction;  // Return the cached Pag-IBIG deduction value
     }
 
     // Calculate any deductions due to late attendance
     public double getLateDeduction() {
-        if (lateDeduction == null) {
-            lateDeduction = calculateWeeklyLatePenalty();  // Calculate penalty based on late arrivals
-        }
-        return lateDeduction;  // Return the cached late penalty deduction value
-    }
-
-    // Method to calculate the weekly late penalty for attendance
-    private double calculateWeeklyLatePenalty() {
-        List<AttendanceRecord> records = AttendanceRecord.getAttendanceRecords();  // Get the attendance records
-        double totalPenalty = 0.0;  // Variable to accumulate total penalty
-        final double minuteRate = grosswage.getHourlyRate() / 60.0;  // Hourly rate per minute
-        final LocalTime shiftStart = grosswage.getShiftStartTime();  // Shift start time for the employee
-        final LocalTime lateThreshold = shiftStart.plusMinutes(15);  // Late threshold time (15 minutes grace period)
-
-        // Iterate through the attendance records and calculate penalties for late arrivals
-        for (AttendanceRecord record : records) {
-            if (record.getId().equals(employeeID) && isDateInTargetWeek(record.getDate())) {
-                LocalTime timeIn = record.getTimeIn();  // Time the employee clocked in
-                if (timeIn != null && timeIn.isAfter(lateThreshold)) {
-                    long minutesLate = java.time.Duration.between(lateThreshold, timeIn).toMinutes();  // Calculate minutes late
-                    totalPenalty += minuteRate * minutesLate;  // Add penalty for the late minutes
-                }
-            }
-        }
-        return totalPenalty;  // Return the total late penalty for the week
+        return Money.toPesos(getLateDeductionCentavos());
     }
 
-    // Check if a given date is within the target week
-    private boolean isDateInTargetWeek(LocalDate date) {
-        if (date.getYear() != targetYear || date.getMonthValue() != targetMonth) {
-            return false;  // Date is not in the target year or month
-        }
-        int weekOfMonth = ((date.getDayOfMonth() - 1) / 7) + 1;  // Calculate which week of the month the date falls in
-        return weekOfMonth == week;  // Return true if the date is within the target week
+    // Late attendance deduction in centavos
+    public long getLateDeductionCentavos() {
+        return result.getLatePenaltyCentavos();  // From the same period totals as the gross wage
     }
 
     // Get the total deductions including SSS, PhilHealth, Pag-IBIG, and late penalty
     public double getTotalDeductions() {
-        return getSSSDeduction() + 
-               getPhilhealthDeduction() + 
-               getPagIbigDeduction() + 
-               getLateDeduction();  // Sum all deductions
+        return Money.toPesos(getTotalDeductionsCentavos());
+    }
+
+    // Total deductions in centavos
+    public long getTotalDeductionsCentavos() {
+        return getSSSDeductionCentavos() + 
+               getPhilhealthDeductionCentavos() + 
+               getPagIbigDeductionCentavos() + 
+               getLateDeductionCentavos();  // Sum all deductions
     }
 
     // Get the taxable income after deductions
     public double getTaxableIncome() {
-        return gross - getTotalDeductions();  // Gross wage minus total deductions
+        return Money.toPesos(getTaxableIncomeCentavos());
+    }
+
+    // Taxable income in centavos
+    public long getTaxableIncomeCentavos() {
+        return gross - getTotalDeductionsCentavos();  // Gross wage minus total deductions
     }
 
     // Calculate the withholding tax based on taxable income
     public double getWithholdingTax() {
-        if (withholdingTax == null) {
-            double taxableIncome = getTaxableIncome();  // Calculate the taxable income
-            WithholdingTax withholdingTaxCalc = new WithholdingTax(grosswage, taxableIncome);  // Create a withholding tax calculator object
-            withholdingTax = withholdingTaxCalc.calculate();  // Calculate withholding tax
+        return Money.toPesos(getWithholdingTaxCentavos());
+    }
+
+    // Withholding tax in centavos
+    public long getWithholdingTaxCentavos() {
+        long tax = withholdingTax;
+        if (tax == NOT_CALCULATED) {
+            long taxableIncome = getTaxableIncomeCentavos();  // Calculate the taxable income
+            WithholdingTax withholdingTaxCalc = new WithholdingTax(result, taxableIncome);  // Create a withholding tax calculator object
+            tax = withholdingTaxCalc.calculateCentavos();  // Calculate withholding tax
+            withholdingTax = tax;
         }
-        return withholdingTax;  // Return the cached withholding tax value
+        return tax;  // Return the cached withholding tax value
     }
 
     // Getters for retrieving various employee data and calculated values
     public Grosswage getGrosswage() { return grosswage; }
     public String getEmployeeID() { return employeeID; }
     public String getEmployeeName() { return employeeName; }
-    public double getGross() { return gross; }
+    public double getGross() { return Money.toPesos(gross); }
+    public long getGrossCentavos() { return gross; }
     public double getHours() { return hours; }
+    public LatePenalty.PayrollCycle getCycle() { return result.getCycle(); }
     public int getWeek() { return week; }
     public int getTargetMonth() { return targetMonth; }
     public int getTargetYear() { return targetYear; }
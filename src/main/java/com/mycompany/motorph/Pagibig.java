@@ -4,38 +4,49 @@
 package com.mycompany.motorph;
 
 public class Pagibig extends Calculation {
-    private double pagibigDeduction; // Pag-IBIG deduction amount
-    private final Grosswage grosswage; // Gross wage object for calculation
+    private long pagibigDeduction; // Pag-IBIG deduction amount in centavos
+    private final GrosswageResult grosswage; // Computed gross wage used for calculation
+
+    private static final Metrics.Timer TIMER = Metrics.timer("calc.pagibig");
 
     /**
      * Constructor for Pagibig.
      * @param grosswage The Grosswage object containing the employee's gross wage.
      */
     public Pagibig(Grosswage grosswage) {
+        this(grosswage.getResult());
+    }
+
+    /**
+     * Constructor for Pagibig using an already computed gross wage.
+     * @param grosswage The computed gross wage result.
+     */
+    public Pagibig(GrosswageResult grosswage) {
         this.grosswage = grosswage;
     }
 
     /**
-     * Calculates the Pag-IBIG deduction based on the employee's gross wage.
+     * Calculates the monthly Pag-IBIG deduction based on the employee's gross wage for the whole month.
+     * Uses the Pag-IBIG contribution table for the payroll year.
      * @return The Pag-IBIG deduction amount.
      */
     @Override
     public double calculate() {
-        double gross = grosswage.calculate();
-
-        double pagibig;
-        if (gross > 1000.00 && gross <= 1500.00) {
-            pagibig = gross * 0.03;
-        } else {
-            pagibig = gross * 0.04;
-        }
+        return Money.toPesos(calculateCentavos());
+    }
 
-        if (pagibig > 100) {
-            pagibig = 100;
+    /**
+     * Calculates the Pag-IBIG deduction in centavos, without going through a double.
+     * @return The Pag-IBIG deduction amount in centavos.
+     */
+    public long calculateCentavos() {
+        long start = Metrics.start();
+        try {
+            pagibigDeduction = grosswage.getRateTable().getPagibigContribution(grosswage.getMonthGrossCentavos());
+            return pagibigDeduction;
+        } finally {
+            TIMER.stop(start);
         }
-
-        pagibigDeduction = pagibig;
-        return pagibigDeduction;
     }
 
     /**
@@ -43,6 +54,14 @@ public class Pagibig extends Calculation {
      * @return The Pag-IBIG deduction amount.
      */
     public double getPagibigDeduction() {
+        return Money.toPesos(pagibigDeduction);
+    }
+
+    /**
+     * Returns the Pag-IBIG deduction amount in centavos.
+     * @return The Pag-IBIG deduction amount in centavos.
+     */
+    public long getPagibigDeductionCentavos() {
         return pagibigDeduction;
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.mycompany.motorph;
+
+import java.time.LocalTime;
+import java.time.YearMonth;
+
+/**
+ * Hours, pay and late penalty of one employee for one pay period, plus the gross pay of the
+ * whole month the period belongs to.
+ *
+ * The totals are read from the employee's AttendancePrefixSums, so they cost two range
+ * lookups (the period and the month) instead of a pass over the punches. The month's gross
+ * is what the monthly statutory brackets are looked up with; the resulting contribution is
+ * then split over the cycle's periods. Pay amounts are in centavos, rounded per day.
+ */
+public final class PayPeriodTotals {
+    // Periods of a month, for cache keys: weeks 1-4, the two halves and the whole month
+    static final int PERIODS = 7;
+    private static final int FIRST_HALF = 4;
+    private static final int SECOND_HALF = 5;
+    private static final int MONTH = 6;
+
+    private int workedMinutes;
+    private double regularHours;
+    private double overtimeHours;
+    private long regularPay;
+    private long overtimePay;
+    private long nightDifferentialPay;
+    private long holidayPay;
+    private long latePenalty;
+    private long monthGross;
+
+    // Epoch days of the month's punches, in date order; every one of them affects the deductions
+    private final int[] monthDays;
+
+    private PayPeriodTotals(int[] monthDays) {
+        this.monthDays = monthDays;
+    }
+
+    /**
+     * Totals an employee's punches for a pay period and for its month.
+     *
+     * @param index The attendance index to read.
+     * @param ordinal The employee's ordinal in the index's registry.
+     * @param year The pay year.
+     * @param month The pay month (1-12).
+     * @param cycle The pay cycle.
+     * @param week The week of the month; ignored unless the cycle is weekly.
+     * @param hourlyRate The employee's hourly rate in centavos.
+     * @param shiftStart The scheduled shift start, for late penalties.
+     * @return The period's totals.
+     */
+    public static PayPeriodTotals of(AttendanceIndex index, int ordinal, int year, int month,
+                                     LatePenalty.PayrollCycle cycle, int week, long hourlyRate,
+                                     LocalTime shiftStart) {
+        AttendancePrefixSums sums = index.getPrefixSums(ordinal, hourlyRate, shiftStart);
+        YearMonth yearMonth = YearMonth.of(year, month);
+        int firstDay = (int) yearMonth.atDay(1).toEpochDay() - 1;  // Epoch day before the 1st
+
+        long monthRange = sums.range(firstDay + 1, firstDay + yearMonth.lengthOfMonth());
+        PayPeriodTotals totals = new PayPeriodTotals(sums.getDays(monthRange));
+        totals.monthGross = sums.getRegularPayCentavos(monthRange) + sums.getOvertimePayCentavos(monthRange)
+                + sums.getNightDifferentialPayCentavos(monthRange);
+
+        long range = cycle == LatePenalty.PayrollCycle.MONTHLY ? monthRange
+                : sums.range(firstDay + cycle.getFirstDay(week), firstDay + cycle.getLastDay(yearMonth, week));
+        int regularMinutes = sums.getRegularMinutes(range);
+        int overtimeMinutes = sums.getOvertimeMinutes(range);
+        totals.workedMinutes = regularMinutes + overtimeMinutes;
+        totals.regularHours = regularMinutes / 60.0;
+        totals.overtimeHours = overtimeMinutes / 60.0;
+        totals.regularPay = sums.getRegularPayCentavos(range);
+        totals.overtimePay = sums.getOvertimePayCentavos(range);
+        totals.nightDifferentialPay = sums.getNightDifferentialPayCentavos(range);
+        totals.holidayPay = sums.getHolidayPayCentavos(range);
+        totals.latePenalty = sums.getLatePenaltyCentavos(range);
+        return totals;
+    }
+
+    /**
+     * Gets the index of a pay period within its month, for cache keys.
+     * @param cycle The pay cycle.
+     * @param week The week of the month; ignored unless the cycle is weekly.
+     * @return The period index, 0-6.
+     */
+    static int periodOf(LatePenalty.PayrollCycle cycle, int week) {
+        return switch (cycle) {
+            case WEEKLY -> week - 1;
+            case FIRST_HALF -> FIRST_HALF;
+            case SECOND_HALF -> SECOND_HALF;
+            case MONTHLY -> MONTH;
+        };
+    }
+
+    // Totals of the pay period
+    public int getWorkedMinutes() { return workedMinutes; }
+    public double getRegularHours() { return regularHours; }
+    public double getOvertimeHours() { return overtimeHours; }
+    public long getRegularPayCentavos() { return regularPay; }
+    public long getOvertimePayCentavos() { return overtimePay; }
+    public long getNightDifferentialPayCentavos() { return nightDifferentialPay; }
+    public long getHolidayPayCentavos() { return holidayPay; }
+    public long getLatePenaltyCentavos() { return latePenalty; }
+
+    // Gross pay of the whole month, for the statutory brackets
+    public long getMonthGrossCentavos() { return monthGross; }
+
+    // Epoch days of the month's punches, in date order
+    public int[] getMonthDays() { return monthDays.clone(); }
+}
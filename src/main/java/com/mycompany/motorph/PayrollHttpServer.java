@@ -0,0 +1,362 @@
+package com.mycompany.motorph;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Embedded HTTP service exposing employee lookup and the payroll calculations as JSON.
+ *
+ * Endpoints (GET only):
+ * - /employees                                          employee list
+ * - /employees/{id}                                     employee details
+ * - /employees/{id}/gross?year=&amp;month=&amp;week=    gross wage breakdown
+ * - /employees/{id}/payroll?year=&amp;month=&amp;week=  gross, deductions and net wage
+ *
+ * The payroll endpoints take an optional cycle=weekly|first_half|second_half|monthly
+ * (weekly by default); week is only required for the weekly cycle.
+ * - /health                                             liveness check
+ *
+ * Every request runs on its own virtual thread, so slow clients never hold a platform
+ * thread. Calculations read the shared in-memory data without locks and go through the
+ * payslip cache; the number running at once is bounded by a fair semaphore sized to the
+ * CPUs, so a burst of requests queues in arrival order instead of thrashing the scheduler.
+ *
+ * Usage: PayrollHttpServer [--port N] [--attendance path]
+ */
+public class PayrollHttpServer {
+
+    // Pending connections the listening socket queues before refusing new ones
+    private static final int BACKLOG = 1024;
+
+    private static final Metrics.Timer REQUEST_TIMER = Metrics.timer("http.request");
+    private static final Metrics.Counter CLIENT_ERRORS = Metrics.counter("http.status.4xx");
+    private static final Metrics.Counter SERVER_ERRORS = Metrics.counter("http.status.5xx");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Semaphore calculations;
+
+    /**
+     * Creates a server bound to a port; call start() to accept requests.
+     *
+     * @param port the TCP port, or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public PayrollHttpServer(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.calculations = new Semaphore(Runtime.getRuntime().availableProcessors() * 2, true);
+        server.setExecutor(executor);
+        server.createContext("/employees", this::handleEmployees);
+        server.createContext("/health", exchange -> {
+            if (requireGet(exchange)) {
+                send(exchange, 200, "{\"status\":\"UP\"}");
+            }
+        });
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waits up to the given delay for running ones and shuts down
+     * the virtual-thread executor.
+     *
+     * @param delaySeconds seconds to wait for running requests
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * Gets the port the server is bound to.
+     * @return the bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Routes /employees, /employees/{id} and /employees/{id}/{gross|payroll}
+    private void handleEmployees(HttpExchange exchange) throws IOException {
+        long start = Metrics.start();
+        try {
+            if (!requireGet(exchange)) {
+                return;
+            }
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            // The whole request reads one snapshot, so a reload cannot mix versions in a response
+            PayrollSnapshot snapshot = PayrollSnapshot.current();
+            // parts[0] is empty and parts[1] is "employees"
+            if (parts.length == 2) {
+                send(exchange, 200, employeeListJson(snapshot.getEmployees().getEmployees()));
+                return;
+            }
+            Employee employee = snapshot.getEmployees().getByNumber(parts[2]);
+            if (employee == null) {
+                sendError(exchange, 404, "Employee ID " + parts[2] + " not found");
+                return;
+            }
+            if (parts.length == 3) {
+                send(exchange, 200, employeeJson(employee));
+            } else if (parts.length == 4 && (parts[3].equals("gross") || parts[3].equals("payroll"))) {
+                handlePayroll(exchange, snapshot, employee, parts[3].equals("payroll"));
+            } else {
+                sendError(exchange, 404, "Unknown resource: " + exchange.getRequestURI().getPath());
+            }
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, e.getMessage());
+        } finally {
+            exchange.close();
+            REQUEST_TIMER.stop(start);
+        }
+    }
+
+    // Computes (or fetches from the payslip cache) the employee's payroll for the requested pay period
+    private void handlePayroll(HttpExchange exchange, PayrollSnapshot snapshot, Employee employee,
+                               boolean includeNet) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI());
+        int year = requireInt(query, "year");
+        int month = requireInt(query, "month");
+        LatePenalty.PayrollCycle cycle = query.containsKey("cycle")
+                ? LatePenalty.PayrollCycle.parse(query.get("cycle"))
+                : LatePenalty.PayrollCycle.WEEKLY;
+        int week = cycle == LatePenalty.PayrollCycle.WEEKLY ? requireInt(query, "week") : 0;
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Month must be between 1-12");
+        }
+        cycle.validateWeek(week);
+
+        PayrollRegister.Entry entry;
+        try {
+            calculations.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, 503, "Server is shutting down");
+            return;
+        }
+        try {
+            entry = new PayrollRun(year, month, cycle, week).compute(employee, snapshot);
+        } finally {
+            calculations.release();
+        }
+
+        if (!entry.isSuccessful()) {
+            sendError(exchange, 422, entry.getError());
+            return;
+        }
+        send(exchange, 200, payrollJson(entry, year, month, cycle, week, includeNet));
+    }
+
+    // Builds the JSON for the employee list
+    private static String employeeListJson(List<Employee> employees) {
+        StringBuilder json = new StringBuilder(64 + employees.size() * 64).append('[');
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('{');
+            field(json, "employeeId", employee.getEmployeeNumber()).append(',');
+            field(json, "lastName", employee.getLastName()).append(',');
+            field(json, "firstName", employee.getFirstName());
+            json.append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    // Builds the JSON for one employee's details
+    private static String employeeJson(Employee employee) {
+        StringBuilder json = new StringBuilder(512).append('{');
+        field(json, "employeeId", employee.getEmployeeNumber()).append(',');
+        field(json, "lastName", employee.getLastName()).append(',');
+        field(json, "firstName", employee.getFirstName()).append(',');
+        field(json, "birthday", employee.getBirthday()).append(',');
+        field(json, "address", employee.getAddress()).append(',');
+        field(json, "phoneNumber", employee.getPhoneNumber()).append(',');
+        field(json, "status", employee.getStatus()).append(',');
+        field(json, "position", employee.getPosition()).append(',');
+        field(json, "immediateSupervisor", employee.getImmediateSupervisor()).append(',');
+        field(json, "basicSalary", employee.getBasicSalary()).append(',');
+        json.append("\"hourlyRate\":").append(employee.getHourlyRate()).append(',');
+        field(json, "shiftStartTime", employee.getShiftStartTime().toString()).append(',');
+        json.append("\"nightShift\":").append(employee.isNightShift());
+        return json.append('}').toString();
+    }
+
+    // Builds the JSON for a payslip, with the fields MotorPHMain.displayPayrollResults prints
+    private static String payrollJson(PayrollRegister.Entry entry, int year, int month, LatePenalty.PayrollCycle cycle,
+                                      int week, boolean includeNet) {
+        Employee employee = entry.getEmployee();
+        GrosswageResult gross = entry.getGrosswage().getResult();
+        StringBuilder json = new StringBuilder(512).append('{');
+        field(json, "employeeId", employee.getEmployeeNumber()).append(',');
+        field(json, "employeeName", employee.getLastName() + ", " + employee.getFirstName()).append(',');
+        json.append("\"year\":").append(year).append(",\"month\":").append(month).append(',');
+        field(json, "cycle", cycle.name().toLowerCase()).append(',');
+        if (cycle == LatePenalty.PayrollCycle.WEEKLY) {
+            json.append("\"week\":").append(week).append(',');
+        }
+        hours(json, "regularHours", gross.getRegularHours()).append(',');
+        hours(json, "overtimeHours", gross.getOvertimeHours()).append(',');
+        amount(json, "regularPay", gross.getRegularPayCentavos()).append(',');
+        amount(json, "overtimePay", gross.getOvertimePayCentavos()).append(',');
+        amount(json, "nightDifferentialPay", gross.getNightDifferentialPayCentavos()).append(',');
+        amount(json, "holidayPay", gross.getHolidayPayCentavos()).append(',');
+        amount(json, "gross", gross.getGrossCentavos());
+        if (includeNet) {
+            Netwage net = entry.getNetwage();
+            json.append(",\"deductions\":{");
+            amount(json, "sss", net.getSSSDeductionCentavos()).append(',');
+            amount(json, "philhealth", net.getPhilhealthDeductionCentavos()).append(',');
+            amount(json, "pagibig", net.getPagIbigDeductionCentavos()).append(',');
+            amount(json, "latePenalty", net.getLateDeductionCentavos()).append(',');
+            amount(json, "total", net.getTotalDeductionsCentavos());
+            json.append("},");
+            amount(json, "taxableIncome", net.getTaxableIncomeCentavos()).append(',');
+            amount(json, "withholdingTax", net.getWithholdingTaxCentavos()).append(',');
+            amount(json, "net", entry.getNetCentavos());
+        }
+        return json.append('}').toString();
+    }
+
+    private static StringBuilder field(StringBuilder json, String name, String value) {
+        json.append('"').append(name).append("\":");
+        return quote(json, value);
+    }
+
+    private static StringBuilder amount(StringBuilder json, String name, long centavos) {
+        json.append('"').append(name).append("\":");
+        return Money.appendPlain(json, centavos);
+    }
+
+    private static StringBuilder hours(StringBuilder json, String name, double hours) {
+        json.append('"').append(name).append("\":");
+        return json.append(Math.round(hours * 100) / 100.0);
+    }
+
+    // Appends a JSON string literal
+    private static StringBuilder quote(StringBuilder json, String value) {
+        if (value == null) {
+            return json.append("null");
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"');
+    }
+
+    private static Map<String, String> parseQuery(URI uri) {
+        Map<String, String> query = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static int requireInt(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing query parameter: " + name);
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Query parameter " + name + " must be a number: " + value);
+        }
+    }
+
+    // Answers 405 to anything but GET; returns whether the request may proceed
+    private static boolean requireGet(HttpExchange exchange) throws IOException {
+        if (exchange.getRequestMethod().equals("GET")) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", "GET");
+        sendError(exchange, 405, "Only GET is supported");
+        return false;
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        (status >= 500 ? SERVER_ERRORS : CLIENT_ERRORS).increment();
+        StringBuilder json = new StringBuilder(64).append('{');
+        field(json, "error", message != null ? message : "Internal error");
+        send(exchange, status, json.append('}').toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) {
+        int port = 8080;
+        String attendancePath = null;  // Null loads the default attendance file
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                switch (args[i]) {
+                    case "--port" -> port = Integer.parseInt(value);
+                    case "--attendance" -> attendancePath = value;
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+                i++;
+            }
+
+            PayrollSnapshot.loadInBackground(attendancePath);
+            EmployeeFileWatcher.start();
+            PayrollHttpServer server = new PayrollHttpServer(port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+            server.start();
+            System.out.println("Payroll service listening on port " + server.getPort());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error starting payroll service: " + e.getMessage());
+            System.err.println("Usage: PayrollHttpServer [--port N] [--attendance path]");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.mycompany.motorph;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Payroll register for one pay period: one entry per employee, in employee list order.
+ * Amounts are kept in centavos, so totals are exact and the same for every run.
+ */
+public class PayrollRegister {
+    private final int year;
+    private final int month;
+    private final LatePenalty.PayrollCycle cycle;
+    private final int week;
+    private final List<Entry> entries;
+
+    public PayrollRegister(int year, int month, int week, List<Entry> entries) {
+        this(year, month, LatePenalty.PayrollCycle.WEEKLY, week, entries);
+    }
+
+    public PayrollRegister(int year, int month, LatePenalty.PayrollCycle cycle, int week, List<Entry> entries) {
+        this.year = year;
+        this.month = month;
+        this.cycle = cycle;
+        this.week = week;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Gets the total gross wage of all successfully computed entries.
+     * @return The total gross wage.
+     */
+    public double getTotalGross() {
+        return Money.toPesos(getTotalGrossCentavos());
+    }
+
+    /**
+     * Gets the total gross wage of all successfully computed entries, in centavos.
+     * @return The total gross wage in centavos.
+     */
+    public long getTotalGrossCentavos() {
+        long total = 0;
+        for (Entry entry : entries) {
+            if (entry.isSuccessful()) {
+                total += entry.getGrossCentavos();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gets the total net wage of all successfully computed entries.
+     * @return The total net wage.
+     */
+    public double getTotalNet() {
+        return Money.toPesos(getTotalNetCentavos());
+    }
+
+    /**
+     * Gets the total net wage of all successfully computed entries, in centavos.
+     * @return The total net wage in centavos.
+     */
+    public long getTotalNetCentavos() {
+        long total = 0;
+        for (Entry entry : entries) {
+            if (entry.isSuccessful()) {
+                total += entry.getNetCentavos();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of entries whose calculation failed.
+     * @return The number of failed entries.
+     */
+    public int getFailureCount() {
+        int failures = 0;
+        for (Entry entry : entries) {
+            if (!entry.isSuccessful()) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    // Getters
+    public int getYear() { return year; }
+    public int getMonth() { return month; }
+    public LatePenalty.PayrollCycle getCycle() { return cycle; }
+    public int getWeek() { return week; }
+    public List<Entry> getEntries() { return entries; }
+
+    /**
+     * A single employee's payroll result, or the error that prevented it.
+     */
+    public static class Entry {
+        private final Employee employee;
+        private final Grosswage grosswage;
+        private final Netwage netwage;
+        private final long gross;  // In centavos
+        private final long net;  // In centavos
+        private final String error;
+
+        private Entry(Employee employee, Grosswage grosswage, Netwage netwage,
+                      long gross, long net, String error) {
+            this.employee = employee;
+            this.grosswage = grosswage;
+            this.netwage = netwage;
+            this.gross = gross;
+            this.net = net;
+            this.error = error;
+        }
+
+        /**
+         * Creates an entry for a successful calculation; amounts are in centavos.
+         */
+        public static Entry success(Employee employee, Grosswage grosswage, Netwage netwage,
+                                    long gross, long net) {
+            return new Entry(employee, grosswage, netwage, gross, net, null);
+        }
+
+        /**
+         * Creates an entry for a failed calculation.
+         */
+        public static Entry failure(Employee employee, String error) {
+            return new Entry(employee, null, null, 0, 0, error);
+        }
+
+        public boolean isSuccessful() { return error == null; }
+        public Employee getEmployee() { return employee; }
+        public Grosswage getGrosswage() { return grosswage; }
+        public Netwage getNetwage() { return netwage; }
+        public double getGross() { return Money.toPesos(gross); }
+        public double getNet() { return Money.toPesos(net); }
+        public long getGrossCentavos() { return gross; }
+        public long getNetCentavos() { return net; }
+        public String getError() { return error; }
+    }
+}
@@ -0,0 +1,269 @@
+package com.mycompany.motorph;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes a payroll register to a .csv or .xlsx file, with the columns
+ * MotorPHMain.displayPayrollResults prints for each employee.
+ *
+ * Both formats stream: CSV rows go through one buffered writer and a reused line buffer, and
+ * workbooks are written with POI's SXSSF, which keeps only a small window of rows in memory
+ * and flushes the rest to a temporary file. exportPeriod() also computes the register in
+ * chunks, so exporting 100k employees needs memory for one chunk, not for the whole register.
+ */
+public class PayrollRegisterExporter {
+
+    // Column headers, in the order displayPayrollResults prints the values
+    private static final String[] HEADERS = {
+        "Employee ID", "Employee Name", "Regular Hours", "Overtime Hours", "Regular Pay",
+        "Overtime Pay", "Night Differential", "Holiday Premium Pay", "Gross Wage", "SSS", "PhilHealth",
+        "Pag-IBIG", "Late Penalties", "Total Deductions", "Taxable Income", "Withholding Tax", "Net Wage", "Error"
+    };
+
+    // Employees computed per chunk by exportPeriod
+    private static final int CHUNK_SIZE = 4096;
+
+    // Rows SXSSF keeps in memory before flushing them to its temporary file
+    private static final int ROW_WINDOW = 256;
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private static final Metrics.Timer EXPORT_TIMER = Metrics.timer("export.register");
+
+    private PayrollRegisterExporter() {}
+
+    /**
+     * Computes and exports the payroll of every employee in the current snapshot for a week.
+     * Employees are computed a chunk at a time, bypassing the payslip cache, and each chunk is
+     * written before the next is computed.
+     *
+     * @param run The payroll run defining the period.
+     * @param path The output file; .xlsx writes a workbook, anything else CSV.
+     * @return The number of rows written.
+     * @throws IOException if the file cannot be written
+     */
+    public static int exportPeriod(PayrollRun run, Path path) throws IOException {
+        long start = Metrics.start();
+        try {
+            return exportPeriod(run, PayrollSnapshot.current(), path);
+        } finally {
+            EXPORT_TIMER.stop(start);
+        }
+    }
+
+    // Computes and exports the period a chunk at a time
+    private static int exportPeriod(PayrollRun run, PayrollSnapshot snapshot, Path path) throws IOException {
+        List<Employee> employees = snapshot.getEmployees().getEmployees();
+        try (RowSink sink = open(path)) {
+            for (int from = 0; from < employees.size(); from += CHUNK_SIZE) {
+                List<Employee> chunk = employees.subList(from, Math.min(from + CHUNK_SIZE, employees.size()));
+                for (PayrollRegister.Entry entry : run.calculateAll(chunk, snapshot).getEntries()) {
+                    sink.write(entry);
+                }
+            }
+        }
+        return employees.size();
+    }
+
+    /**
+     * Exports an already computed payroll register.
+     *
+     * @param register The payroll register.
+     * @param path The output file; .xlsx writes a workbook, anything else CSV.
+     * @throws IOException if the file cannot be written
+     */
+    public static void export(PayrollRegister register, Path path) throws IOException {
+        try (RowSink sink = open(path)) {
+            for (PayrollRegister.Entry entry : register.getEntries()) {
+                sink.write(entry);
+            }
+        }
+    }
+
+    // Picks the writer from the file extension
+    private static RowSink open(Path path) throws IOException {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".xlsx") ? new XlsxSink(path) : new CsvSink(path);
+    }
+
+    /**
+     * Destination of register rows, written in order.
+     */
+    private interface RowSink extends AutoCloseable {
+        void write(PayrollRegister.Entry entry) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Writes rows as RFC 4180 CSV; amounts are plain pesos with two decimals.
+     */
+    private static final class CsvSink implements RowSink {
+        private final Writer out;
+        private final StringBuilder line = new StringBuilder(256);
+
+        CsvSink(Path path) throws IOException {
+            out = new BufferedWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+            for (int i = 0; i < HEADERS.length; i++) {
+                line.append(i == 0 ? "" : ",").append(HEADERS[i]);
+            }
+            out.append(line).append("\r\n");
+        }
+
+        @Override
+        public void write(PayrollRegister.Entry entry) throws IOException {
+            Employee employee = entry.getEmployee();
+            line.setLength(0);
+            appendText(employee.getEmployeeNumber()).append(',');
+            appendText(employee.getLastName() + ", " + employee.getFirstName()).append(',');
+            if (entry.isSuccessful()) {
+                GrosswageResult gross = entry.getGrosswage().getResult();
+                Netwage net = entry.getNetwage();
+                appendHours(gross.getRegularHours()).append(',');
+                appendHours(gross.getOvertimeHours()).append(',');
+                Money.appendPlain(line, gross.getRegularPayCentavos()).append(',');
+                Money.appendPlain(line, gross.getOvertimePayCentavos()).append(',');
+                Money.appendPlain(line, gross.getNightDifferentialPayCentavos()).append(',');
+                Money.appendPlain(line, gross.getHolidayPayCentavos()).append(',');
+                Money.appendPlain(line, gross.getGrossCentavos()).append(',');
+                Money.appendPlain(line, net.getSSSDeductionCentavos()).append(',');
+                Money.appendPlain(line, net.getPhilhealthDeductionCentavos()).append(',');
+                Money.appendPlain(line, net.getPagIbigDeductionCentavos()).append(',');
+                Money.appendPlain(line, net.getLateDeductionCentavos()).append(',');
+                Money.appendPlain(line, net.getTotalDeductionsCentavos()).append(',');
+                Money.appendPlain(line, net.getTaxableIncomeCentavos()).append(',');
+                Money.appendPlain(line, net.getWithholdingTaxCentavos()).append(',');
+                Money.appendPlain(line, entry.getNetCentavos()).append(',');
+            } else {
+                line.append(",,,,,,,,,,,,,,,");
+                appendText(entry.getError());
+            }
+            out.append(line).append("\r\n");
+        }
+
+        // Hours rounded to hundredths print exactly like centavos
+        private StringBuilder appendHours(double hours) {
+            return Money.appendPlain(line, Math.round(hours * 100));
+        }
+
+        // Quotes a field when it holds a comma, quote or line break
+        private StringBuilder appendText(String value) {
+            if (value == null) {
+                return line;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                return line.append(value);
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            return line.append('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Writes rows to a streaming workbook; amounts are numeric cells with a peso format.
+     */
+    private static final class XlsxSink implements RowSink {
+        private final Path path;
+        private final SXSSFWorkbook workbook;
+        private final Sheet sheet;
+        private final CellStyle hoursStyle;
+        private final CellStyle amountStyle;
+        private int rowNum;
+
+        XlsxSink(Path path) {
+            this.path = path;
+            this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+            workbook.setCompressTempFiles(true);
+            this.sheet = workbook.createSheet("Payroll Register");
+            this.hoursStyle = workbook.createCellStyle();
+            hoursStyle.setDataFormat(workbook.createDataFormat().getFormat("0.00"));
+            this.amountStyle = workbook.createCellStyle();
+            amountStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+
+            Row header = sheet.createRow(rowNum++);
+            for (int i = 0; i < HEADERS.length; i++) {
+                header.createCell(i).setCellValue(HEADERS[i]);
+            }
+        }
+
+        @Override
+        public void write(PayrollRegister.Entry entry) {
+            Employee employee = entry.getEmployee();
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(employee.getEmployeeNumber());
+            row.createCell(1).setCellValue(employee.getLastName() + ", " + employee.getFirstName());
+            if (!entry.isSuccessful()) {
+                row.createCell(HEADERS.length - 1).setCellValue(entry.getError());
+                return;
+            }
+            GrosswageResult gross = entry.getGrosswage().getResult();
+            Netwage net = entry.getNetwage();
+            number(row, 2, Math.round(gross.getRegularHours() * 100) / 100.0, hoursStyle);
+            number(row, 3, Math.round(gross.getOvertimeHours() * 100) / 100.0, hoursStyle);
+            amount(row, 4, gross.getRegularPayCentavos());
+            amount(row, 5, gross.getOvertimePayCentavos());
+            amount(row, 6, gross.getNightDifferentialPayCentavos());
+            amount(row, 7, gross.getHolidayPayCentavos());
+            amount(row, 8, gross.getGrossCentavos());
+            amount(row, 9, net.getSSSDeductionCentavos());
+            amount(row, 10, net.getPhilhealthDeductionCentavos());
+            amount(row, 11, net.getPagIbigDeductionCentavos());
+            amount(row, 12, net.getLateDeductionCentavos());
+            amount(row, 13, net.getTotalDeductionsCentavos());
+            amount(row, 14, net.getTaxableIncomeCentavos());
+            amount(row, 15, net.getWithholdingTaxCentavos());
+            amount(row, 16, entry.getNetCentavos());
+        }
+
+        private void amount(Row row, int column, long centavos) {
+            number(row, column, Money.toPesos(centavos), amountStyle);
+        }
+
+        private static void number(Row row, int column, double value, CellStyle style) {
+            Cell cell = row.createCell(column);
+            cell.setCellValue(value);
+            cell.setCellStyle(style);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), WRITE_BUFFER_SIZE)) {
+                workbook.write(out);
+            } finally {
+                workbook.close();  // Also deletes the temporary files holding the flushed rows
+            }
+        }
+    }
+}
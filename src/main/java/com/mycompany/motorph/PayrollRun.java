@@ -0,0 +1,257 @@
+package com.mycompany.motorph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Batch payroll engine that computes gross and net wages for every employee in a pay period.
+ * Employees are split into chunks and computed on a ForkJoin pool, so a run scales with the
+ * number of cores rather than running one employee after another. The whole run reads one
+ * PayrollSnapshot, so a reload during the run does not mix old and new data in a register.
+ */
+public class PayrollRun {
+
+    // Employees per leaf task; small enough to balance, large enough to amortize task overhead
+    private static final int CHUNK_SIZE = 64;
+
+    private static final Metrics.Timer RUN_TIMER = Metrics.timer("payroll.run");
+    private static final Metrics.Timer EMPLOYEE_TIMER = Metrics.timer("payroll.employee");
+    private static final Metrics.Counter FAILURES = Metrics.counter("payroll.failures");
+
+    private final int year;
+    private final int month;
+    private final LatePenalty.PayrollCycle cycle;
+    private final int week;
+    private final String periodLabel;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a payroll run on the common ForkJoin pool.
+     */
+    public PayrollRun(int year, int month, int week) {
+        this(year, month, week, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a weekly payroll run on the given ForkJoin pool.
+     */
+    public PayrollRun(int year, int month, int week, ForkJoinPool pool) {
+        this(year, month, LatePenalty.PayrollCycle.WEEKLY, week, pool);
+    }
+
+    /**
+     * Creates a payroll run for a pay period of any cycle on the common ForkJoin pool.
+     * The week is only used for the weekly cycle.
+     */
+    public PayrollRun(int year, int month, LatePenalty.PayrollCycle cycle, int week) {
+        this(year, month, cycle, week, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a payroll run for a pay period of any cycle on the given ForkJoin pool.
+     */
+    public PayrollRun(int year, int month, LatePenalty.PayrollCycle cycle, int week, ForkJoinPool pool) {
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Month must be between 1-12");
+        }
+        if (cycle == null) {
+            throw new IllegalArgumentException("Pay cycle cannot be null");
+        }
+        cycle.validateWeek(week);
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        this.year = year;
+        this.month = month;
+        this.cycle = cycle;
+        this.week = week;
+        this.periodLabel = cycle.describe(week);
+        this.pool = pool;
+    }
+
+    /**
+     * Computes payroll for every employee in EmployeeModelFromFile.
+     * @return The payroll register, in employee list order.
+     */
+    public PayrollRegister run() {
+        PayrollSnapshot snapshot = PayrollSnapshot.current();
+        return run(snapshot.getEmployees().getEmployees(), snapshot);
+    }
+
+    /**
+     * Computes payroll for the given employees.
+     * An employee whose calculation fails gets a failure entry instead of aborting the run.
+     *
+     * @param employees The employees to compute.
+     * @return The payroll register, in the same order as the input list.
+     */
+    public PayrollRegister run(List<Employee> employees) {
+        return run(employees, PayrollSnapshot.current());
+    }
+
+    /**
+     * Computes payroll for the given employees from a data snapshot.
+     *
+     * @param employees The employees to compute.
+     * @param snapshot The data snapshot every calculation of the run reads.
+     * @return The payroll register, in the same order as the input list.
+     */
+    public PayrollRegister run(List<Employee> employees, PayrollSnapshot snapshot) {
+        return invoke(employees, snapshot, true);
+    }
+
+    /**
+     * Computes payroll for the given employees from a data snapshot without going through the
+     * payslip cache, for one-off passes such as exports that should not fill the cache.
+     *
+     * @param employees The employees to compute.
+     * @param snapshot The data snapshot every calculation reads.
+     * @return The payroll register, in the same order as the input list.
+     */
+    public PayrollRegister calculateAll(List<Employee> employees, PayrollSnapshot snapshot) {
+        return invoke(employees, snapshot, false);
+    }
+
+    private PayrollRegister invoke(List<Employee> employees, PayrollSnapshot snapshot, boolean cached) {
+        long start = Metrics.start();
+        try {
+            Employee[] input = employees.toArray(new Employee[0]);
+            PayrollRegister.Entry[] output = new PayrollRegister.Entry[input.length];
+            pool.invoke(new ChunkTask(snapshot, cached, input, output, 0, input.length));
+            return new PayrollRegister(year, month, cycle, week, new ArrayList<>(Arrays.asList(output)));
+        } finally {
+            RUN_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Gets a single employee's payroll for this run's period, from the payslip cache when the
+     * cached result is still valid.
+     *
+     * @param employee The employee to compute.
+     * @return The register entry for the employee.
+     */
+    public PayrollRegister.Entry compute(Employee employee) {
+        return compute(employee, PayrollSnapshot.current());
+    }
+
+    /**
+     * Gets a single employee's payroll for this run's period as of a data snapshot, from the
+     * payslip cache when the cached result is still valid for the snapshot.
+     *
+     * @param employee The employee to compute.
+     * @param snapshot The data snapshot to compute from.
+     * @return The register entry for the employee.
+     */
+    public PayrollRegister.Entry compute(Employee employee, PayrollSnapshot snapshot) {
+        return PayslipCache.getDefault().get(snapshot, employee, year, month, cycle, week, () -> calculate(employee, snapshot));
+    }
+
+    /**
+     * Computes a single employee's payroll for this run's period, bypassing the cache.
+     * Mirrors MotorPHMain.calculateNetWage and displayPayrollResults.
+     *
+     * @param employee The employee to compute.
+     * @return The register entry for the employee.
+     */
+    public PayrollRegister.Entry calculate(Employee employee) {
+        return calculate(employee, PayrollSnapshot.current());
+    }
+
+    /**
+     * Computes a single employee's payroll for this run's period from a data snapshot, bypassing the cache.
+     *
+     * @param employee The employee to compute.
+     * @param snapshot The data snapshot to compute from.
+     * @return The register entry for the employee.
+     */
+    public PayrollRegister.Entry calculate(Employee employee, PayrollSnapshot snapshot) {
+        long start = Metrics.start();
+        try {
+            Grosswage grosswage = new Grosswage(
+                snapshot,
+                employee.getEmployeeNumber(),
+                employee.getFirstName(),
+                employee.getLastName(),
+                year,
+                month,
+                cycle,
+                week,
+                employee.getShiftStartTime(),
+                employee.isNightShift()
+            );
+            grosswage.calculate();
+            long gross = grosswage.getResult().getGrossCentavos();
+
+            Netwage netwage = new Netwage(
+                employee.getEmployeeNumber(),
+                employee.getLastName() + ", " + employee.getFirstName(),
+                Money.toPesos(gross),
+                grosswage.getHoursWorked(),
+                week,
+                grosswage,
+                month,
+                year
+            );
+            long net = netwage.getNetWageCentavos();
+
+            return PayrollRegister.Entry.success(employee, grosswage, netwage, gross, net);
+        } catch (RuntimeException e) {
+            FAILURES.increment();
+            return PayrollRegister.Entry.failure(employee, e.getMessage());
+        } finally {
+            EMPLOYEE_TIMER.stop(start);
+        }
+    }
+
+    // Getters
+    public int getYear() { return year; }
+    public int getMonth() { return month; }
+    public LatePenalty.PayrollCycle getCycle() { return cycle; }
+    public int getWeek() { return week; }
+
+    // Heading for the period, e.g. "Week 2" or "First Half"
+    public String describePeriod() { return periodLabel; }
+
+    /**
+     * Fork/join task computing a slice of the employee array into the matching output slots.
+     * Tasks are never serialized; ForkJoinTask is Serializable only by inheritance.
+     */
+    @SuppressWarnings("serial")
+    private class ChunkTask extends RecursiveTask<Void> {
+        private final PayrollSnapshot snapshot;
+        private final boolean cached;
+        private final Employee[] input;
+        private final PayrollRegister.Entry[] output;
+        private final int from;
+        private final int to;
+
+        ChunkTask(PayrollSnapshot snapshot, boolean cached, Employee[] input, PayrollRegister.Entry[] output,
+                  int from, int to) {
+            this.snapshot = snapshot;
+            this.cached = cached;
+            this.input = input;
+            this.output = output;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                for (int i = from; i < to; i++) {
+                    output[i] = cached ? PayrollRun.this.compute(input[i], snapshot)
+                                       : PayrollRun.this.calculate(input[i], snapshot);
+                }
+                return null;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask(snapshot, cached, input, output, from, mid),
+                      new ChunkTask(snapshot, cached, input, output, mid, to));
+            return null;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.mycompany.motorph;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable, versioned view of the data a payroll calculation reads: the employee registry,
+ * the attendance store with its index, and the statutory rate tables.
+ *
+ * A calculation takes the current snapshot once and reads everything from it, so it sees
+ * one consistent version of the data however long it runs. Reloads build a new snapshot and
+ * publish it with a single volatile write; calculations already running keep the snapshot
+ * they started with. Readers never lock; writers are serialized by publish().
+ *
+ * The datasets of the first snapshot are loaded on first use, or concurrently in the
+ * background once loadInBackground() is called at startup. Each getter waits only for the
+ * dataset it returns.
+ */
+public final class PayrollSnapshot {
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    // Attendance file loaded at startup
+    private static final String DEFAULT_ATTENDANCE_PATH = "src/main/resources/AttendanceRecord.xlsx";
+
+    // The published snapshot; replaced only by publish()
+    private static volatile PayrollSnapshot current = new PayrollSnapshot(
+            Dataset.lazy("employee data", EmployeeModelFromFile::loadRegistry),
+            Dataset.lazy("attendance records", () -> AttendanceRecord.loadStartupStore(DEFAULT_ATTENDANCE_PATH)),
+            null,
+            new RateTables.Source(RateTables.DEFAULT_PATH));
+
+    private final long version;
+    private final Dataset<EmployeeRegistry> employees;
+    private final Dataset<AttendanceStore> attendanceStore;
+    private final RateTables.Source rateTables;
+
+    // Built from the datasets on first use
+    private volatile AttendanceIndex attendance;
+
+    // A null index is built for the datasets on first use
+    private PayrollSnapshot(Dataset<EmployeeRegistry> employees, Dataset<AttendanceStore> attendanceStore,
+                            AttendanceIndex attendance, RateTables.Source rateTables) {
+        this.version = VERSIONS.incrementAndGet();
+        this.employees = employees;
+        this.attendanceStore = attendanceStore;
+        this.attendance = attendance;
+        this.rateTables = rateTables;
+    }
+
+    /**
+     * Gets the published snapshot. Calculations should call this once and keep the result.
+     * @return The current snapshot.
+     */
+    public static PayrollSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Starts loading the employees, attendance and rate tables of the current snapshot
+     * concurrently on background threads, and builds the attendance index once the first two
+     * are in. Returns at once; failures are reported by the getters that need the dataset.
+     */
+    public static void loadInBackground() {
+        loadInBackground(null);
+    }
+
+    /**
+     * Starts loading the current snapshot's datasets in the background, as loadInBackground(),
+     * with the attendance read from another file instead of the default workbook. The file is
+     * read once, by the background loader.
+     *
+     * @param attendancePath The attendance file, or null for the default workbook.
+     */
+    public static void loadInBackground(String attendancePath) {
+        if (attendancePath != null) {
+            publish(snapshot -> snapshot.withAttendance(
+                    Dataset.lazy("attendance records", () -> AttendanceRecord.loadStartupStore(attendancePath))));
+        }
+        PayrollSnapshot snapshot = current;
+        ExecutorService loader = Executors.newFixedThreadPool(3, task -> {
+            Thread thread = new Thread(task, "dataset-loader");
+            thread.setDaemon(true);  // Never keeps the JVM alive
+            return thread;
+        });
+        snapshot.employees.startAsync(loader)
+                .thenAcceptBoth(snapshot.attendanceStore.startAsync(loader), (registry, store) -> snapshot.getAttendance());
+        snapshot.rateTables.startAsync(loader);
+        loader.shutdown();  // The threads exit once the loads are done
+    }
+
+    /**
+     * Replaces the published snapshot with one derived from it.
+     * Writers run one at a time, so an update never loses another writer's change.
+     *
+     * @param update Derives the new snapshot from the current one.
+     * @return The published snapshot.
+     */
+    public static synchronized PayrollSnapshot publish(UnaryOperator<PayrollSnapshot> update) {
+        PayrollSnapshot next = update.apply(current);
+        if (next == null) {
+            throw new IllegalStateException("Snapshot update returned null");
+        }
+        current = next;
+        return next;
+    }
+
+    /**
+     * Derives a snapshot with another employee registry; the attendance index is rebuilt for it.
+     * @param registry The new employee registry.
+     * @return The new snapshot.
+     */
+    public PayrollSnapshot withEmployees(EmployeeRegistry registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException("Registry cannot be null");
+        }
+        return withEmployees(Dataset.of("employee data", registry));
+    }
+
+    // Derives a snapshot with employees that may still have to be loaded
+    PayrollSnapshot withEmployees(Dataset<EmployeeRegistry> registry) {
+        return new PayrollSnapshot(registry, attendanceStore, null, rateTables);
+    }
+
+    /**
+     * Derives a snapshot with a freshly loaded attendance store; its index is built on first use.
+     * @param store The new attendance store.
+     * @return The new snapshot.
+     */
+    public PayrollSnapshot withAttendance(AttendanceStore store) {
+        if (store == null) {
+            throw new IllegalArgumentException("Attendance store cannot be null");
+        }
+        return withAttendance(Dataset.of("attendance records", store));
+    }
+
+    // Derives a snapshot with attendance that may still have to be loaded
+    PayrollSnapshot withAttendance(Dataset<AttendanceStore> store) {
+        return new PayrollSnapshot(employees, store, null, rateTables);
+    }
+
+    /**
+     * Derives a snapshot with punches appended to its attendance store. If this snapshot's index
+     * was built, the new index keeps the prefix sums of every employee without new punches, so
+     * the next payroll run rebuilds only the employees in the delta.
+     *
+     * @param merged The store with the punches appended.
+     * @param added The punches that were appended.
+     * @return The new snapshot.
+     */
+    PayrollSnapshot withAppendedAttendance(AttendanceStore merged, AttendanceStore added) {
+        AttendanceIndex index = attendance;
+        return new PayrollSnapshot(employees, Dataset.of("attendance records", merged),
+                index == null ? null : index.withAppended(merged, added), rateTables);
+    }
+
+    /**
+     * Derives a snapshot with other rate tables.
+     * @param source The new rate table source.
+     * @return The new snapshot.
+     */
+    PayrollSnapshot withRateTables(RateTables.Source source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Rate table source cannot be null");
+        }
+        return new PayrollSnapshot(employees, attendanceStore, attendance, source);
+    }
+
+    /**
+     * Gets the rate table in effect for a payroll year, waiting for the tables to load.
+     *
+     * @param year The payroll year.
+     * @return The rate table with the latest effective year not after the given year.
+     * @throws IllegalStateException if the tables cannot be loaded or none applies to the year
+     */
+    public RateTable getRateTable(int year) {
+        return rateTables.forYear(year);
+    }
+
+    /**
+     * Gets the employee registry, waiting for the employees to load.
+     * @return The employee registry.
+     * @throws IllegalStateException if the employees cannot be loaded
+     */
+    public EmployeeRegistry getEmployees() {
+        return employees.get();
+    }
+
+    /**
+     * Gets the attendance store, waiting for the attendance to load.
+     * @return The attendance store.
+     * @throws IllegalStateException if the attendance cannot be loaded
+     */
+    public AttendanceStore getAttendanceStore() {
+        return attendanceStore.get();
+    }
+
+    /**
+     * Gets the per-employee attendance index, keyed by registry ordinal, building it on first use.
+     * @return The attendance index.
+     * @throws IllegalStateException if the employees or the attendance cannot be loaded
+     */
+    public AttendanceIndex getAttendance() {
+        AttendanceIndex index = attendance;
+        if (index == null) {
+            synchronized (this) {
+                index = attendance;
+                if (index == null) {
+                    index = new AttendanceIndex(getAttendanceStore(), getEmployees());
+                    attendance = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    public long getVersion() { return version; }
+}
@@ -0,0 +1,226 @@
+package com.mycompany.motorph;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of computed payslips (gross and net wage) per employee and pay period.
+ *
+ * Every cached payslip records the inputs it was computed from:
+ * - the Employee object it was computed for,
+ * - the employee's attendance in the pay period's month, since the deductions are looked up
+ *   with the month's gross,
+ * - the dates of the month's punches, each of which was checked against HolidayChecker,
+ * - the RateTable used for the deductions and tax.
+ *
+ * A change invalidates only the payslips that depend on it: a punch correction drops the
+ * employee's payslips for every period of the month it falls in, and a holiday change drops the
+ * payslips whose month has a punch on that date. Employee and rate table changes are detected on access, by comparing the
+ * recorded objects with the caller's snapshot. Dropped payslips are recomputed on next access.
+ * Only payslips computed from the published snapshot are cached, and a caller pinned to an
+ * older snapshot is never served a payslip computed from a newer one.
+ */
+public class PayslipCache {
+
+    private static final PayslipCache DEFAULT = new PayslipCache();
+
+    private static final Metrics.Counter HITS = Metrics.counter("payslipCache.hit");
+    private static final Metrics.Counter MISSES = Metrics.counter("payslipCache.miss");
+
+    private final ConcurrentHashMap<Key, CachedPayslip> payslips = new ConcurrentHashMap<>();
+
+    // Payslips whose month has a punch on an epoch day, for holiday changes
+    private final ConcurrentHashMap<Integer, Set<Key>> payslipsByDay = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation; a computation that overlaps one is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Gets the cache shared by the payroll run and the services.
+     * @return The shared payslip cache.
+     */
+    public static PayslipCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Gets an employee's payslip for a week, computing it if it is not cached or no longer valid.
+     * Failed calculations are returned but not cached.
+     *
+     * @param snapshot The data snapshot the caller computes from.
+     * @param employee The employee.
+     * @param year The payroll year.
+     * @param month The payroll month (1-12).
+     * @param week The week of the month.
+     * @param calculation Computes the payslip when needed.
+     * @return The payroll register entry for the employee.
+     */
+    public PayrollRegister.Entry get(PayrollSnapshot snapshot, Employee employee, int year, int month, int week,
+                                     Supplier<PayrollRegister.Entry> calculation) {
+        return get(snapshot, employee, year, month, LatePenalty.PayrollCycle.WEEKLY, week, calculation);
+    }
+
+    /**
+     * Gets an employee's payslip for a pay period of any cycle, computing it if it is not
+     * cached or no longer valid.
+     *
+     * @param snapshot The data snapshot the caller computes from.
+     * @param employee The employee.
+     * @param year The payroll year.
+     * @param month The payroll month (1-12).
+     * @param cycle The pay cycle.
+     * @param week The week of the month; ignored unless the cycle is weekly.
+     * @param calculation Computes the payslip when needed.
+     * @return The payroll register entry for the employee.
+     */
+    public PayrollRegister.Entry get(PayrollSnapshot snapshot, Employee employee, int year, int month,
+                                     LatePenalty.PayrollCycle cycle, int week,
+                                     Supplier<PayrollRegister.Entry> calculation) {
+        Key key = new Key(employee.getEmployeeNumber(), year, month, PayPeriodTotals.periodOf(cycle, week));
+        RateTable rateTable = rateTableFor(snapshot, year);
+        CachedPayslip cached = payslips.get(key);
+        if (cached != null && cached.isCurrent(snapshot, employee, rateTable)) {
+            HITS.increment();
+            return cached.entry;
+        }
+        MISSES.increment();
+
+        long stamp = invalidations.get();
+        PayrollRegister.Entry entry = calculation.get();
+        if (!entry.isSuccessful() || rateTable == null || snapshot != PayrollSnapshot.current()) {
+            return entry;
+        }
+
+        CachedPayslip computed = new CachedPayslip(snapshot, employee, rateTable, entry);
+        for (int day : computed.monthDays) {
+            payslipsByDay.computeIfAbsent(day, d -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        payslips.put(key, computed);
+        // An invalidation or reload during the calculation may not have seen this payslip yet
+        if (invalidations.get() != stamp || snapshot != PayrollSnapshot.current()) {
+            payslips.remove(key, computed);
+        }
+        return entry;
+    }
+
+    /**
+     * Drops the payslips a punch of an employee on a date affects: every period of its month,
+     * since each period's deductions depend on the month's gross.
+     *
+     * @param employeeId The employee ID.
+     * @param date The date of the added or corrected punch.
+     */
+    public void invalidateAttendance(String employeeId, LocalDate date) {
+        invalidations.incrementAndGet();
+        for (int period = 0; period < PayPeriodTotals.PERIODS; period++) {
+            payslips.remove(new Key(employeeId, date.getYear(), date.getMonthValue(), period));
+        }
+    }
+
+    /**
+     * Drops the payslips whose month has a punch on a date whose holiday status changed.
+     *
+     * @param date The date that became or stopped being a holiday.
+     */
+    public void invalidateHoliday(LocalDate date) {
+        invalidations.incrementAndGet();
+        Set<Key> keys = payslipsByDay.remove((int) date.toEpochDay());
+        if (keys != null) {
+            for (Key key : keys) {
+                payslips.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Drops every payslip of an employee.
+     *
+     * @param employeeId The employee ID.
+     */
+    public void invalidateEmployee(String employeeId) {
+        invalidations.incrementAndGet();
+        payslips.keySet().removeIf(key -> Objects.equals(key.employeeId, employeeId));
+    }
+
+    /**
+     * Drops every payslip, e.g. after the attendance was reloaded from scratch.
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        payslips.clear();
+        payslipsByDay.clear();
+    }
+
+    /**
+     * Gets the number of cached payslips.
+     * @return The number of cached payslips.
+     */
+    public int size() {
+        return payslips.size();
+    }
+
+    // Gets the rate table in effect for a year in a snapshot, or null if there is none
+    private static RateTable rateTableFor(PayrollSnapshot snapshot, int year) {
+        try {
+            return snapshot.getRateTable(year);
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A cached payslip and the inputs it was computed from.
+     */
+    private static final class CachedPayslip {
+        private final long snapshotVersion;
+        private final Employee employee;
+        private final RateTable rateTable;
+        private final int[] monthDays;
+        private final PayrollRegister.Entry entry;
+
+        CachedPayslip(PayrollSnapshot snapshot, Employee employee, RateTable rateTable, PayrollRegister.Entry entry) {
+            this.snapshotVersion = snapshot.getVersion();
+            this.employee = employee;
+            this.rateTable = rateTable;
+            this.monthDays = entry.getGrosswage().getResult().getMonthDays();
+            this.entry = entry;
+        }
+
+        // The caller's snapshot is not older than the payslip's, and has the employee record
+        // and the rate table the payslip used
+        boolean isCurrent(PayrollSnapshot snapshot, Employee current, RateTable currentRateTable) {
+            return snapshotVersion <= snapshot.getVersion() && employee == current && rateTable == currentRateTable;
+        }
+    }
+
+    /**
+     * Employee and pay period of a month (see PayPeriodTotals.periodOf).
+     */
+    private static final class Key {
+        private final String employeeId;
+        private final int period;
+
+        Key(String employeeId, int year, int month, int periodOfMonth) {
+            this.employeeId = employeeId;
+            this.period = (year * 13 + month) * PayPeriodTotals.PERIODS + periodOfMonth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return period == other.period && Objects.equals(employeeId, other.employeeId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(employeeId) + period;
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.mycompany.motorph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes one payslip text file per employee for a pay period, with the layout of
+ * MotorPHMain.displayPayrollResults.
+ *
+ * The layout is compiled once into literal byte segments and field slots. Worker threads
+ * compute an employee's payroll and render it straight into a pooled direct buffer: literals
+ * are bulk copies and amounts are written digit by digit, so rendering allocates almost
+ * nothing. Each buffer is handed to an asynchronous file channel and returns to the pool when
+ * the write completes; when every buffer is in flight the workers wait, so throughput follows
+ * the disk instead of queueing unbounded output in memory.
+ */
+public class PayslipGenerator {
+
+    // Payslip layout; {name} marks a field, filled in by PayslipTemplate.Field
+    private static final String LAYOUT = """
+
+            {period} Payroll Details {month}/{year}:
+            ------------------------------------------
+            Employee ID         : {employeeId}
+            Employee Name       : {employeeName}
+            ------------------------------------------
+            Regular Hours       : {regularHours} hrs
+            Overtime Hours      : {overtimeHours} hrs
+            Regular Pay         : PHP {regularPay}
+            Overtime Pay        : PHP {overtimePay}
+            Night Differential  : PHP {nightDifferentialPay}
+            Holiday Premium Pay : PHP {holidayPay}
+            Gross Wage          : PHP {gross}
+
+            Deductions:
+            SSS                 : PHP {sss}
+            PhilHealth          : PHP {philhealth}
+            Pag-IBIG            : PHP {pagibig}
+            Late Penalties      : PHP {latePenalty}
+            Total Deductions    : PHP {totalDeductions}
+            Taxable Income      : PHP {taxableIncome}
+            Withholding Tax     : PHP {withholdingTax}
+            ------------------------------------------
+            NET WAGE            : PHP {net}
+            ------------------------------------------
+            """;
+
+    private static final PayslipTemplate TEMPLATE = PayslipTemplate.compile(LAYOUT);
+
+    // Rendered payslips are about 1 KB; a longer one gets a one-off buffer
+    private static final int BUFFER_SIZE = 4096;
+
+    // Buffers per worker that may be waiting on the disk at once
+    private static final int BUFFERS_PER_WORKER = 8;
+
+    private static final Metrics.Timer GENERATE_TIMER = Metrics.timer("payslips.generate");
+    private static final Metrics.Timer RENDER_TIMER = Metrics.timer("payslips.render");
+
+    private PayslipGenerator() {}
+
+    /**
+     * Writes the payslips of every employee in the current snapshot, using one worker per core.
+     *
+     * @param run The payroll run defining the period.
+     * @param directory The directory to write to; created if missing.
+     * @return The number of payslips written.
+     * @throws IOException if the directory cannot be created
+     */
+    public static int generate(PayrollRun run, Path directory) throws IOException {
+        PayrollSnapshot snapshot = PayrollSnapshot.current();
+        return generate(run, snapshot.getEmployees().getEmployees(), snapshot, directory,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Writes the payslips of the given employees. Employees whose payroll cannot be computed, or
+     * whose file cannot be written, are reported on System.err and skipped.
+     *
+     * @param run The payroll run defining the period.
+     * @param employees The employees to write payslips for.
+     * @param snapshot The data snapshot every calculation reads.
+     * @param directory The directory to write to; created if missing.
+     * @param workers The number of rendering threads.
+     * @return The number of payslips written.
+     * @throws IOException if the directory cannot be created
+     */
+    public static int generate(PayrollRun run, List<Employee> employees, PayrollSnapshot snapshot,
+                               Path directory, int workers) throws IOException {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Workers must be at least 1");
+        }
+        Files.createDirectories(directory);
+
+        BlockingQueue<ByteBuffer> buffers = new ArrayBlockingQueue<>(workers * BUFFERS_PER_WORKER);
+        for (int i = 0; i < workers * BUFFERS_PER_WORKER; i++) {
+            buffers.add(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        }
+        Employee[] input = employees.toArray(new Employee[0]);
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger written = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(input.length);
+
+        long start = Metrics.start();
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            for (int w = 0; w < workers; w++) {
+                pool.execute(() -> {
+                    Renderer renderer = new Renderer();
+                    for (int i = next.getAndIncrement(); i < input.length; i = next.getAndIncrement()) {
+                        writePayslip(run, input[i], snapshot, directory, renderer, buffers, written, done);
+                    }
+                });
+            }
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Payslip generation interrupted after " + written.get() + " payslips.");
+        } finally {
+            pool.shutdownNow();
+            GENERATE_TIMER.stop(start);
+        }
+        return written.get();
+    }
+
+    // Computes, renders and starts writing one employee's payslip; counts down when it is settled
+    private static void writePayslip(PayrollRun run, Employee employee, PayrollSnapshot snapshot, Path directory,
+                                     Renderer renderer, BlockingQueue<ByteBuffer> buffers,
+                                     AtomicInteger written, CountDownLatch done) {
+        PayrollRegister.Entry entry = run.calculate(employee, snapshot);
+        if (!entry.isSuccessful()) {
+            System.err.println("Skipping payslip for employee " + employee.getEmployeeNumber() + ": " + entry.getError());
+            done.countDown();
+            return;
+        }
+
+        ByteBuffer buffer;
+        try {
+            buffer = buffers.take();  // Waits while every buffer is being written
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            done.countDown();
+            return;
+        }
+        Path file = directory.resolve(fileName(employee, run));
+        ByteBuffer rendered;
+        AsynchronousFileChannel channel;
+        try {
+            long renderStart = Metrics.start();
+            rendered = renderer.render(entry, run, buffer);
+            RENDER_TIMER.stop(renderStart);
+            channel = AsynchronousFileChannel.open(file, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error writing payslip " + file + ": " + e.getMessage());
+            buffers.add(buffer);
+            done.countDown();
+            return;
+        }
+        channel.write(rendered, 0, rendered, new CompletionHandler<>() {
+            @Override
+            public void completed(Integer count, ByteBuffer source) {
+                if (source.hasRemaining()) {
+                    channel.write(source, source.position(), source, this);  // Short write: continue where it stopped
+                    return;
+                }
+                written.incrementAndGet();
+                finish();
+            }
+
+            @Override
+            public void failed(Throwable e, ByteBuffer source) {
+                System.err.println("Error writing payslip " + file + ": " + e.getMessage());
+                finish();
+            }
+
+            private void finish() {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing payslip " + file + ": " + e.getMessage());
+                }
+                buffers.add(buffer);
+                done.countDown();
+            }
+        });
+    }
+
+    // payslip-<id>-<yyyy>-<mm>-<period>.txt (period w1-w4, h1, h2 or m), with anything but letters, digits, '-' and '_' in the ID replaced
+    private static String fileName(Employee employee, PayrollRun run) {
+        String id = employee.getEmployeeNumber();
+        StringBuilder name = new StringBuilder(40).append("payslip-");
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            name.append(Character.isLetterOrDigit(c) || c == '-' || c == '_' ? c : '_');
+        }
+        name.append('-').append(run.getYear()).append('-');
+        if (run.getMonth() < 10) {
+            name.append('0');
+        }
+        return name.append(run.getMonth()).append('-').append(run.getCycle().getCode(run.getWeek()))
+                .append(".txt").toString();
+    }
+
+    /**
+     * Per-thread rendering state: a UTF-8 encoder for text fields.
+     */
+    private static final class Renderer {
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        // Renders a payslip into the buffer, or into a larger one-off buffer if it does not fit
+        ByteBuffer render(PayrollRegister.Entry entry, PayrollRun run, ByteBuffer buffer) {
+            buffer.clear();
+            if (!TEMPLATE.render(entry, run, buffer, encoder)) {
+                ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 4);
+                while (!TEMPLATE.render(entry, run, larger.clear(), encoder)) {
+                    larger = ByteBuffer.allocate(larger.capacity() * 4);
+                }
+                return larger.flip();
+            }
+            return buffer.flip();
+        }
+    }
+
+    /**
+     * Payslip layout compiled into literal byte segments interleaved with field slots.
+     */
+    private static final class PayslipTemplate {
+        private final byte[][] literals;  // literals[i] precedes fields[i]; the last one ends the payslip
+        private final Field[] fields;
+
+        private PayslipTemplate(byte[][] literals, Field[] fields) {
+            this.literals = literals;
+            this.fields = fields;
+        }
+
+        // Splits the layout at each {field}; unknown field names fail fast
+        static PayslipTemplate compile(String layout) {
+            List<byte[]> literals = new ArrayList<>();
+            List<Field> fields = new ArrayList<>();
+            int from = 0;
+            for (int open = layout.indexOf('{'); open >= 0; open = layout.indexOf('{', from)) {
+                int close = layout.indexOf('}', open);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unclosed field at offset " + open);
+                }
+                literals.add(layout.substring(from, open).getBytes(StandardCharsets.UTF_8));
+                fields.add(Field.named(layout.substring(open + 1, close)));
+                from = close + 1;
+            }
+            literals.add(layout.substring(from).getBytes(StandardCharsets.UTF_8));
+            return new PayslipTemplate(literals.toArray(new byte[0][]), fields.toArray(new Field[0]));
+        }
+
+        // Renders a payslip; returns false if the buffer is too small
+        boolean render(PayrollRegister.Entry entry, PayrollRun run, ByteBuffer out, CharsetEncoder encoder) {
+            GrosswageResult gross = entry.getGrosswage().getResult();
+            Netwage net = entry.getNetwage();
+            Employee employee = entry.getEmployee();
+            for (int i = 0; i < fields.length; i++) {
+                if (out.remaining() < literals[i].length + 24) {
+                    return false;  // 24 bytes fit any number field
+                }
+                out.put(literals[i]);
+                switch (fields[i]) {
+                    case PERIOD -> {
+                        if (!putText(out, run.describePeriod(), encoder)) {
+                            return false;
+                        }
+                    }
+                    case MONTH -> putLong(out, run.getMonth());
+                    case YEAR -> putLong(out, run.getYear());
+                    case EMPLOYEE_ID -> {
+                        if (!putText(out, employee.getEmployeeNumber(), encoder)) {
+                            return false;
+                        }
+                    }
+                    case EMPLOYEE_NAME -> {
+                        if (!putText(out, net.getEmployeeName(), encoder)) {
+                            return false;
+                        }
+                    }
+                    case REGULAR_HOURS -> putAmount(out, Math.round(gross.getRegularHours() * 100));
+                    case OVERTIME_HOURS -> putAmount(out, Math.round(gross.getOvertimeHours() * 100));
+                    case REGULAR_PAY -> putAmount(out, gross.getRegularPayCentavos());
+                    case OVERTIME_PAY -> putAmount(out, gross.getOvertimePayCentavos());
+                    case NIGHT_DIFFERENTIAL_PAY -> putAmount(out, gross.getNightDifferentialPayCentavos());
+                    case HOLIDAY_PAY -> putAmount(out, gross.getHolidayPayCentavos());
+                    case GROSS -> putAmount(out, gross.getGrossCentavos());
+                    case SSS -> putAmount(out, net.getSSSDeductionCentavos());
+                    case PHILHEALTH -> putAmount(out, net.getPhilhealthDeductionCentavos());
+                    case PAGIBIG -> putAmount(out, net.getPagIbigDeductionCentavos());
+                    case LATE_PENALTY -> putAmount(out, net.getLateDeductionCentavos());
+                    case TOTAL_DEDUCTIONS -> putAmount(out, net.getTotalDeductionsCentavos());
+                    case TAXABLE_INCOME -> putAmount(out, net.getTaxableIncomeCentavos());
+                    case WITHHOLDING_TAX -> putAmount(out, net.getWithholdingTaxCentavos());
+                    case NET -> putAmount(out, entry.getNetCentavos());
+                }
+            }
+            byte[] last = literals[fields.length];
+            if (out.remaining() < last.length) {
+                return false;
+            }
+            out.put(last);
+            return true;
+        }
+
+        // Writes hundredths like DecimalFormat("#.##"): no grouping, trailing zero decimals dropped
+        private static void putAmount(ByteBuffer out, long hundredths) {
+            if (hundredths < 0) {
+                out.put((byte) '-');
+                hundredths = -hundredths;
+            }
+            putLong(out, hundredths / 100);
+            int fraction = (int) (hundredths % 100);
+            if (fraction != 0) {
+                out.put((byte) '.').put((byte) ('0' + fraction / 10));
+                if (fraction % 10 != 0) {
+                    out.put((byte) ('0' + fraction % 10));
+                }
+            }
+        }
+
+        // Writes a non-negative number in ASCII digits
+        private static void putLong(ByteBuffer out, long value) {
+            int start = out.position();
+            do {
+                out.put((byte) ('0' + value % 10));
+                value /= 10;
+            } while (value != 0);
+            // Digits came out least significant first; reverse them in place
+            for (int i = start, j = out.position() - 1; i < j; i++, j--) {
+                byte digit = out.get(i);
+                out.put(i, out.get(j));
+                out.put(j, digit);
+            }
+        }
+
+        // Encodes text as UTF-8; returns false if the buffer is too small
+        private static boolean putText(ByteBuffer out, String text, CharsetEncoder encoder) {
+            encoder.reset();
+            CoderResult result = encoder.encode(CharBuffer.wrap(text), out, true);
+            return !result.isOverflow() && !encoder.flush(out).isOverflow();
+        }
+    }
+
+    /**
+     * Values a payslip template can show.
+     */
+    private enum Field {
+        PERIOD("period"), MONTH("month"), YEAR("year"), EMPLOYEE_ID("employeeId"), EMPLOYEE_NAME("employeeName"),
+        REGULAR_HOURS("regularHours"), OVERTIME_HOURS("overtimeHours"), REGULAR_PAY("regularPay"),
+        OVERTIME_PAY("overtimePay"), NIGHT_DIFFERENTIAL_PAY("nightDifferentialPay"), HOLIDAY_PAY("holidayPay"),
+        GROSS("gross"), SSS("sss"),
+        PHILHEALTH("philhealth"), PAGIBIG("pagibig"), LATE_PENALTY("latePenalty"),
+        TOTAL_DEDUCTIONS("totalDeductions"), TAXABLE_INCOME("taxableIncome"),
+        WITHHOLDING_TAX("withholdingTax"), NET("net");
+
+        private final String name;
+
+        Field(String name) {
+            this.name = name;
+        }
+
+        static Field named(String name) {
+            for (Field field : values()) {
+                if (field.name.equals(name)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unknown payslip field: {" + name + "}");
+        }
+    }
+}
@@ -4,34 +4,49 @@
 package com.mycompany.motorph;
 
 public class Philhealth extends Calculation {
-    private double philhealthDeduction; // PhilHealth deduction amount
-    private final Grosswage grosswage; // Gross wage object for calculation
+    private long philhealthDeduction; // PhilHealth deduction amount in centavos
+    private final GrosswageResult grosswage; // Computed gross wage used for calculation
+
+    private static final Metrics.Timer TIMER = Metrics.timer("calc.philhealth");
 
     /**
      * Constructor for Philhealth.
      * @param grosswage The Grosswage object containing the employee's gross wage.
      */
     public Philhealth(Grosswage grosswage) {
+        this(grosswage.getResult());
+    }
+
+    /**
+     * Constructor for Philhealth using an already computed gross wage.
+     * @param grosswage The computed gross wage result.
+     */
+    public Philhealth(GrosswageResult grosswage) {
         this.grosswage = grosswage;
     }
 
     /**
-     * Calculates the PhilHealth deduction based on the employee's gross wage.
+     * Calculates the monthly PhilHealth deduction based on the employee's gross wage for the whole month.
+     * Uses the PhilHealth premium table for the payroll year.
      * @return The PhilHealth deduction amount.
      */
     @Override
     public double calculate() {
-        double gross = grosswage.calculate();
+        return Money.toPesos(calculateCentavos());
+    }
 
-        double philDed;
-        if (gross > 60000) {
-            philDed = 1800;
-        } else {
-            philDed = (gross * 0.03) / 2;
+    /**
+     * Calculates the PhilHealth deduction in centavos, without going through a double.
+     * @return The PhilHealth deduction amount in centavos.
+     */
+    public long calculateCentavos() {
+        long start = Metrics.start();
+        try {
+            philhealthDeduction = grosswage.getRateTable().getPhilhealthContribution(grosswage.getMonthGrossCentavos());
+            return philhealthDeduction;
+        } finally {
+            TIMER.stop(start);
         }
-
-        philhealthDeduction = philDed;
-        return philhealthDeduction;
     }
 
     /**
@@ -39,6 +54,14 @@ public class Philhealth extends Calculation {
      * @return The PhilHealth deduction amount.
      */
     public double getPhilhealthDeduction() {
+        return Money.toPesos(philhealthDeduction);
+    }
+
+    /**
+     * Returns the PhilHealth deduction amount in centavos.
+     * @return The PhilHealth deduction amount in centavos.
+     */
+    public long getPhilhealthDeductionCentavos() {
         return philhealthDeduction;
     }
 }
\ No newline at end of file
@@ -0,0 +1,180 @@
+package com.mycompany.motorph;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Statutory contribution and withholding tax tables for one effective year.
+ * All brackets are compiled into sorted primitive arrays once, when the tables are loaded;
+ * each lookup is a binary search followed by plain arithmetic. Amounts are in centavos
+ * (see Money) and rates are applied with Money.multiply.
+ */
+public final class RateTable {
+    private final int effectiveYear;
+
+    // SSS: contribution per compensation bracket
+    private final BracketTable sssBrackets;
+    private final long[] sssContributions;
+
+    // PhilHealth: premium rate, employee share and the fixed amount above the salary ceiling
+    private final double philhealthRate;
+    private final double philhealthEmployeeShare;
+    private final long philhealthSalaryCeiling;
+    private final long philhealthMaxContribution;
+
+    // Pag-IBIG: rate per gross bracket and the monthly cap
+    private final BracketTable pagibigBrackets;
+    private final double[] pagibigRates;
+    private final long pagibigMaxContribution;
+
+    // Withholding tax: baseTax + (income - excessOver) * rate per bracket
+    private final BracketTable taxBrackets;
+    private final long[] taxBase;
+    private final long[] taxExcessOver;
+    private final double[] taxRates;
+
+    RateTable(int effectiveYear, List<SSSRecord> sssRecords,
+              double philhealthRate, double philhealthEmployeeShare,
+              double philhealthSalaryCeiling, double philhealthMaxContribution,
+              double[] pagibigUpperBounds, double[] pagibigRates, double pagibigMaxContribution,
+              double[] taxUpperBounds, double[] taxBase, double[] taxExcessOver, double[] taxRates) {
+        this.effectiveYear = effectiveYear;
+
+        // Parse every SSS compensation range once and sort the brackets by their lower bound
+        if (sssRecords.isEmpty()) {
+            throw new IllegalArgumentException("SSS table for " + effectiveYear + " has no records");
+        }
+        double[][] brackets = new double[sssRecords.size()][];
+        for (int i = 0; i < brackets.length; i++) {
+            SSSRecord record = sssRecords.get(i);
+            double[] range = parseCompensationRange(record.getCompensationRange());
+            brackets[i] = new double[]{range[0], record.getContribution()};
+        }
+        Arrays.sort(brackets, (a, b) -> Double.compare(a[0], b[0]));
+        double[] sssLowerBounds = new double[brackets.length];
+        this.sssContributions = new long[brackets.length];
+        for (int i = 0; i < brackets.length; i++) {
+            sssLowerBounds[i] = brackets[i][0];
+            sssContributions[i] = Money.ofPesos(brackets[i][1]);
+        }
+        this.sssBrackets = BracketTable.ofLowerBounds(sssLowerBounds);
+
+        this.philhealthRate = philhealthRate;
+        this.philhealthEmployeeShare = philhealthEmployeeShare;
+        this.philhealthSalaryCeiling = Money.ofPesos(philhealthSalaryCeiling);
+        this.philhealthMaxContribution = Money.ofPesos(philhealthMaxContribution);
+
+        this.pagibigBrackets = BracketTable.ofUpperBounds(pagibigUpperBounds);
+        this.pagibigRates = requireLength(pagibigRates, pagibigBrackets.size(), "pagibig.rates");
+        this.pagibigMaxContribution = Money.ofPesos(pagibigMaxContribution);
+
+        this.taxBrackets = BracketTable.ofUpperBounds(taxUpperBounds);
+        this.taxBase = toCentavos(requireLength(taxBase, taxBrackets.size(), "tax.baseTax"));
+        this.taxExcessOver = toCentavos(requireLength(taxExcessOver, taxBrackets.size(), "tax.excessOver"));
+        this.taxRates = requireLength(taxRates, taxBrackets.size(), "tax.rates");
+    }
+
+    /**
+     * Gets the monthly SSS contribution for a gross wage.
+     * @param gross The gross wage in centavos.
+     * @return The SSS contribution in centavos.
+     */
+    public long getSssContribution(long gross) {
+        return sssContributions[sssBrackets.bracketOf(Money.toPesos(gross))];
+    }
+
+    /**
+     * Gets the employee's PhilHealth premium for a gross wage.
+     * @param gross The gross wage in centavos.
+     * @return The PhilHealth premium in centavos.
+     */
+    public long getPhilhealthContribution(long gross) {
+        if (gross > philhealthSalaryCeiling) {
+            return philhealthMaxContribution;
+        }
+        return Money.multiply(gross, philhealthRate * philhealthEmployeeShare);
+    }
+
+    /**
+     * Gets the Pag-IBIG contribution for a gross wage.
+     * @param gross The gross wage in centavos.
+     * @return The Pag-IBIG contribution in centavos.
+     */
+    public long getPagibigContribution(long gross) {
+        long pagibig = Money.multiply(gross, pagibigRates[pagibigBrackets.bracketOf(Money.toPesos(gross))]);
+        return Math.min(pagibig, pagibigMaxContribution);
+    }
+
+    /**
+     * Gets the withholding tax for a taxable income.
+     * @param taxableIncome The taxable income in centavos.
+     * @return The withholding tax in centavos.
+     */
+    public long getWithholdingTax(long taxableIncome) {
+        int bracket = taxBrackets.bracketOf(Money.toPesos(taxableIncome));
+        return taxBase[bracket] + Money.multiply(taxableIncome - taxExcessOver[bracket], taxRates[bracket]);
+    }
+
+    public int getEffectiveYear() {
+        return effectiveYear;
+    }
+
+    /**
+     * Parses an SSS compensation range string into its start and end values.
+     * Supports "Below X", "Over X", "X - Y" and single values.
+     *
+     * @param compensationRange The compensation range string.
+     * @return An array containing the start and end values of the range.
+     */
+    static double[] parseCompensationRange(String compensationRange) {
+        compensationRange = compensationRange.trim(); // Remove extra spaces
+
+        // Handle the "Below X" format
+        if (compensationRange.startsWith("Below")) {
+            double end = parseNumber(compensationRange.replace("Below", ""));
+            return new double[]{0, end};
+        }
+
+        // Handle the "Over X" format
+        if (compensationRange.startsWith("Over")) {
+            double start = parseNumber(compensationRange.replace("Over", ""));
+            return new double[]{start, Double.MAX_VALUE};
+        }
+
+        try {
+            // Handle the "X - Y" format
+            String[] rangeParts = compensationRange.split("-");
+            if (rangeParts.length == 2) {
+                return new double[]{parseNumber(rangeParts[0]), parseNumber(rangeParts[1])};
+            }
+
+            // Handle single numeric values (e.g., "3250.0")
+            double value = parseNumber(compensationRange);
+            return new double[]{value, value};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid compensation range format: " + compensationRange, e);
+        }
+    }
+
+    // Parses a number from a string, removing commas
+    private static double parseNumber(String numberString) {
+        return Double.parseDouble(numberString.replace(",", "").trim());
+    }
+
+    // Converts peso amounts from the properties file to centavos
+    private static long[] toCentavos(double[] pesos) {
+        long[] centavos = new long[pesos.length];
+        for (int i = 0; i < pesos.length; i++) {
+            centavos[i] = Money.ofPesos(pesos[i]);
+        }
+        return centavos;
+    }
+
+    private double[] requireLength(double[] values, int expected, String name) {
+        if (values.length != expected) {
+            throw new IllegalArgumentException(String.format(
+                    "%d.%s needs %d values, found %d", effectiveYear, name, expected, values.length));
+        }
+        return values.clone();
+    }
+}
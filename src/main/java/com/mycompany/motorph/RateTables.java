@@ -0,0 +1,261 @@
+package com.mycompany.motorph;
+
+import com.mycompany.motorph.XlsxStreamReader.SheetRow;
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Registry of statutory rate tables by effective year.
+ * Tables are read from RateTables.properties (and the SSS workbook it points to) the first
+ * time they are needed. Payroll for a year uses the latest table whose effective year is not
+ * after it, so newer years only need new entries in the properties file.
+ * The tables in use are part of the PayrollSnapshot, so a reload never changes them under a
+ * running calculation.
+ */
+public class RateTables {
+    // Default path for the rate table definitions
+    static final String DEFAULT_PATH = "src/main/resources/RateTables.properties";
+
+    private static final Metrics.Timer LOAD_TIMER = Metrics.timer("load.rateTables");
+
+    // Codec for caching parsed SSS records in a binary snapshot
+    private static final SnapshotCache.Codec<SSSRecord> SSS_SNAPSHOT_CODEC = new SnapshotCache.Codec<>() {
+        @Override
+        public String getName() { return "sss"; }
+
+        @Override
+        public int getVersion() { return 1; }
+
+        @Override
+        public void write(SSSRecord record, SnapshotCache.SnapshotWriter out) throws IOException {
+            out.writeString(record.getCompensationRange());
+            out.writeDouble(record.getContribution());
+        }
+
+        @Override
+        public SSSRecord read(SnapshotCache.SnapshotReader in) {
+            return new SSSRecord(in.readString(), in.readDouble());
+        }
+    };
+
+    private RateTables() {}
+
+    /**
+     * Gets the rate table in effect for a payroll year, from the current snapshot.
+     *
+     * @param year The payroll year.
+     * @return The rate table with the latest effective year not after the given year.
+     * @throws IllegalStateException if the tables cannot be loaded or none applies to the year
+     */
+    public static RateTable forYear(int year) {
+        return PayrollSnapshot.current().getRateTable(year);
+    }
+
+    /**
+     * Switches to the rate table definitions in another file; they are loaded on first use.
+     * Calculations already running keep the tables they started with.
+     * @param newFilePath New path to the rate table definitions
+     */
+    public static void setFilePath(String newFilePath) {
+        Source source = new Source(newFilePath);
+        PayrollSnapshot.publish(snapshot -> snapshot.withRateTables(source));
+    }
+
+    /**
+     * Loads and compiles every effective year defined in a rate table file.
+     *
+     * @param path Path to the properties file.
+     * @return The compiled tables keyed by effective year.
+     * @throws IllegalStateException if the file or a referenced SSS workbook cannot be read
+     */
+    static TreeMap<Integer, RateTable> loadTables(String path) {
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(path)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load rate tables from " + path + ": " + e.getMessage(), e);
+        }
+
+        TreeMap<Integer, RateTable> compiled = new TreeMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            int year = Integer.parseInt(name.substring(0, name.indexOf('.')));
+            if (!compiled.containsKey(year)) {
+                compiled.put(year, compileYear(year, properties));
+            }
+        }
+        if (compiled.isEmpty()) {
+            throw new IllegalStateException("No rate tables defined in " + path);
+        }
+        return compiled;
+    }
+
+    // Compiles the tables for one effective year
+    private static RateTable compileYear(int year, Properties properties) {
+        String prefix = year + ".";
+        String sssFile = require(properties, prefix + "sss.file");
+        List<SSSRecord> sssRecords;
+        try {
+            sssRecords = SnapshotCache.loadOrParse(sssFile, SSS_SNAPSHOT_CODEC, RateTables::loadSssRecords);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load SSS table for " + year + ": " + e.getMessage(), e);
+        }
+
+        return new RateTable(year, sssRecords,
+                parseDouble(properties, prefix + "philhealth.rate"),
+                parseDouble(properties, prefix + "philhealth.employeeShare"),
+                parseDouble(properties, prefix + "philhealth.salaryCeiling"),
+                parseDouble(properties, prefix + "philhealth.maxContribution"),
+                parseDoubles(properties, prefix + "pagibig.upperBounds"),
+                parseDoubles(properties, prefix + "pagibig.rates"),
+                parseDouble(properties, prefix + "pagibig.maxContribution"),
+                parseDoubles(properties, prefix + "tax.upperBounds"),
+                parseDoubles(properties, prefix + "tax.baseTax"),
+                parseDoubles(properties, prefix + "tax.excessOver"),
+                parseDoubles(properties, prefix + "tax.rates"));
+    }
+
+    /**
+     * Loads SSS contribution records from an Excel file.
+     * Column A holds the start of the range ("Below X" for the first row), column C the end
+     * ("Over" for the last row) and column D the contribution.
+     *
+     * @param path Path to the SSS contribution workbook.
+     * @return A list of SSSRecord objects.
+     * @throws IOException if the workbook cannot be read
+     */
+    static List<SSSRecord> loadSssRecords(String path) throws IOException {
+        List<SSSRecord> records = new ArrayList<>();
+
+        XlsxStreamReader.readFirstSheet(path, row -> {
+            // Skip the header row
+            if (row.getRowNum() == 0) {
+                return;
+            }
+            String start = getCellValueAsString(row, 0);
+            String end = getCellValueAsString(row, 2);
+            if (start.isEmpty()) {
+                return;
+            }
+
+            String compensationRange;
+            if (start.startsWith("Below") || end.isEmpty()) {
+                compensationRange = start;
+            } else if (end.startsWith("Over")) {
+                compensationRange = "Over " + start;
+            } else {
+                compensationRange = start + " - " + end;
+            }
+            records.add(new SSSRecord(compensationRange, parseCellValueAsDouble(row, 3)));
+        });
+
+        return records;
+    }
+
+    // Gets the value of a streamed cell as a trimmed string
+    private static String getCellValueAsString(SheetRow row, int column) {
+        int cell = row.indexOfColumn(column);
+        if (cell < 0) {
+            return "";
+        }
+        return switch (row.getTypeAt(cell)) {
+            case STRING -> row.getStringAt(cell).trim();
+            case NUMERIC -> String.valueOf(row.getNumberAt(cell));
+            default -> "";
+        };
+    }
+
+    // Parses a streamed cell as a double, even if it's stored as a string
+    private static double parseCellValueAsDouble(SheetRow row, int column) {
+        int cell = row.indexOfColumn(column);
+        if (cell < 0) {
+            return 0.0;
+        }
+        if (row.getTypeAt(cell) == CellType.NUMERIC) {
+            return row.getNumberAt(cell);
+        }
+        if (row.getTypeAt(cell) == CellType.STRING) {
+            String value = row.getStringAt(cell).trim();
+            if (value.isEmpty() || value.equals("-")) {
+                return 0.0; // Return 0 for empty cells or hyphens
+            }
+            try {
+                return Double.parseDouble(value.replace(",", ""));
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid numeric format in cell: " + value);
+                return 0.0;
+            }
+        }
+        return 0.0;
+    }
+
+    private static String require(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalStateException("Missing rate table entry: " + key);
+        }
+        return value.trim();
+    }
+
+    private static double parseDouble(Properties properties, String key) {
+        try {
+            return Double.parseDouble(require(properties, key));
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid number for rate table entry " + key, e);
+        }
+    }
+
+    private static double[] parseDoubles(Properties properties, String key) {
+        String[] parts = require(properties, key).split(",");
+        double[] values = new double[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid number list for rate table entry " + key, e);
+        }
+        return values;
+    }
+
+    /**
+     * Rate tables defined in one file, compiled in the background at startup or the first time
+     * a year is looked up.
+     */
+    static final class Source {
+        private final Dataset<TreeMap<Integer, RateTable>> tables;
+
+        Source(String path) {
+            this.tables = Dataset.lazy("rate tables", () -> {
+                long start = Metrics.start();
+                try {
+                    return loadTables(path);
+                } finally {
+                    LOAD_TIMER.stop(start);
+                }
+            });
+        }
+
+        // Starts compiling the tables on an executor
+        void startAsync(Executor executor) {
+            tables.startAsync(executor);
+        }
+
+        // Gets the table with the latest effective year not after the given year
+        RateTable forYear(int year) {
+            Map.Entry<Integer, RateTable> entry = tables.get().floorEntry(year);
+            if (entry == null) {
+                throw new IllegalStateException("No statutory rate table is in effect for " + year);
+            }
+            return entry.getValue();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.mycompany.motorph;
+
+/**
+ * Splits one punch into pay buckets using minute-of-day arithmetic: regular and overtime
+ * minutes, minutes in the night differential window (22:00-06:00) and minutes on a holiday.
+ *
+ * A shift that ends before it starts runs past midnight; its minutes after midnight belong to
+ * the next day, so they take that day's holiday rate. Every bucket is an overlap of two
+ * minute intervals on a two-day line, so a split is a few comparisons and no allocation. One
+ * splitter is reused for all of an employee's punches; it holds the buckets of the last split.
+ */
+public final class ShiftSplitter {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int REGULAR_MINUTES_PER_DAY = 8 * 60;
+    private static final double OVERTIME_RATE = 1.25;
+
+    // Night differential window, and its premium over the rate of the hours it covers; it is
+    // the only night premium, so night-shift overtime is paid at the same rate as any other
+    private static final int NIGHT_START = 22 * 60;
+    private static final int NIGHT_END = 6 * 60;
+    private static final double NIGHT_DIFFERENTIAL_RATE = 0.10;
+
+    private final long hourlyRate;  // Centavos
+
+    // Buckets of the last split; "next day" minutes fall after midnight
+    private int regularMinutes;
+    private int overtimeMinutes;
+    private int nextDayRegularMinutes;
+    private int nextDayOvertimeMinutes;
+    private int nightRegularMinutes;
+    private int nightOvertimeMinutes;
+    private double multiplier = 1.0;  // Holiday pay multiplier of the punch day
+    private double nextDayMultiplier = 1.0;
+
+    /**
+     * Creates a splitter for one employee's hourly rate.
+     *
+     * @param hourlyRate The hourly rate in centavos.
+     */
+    public ShiftSplitter(long hourlyRate) {
+        this.hourlyRate = hourlyRate;
+    }
+
+    /**
+     * Splits a punch into buckets, replacing those of the previous split. The first eight
+     * hours worked are regular and the rest overtime. A punch missing either time counts as
+     * no work.
+     *
+     * @param epochDay The punch date, as LocalDate.toEpochDay().
+     * @param inSecond Time in as second of day, or AttendanceStore.NONE.
+     * @param outSecond Time out as second of day, or AttendanceStore.NONE.
+     */
+    public void split(int epochDay, int inSecond, int outSecond) {
+        int worked = AttendanceStore.workedMinutes(inSecond, outSecond);
+        int start = worked == 0 ? 0 : inSecond / 60;
+        int regularEnd = start + Math.min(worked, REGULAR_MINUTES_PER_DAY);
+        int end = start + worked;  // At most a minute short of a day later, so before the next day ends
+
+        regularMinutes = regularEnd - start;
+        overtimeMinutes = end - regularEnd;
+        nextDayRegularMinutes = overlap(start, regularEnd, MINUTES_PER_DAY, 2 * MINUTES_PER_DAY);
+        nextDayOvertimeMinutes = overlap(regularEnd, end, MINUTES_PER_DAY, 2 * MINUTES_PER_DAY);
+        nightRegularMinutes = nightMinutes(start, regularEnd);
+        nightOvertimeMinutes = nightMinutes(regularEnd, end);
+
+        multiplier = HolidayChecker.getHolidayPayMultiplier(epochDay);
+        nextDayMultiplier = nextDayRegularMinutes + nextDayOvertimeMinutes > 0
+                ? HolidayChecker.getHolidayPayMultiplier(epochDay + 1) : 1.0;
+    }
+
+    // Minutes two intervals share
+    private static int overlap(int start, int end, int windowStart, int windowEnd) {
+        return Math.max(0, Math.min(end, windowEnd) - Math.max(start, windowStart));
+    }
+
+    // Minutes of an interval on the punch day or the next that fall between 22:00 and 06:00
+    private static int nightMinutes(int start, int end) {
+        return overlap(start, end, 0, NIGHT_END)
+                + overlap(start, end, NIGHT_START, MINUTES_PER_DAY + NIGHT_END)
+                + overlap(start, end, MINUTES_PER_DAY + NIGHT_START, 2 * MINUTES_PER_DAY);
+    }
+
+    // Whole hours plus the remaining minutes, as AttendanceRecord.calculateHoursWorked counts them
+    private static double hours(int minutes) {
+        return minutes / 60 + (minutes % 60) / 60.0;
+    }
+
+    // Minute buckets of the last split
+    public int getWorkedMinutes() { return regularMinutes + overtimeMinutes; }
+    public int getRegularMinutes() { return regularMinutes; }
+    public int getOvertimeMinutes() { return overtimeMinutes; }
+    public int getNightMinutes() { return nightRegularMinutes + nightOvertimeMinutes; }
+
+    // Minutes worked on a holiday, on either side of midnight
+    public int getHolidayMinutes() {
+        int nextDayMinutes = nextDayRegularMinutes + nextDayOvertimeMinutes;
+        return (multiplier != 1.0 ? getWorkedMinutes() - nextDayMinutes : 0)
+                + (nextDayMultiplier != 1.0 ? nextDayMinutes : 0);
+    }
+
+    /**
+     * Gets the pay for the regular minutes, at each day's holiday rate.
+     * @return The regular pay in centavos, rounded once for the punch.
+     */
+    public long getRegularPayCentavos() {
+        int nextDay = nextDayRegularMinutes;
+        return Money.multiply(hourlyRate, hours(regularMinutes - nextDay) * multiplier + hours(nextDay) * nextDayMultiplier);
+    }
+
+    /**
+     * Gets the pay for the overtime minutes at the overtime rate (125%).
+     * @return The overtime pay in centavos.
+     */
+    public long getOvertimePayCentavos() {
+        return overtimeMinutes > 0 ? Money.multiply(hourlyRate, hours(overtimeMinutes) * OVERTIME_RATE) : 0;
+    }
+
+    /**
+     * Gets the holiday premium over the regular rate for the regular and overtime minutes
+     * worked on a holiday.
+     * @return The holiday premium in centavos.
+     */
+    public long getHolidayPayCentavos() {
+        double premium = multiplier - 1.0;
+        double nextDayPremium = nextDayMultiplier - 1.0;
+        if (premium == 0 && nextDayPremium == 0) {
+            return 0;
+        }
+        long pay = Money.multiply(hourlyRate,
+                hours(regularMinutes - nextDayRegularMinutes) * premium + hours(nextDayRegularMinutes) * nextDayPremium);
+        if (overtimeMinutes > 0) {
+            pay += Money.multiply(hourlyRate,
+                    hours(overtimeMinutes - nextDayOvertimeMinutes) * premium + hours(nextDayOvertimeMinutes) * nextDayPremium);
+        }
+        return pay;
+    }
+
+    /**
+     * Gets the night differential: 10% of the regular rate for regular minutes and of the
+     * overtime rate for overtime minutes worked between 22:00 and 06:00.
+     * @return The night differential in centavos.
+     */
+    public long getNightDifferentialPayCentavos() {
+        if (nightRegularMinutes == 0 && nightOvertimeMinutes == 0) {
+            return 0;
+        }
+        return Money.multiply(hourlyRate,
+                (hours(nightRegularMinutes) + hours(nightOvertimeMinutes) * OVERTIME_RATE) * NIGHT_DIFFERENTIAL_RATE);
+    }
+}
@@ -0,0 +1,307 @@
+package com.mycompany.motorph;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary snapshot cache for data parsed from the Excel workbooks.
+ * The first load of a workbook parses it as usual and writes the records to a compact
+ * snapshot file. Later loads memory-map the snapshot and decode it directly, skipping POI,
+ * as long as the workbook's size, modification time and CRC32C still match the snapshot.
+ *
+ * Snapshot layout: header, records, then a deduplicated string table that records refer
+ * to by index.
+ */
+public class SnapshotCache {
+    private static final int MAGIC = 0x4D504853; // "MPHS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 8 + 8 + 4 + 8;
+
+    // Directory holding the snapshot files; can be overridden with -Dmotorph.snapshot.dir
+    private static final String CACHE_DIR = System.getProperty("motorph.snapshot.dir", "target/snapshot-cache");
+
+    // Set -Dmotorph.snapshot.disabled=true to always parse the workbooks
+    private static final boolean DISABLED = Boolean.getBoolean("motorph.snapshot.disabled");
+
+    private SnapshotCache() {}
+
+    /**
+     * Encodes and decodes one record type.
+     * Bump the version whenever the encoding changes so that old snapshots are discarded.
+     */
+    public interface Codec<T> {
+        String getName();
+        int getVersion();
+        void write(T item, SnapshotWriter out) throws IOException;
+        T read(SnapshotReader in);
+    }
+
+    /**
+     * Parses records from the source file when no valid snapshot exists.
+     */
+    @FunctionalInterface
+    public interface Parser<T> {
+        List<T> parse(String sourcePath) throws IOException;
+    }
+
+    /**
+     * Loads records from a valid snapshot of the source file, or parses the source and
+     * writes a new snapshot. Snapshot problems are reported and fall back to parsing.
+     *
+     * @param sourcePath path to the source workbook
+     * @param codec the record codec
+     * @param parser parser used when no valid snapshot exists
+     * @return the loaded records
+     * @throws IOException if the source file cannot be read or parsed
+     */
+    public static <T> List<T> loadOrParse(String sourcePath, Codec<T> codec, Parser<T> parser) throws IOException {
+        if (DISABLED) {
+            return parser.parse(sourcePath);
+        }
+
+        Path source = Paths.get(sourcePath);
+        Path snapshot = snapshotPath(source, codec);
+        SourceStamp stamp = SourceStamp.of(source);
+
+        if (Files.isRegularFile(snapshot)) {
+            try {
+                List<T> records = read(snapshot, codec, stamp);
+                if (records != null) {
+                    return records;
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Ignoring unreadable snapshot " + snapshot + ": " + e.getMessage());
+            }
+        }
+
+        List<T> records = parser.parse(sourcePath);
+        try {
+            write(snapshot, codec, stamp, records);
+        } catch (IOException e) {
+            System.err.println("Could not write snapshot " + snapshot + ": " + e.getMessage());
+        }
+        return records;
+    }
+
+    // Gets the snapshot file for a source file and record type
+    private static Path snapshotPath(Path source, Codec<?> codec) {
+        return Paths.get(CACHE_DIR, source.getFileName() + "." + codec.getName() + ".snap");
+    }
+
+    // Reads a snapshot, returning null if it was written for a different source or format
+    private static <T> List<T> read(Path snapshot, Codec<T> codec, SourceStamp stamp) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC
+                    || buffer.getInt() != FORMAT_VERSION
+                    || buffer.getInt() != codec.getVersion()
+                    || buffer.getLong() != stamp.size
+                    || buffer.getLong() != stamp.lastModified
+                    || buffer.getLong() != stamp.hash) {
+                return null;
+            }
+            int recordCount = buffer.getInt();
+            long stringTableOffset = buffer.getLong();
+
+            // Decode the string table first so records can resolve their string indexes
+            ByteBuffer strings = buffer.duplicate();
+            strings.position((int) stringTableOffset);
+            String[] stringTable = new String[strings.getInt()];
+            for (int i = 0; i < stringTable.length; i++) {
+                byte[] bytes = new byte[strings.getInt()];
+                strings.get(bytes);
+                stringTable[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            SnapshotReader reader = new SnapshotReader(buffer, stringTable);
+            List<T> records = new ArrayList<>(recordCount);
+            for (int i = 0; i < recordCount; i++) {
+                records.add(codec.read(reader));
+            }
+            return records;
+        }
+    }
+
+    // Writes a snapshot to a temporary file and moves it into place
+    private static <T> void write(Path snapshot, Codec<T> codec, SourceStamp stamp, List<T> records) throws IOException {
+        Files.createDirectories(snapshot.getParent());
+        Path temp = Files.createTempFile(snapshot.getParent(), snapshot.getFileName().toString(), ".tmp");
+        try {
+            SnapshotWriter writer;
+            long stringTableOffset;
+            try (CountingOutputStream counter = new CountingOutputStream(
+                         new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16));
+                 DataOutputStream out = new DataOutputStream(counter)) {
+                // Header placeholder, patched once the string table offset is known
+                out.write(new byte[HEADER_SIZE]);
+
+                writer = new SnapshotWriter(out);
+                for (T record : records) {
+                    codec.write(record, writer);
+                }
+
+                stringTableOffset = counter.count;
+                out.writeInt(writer.strings.size());
+                for (String value : writer.strings) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC)
+                  .putInt(FORMAT_VERSION)
+                  .putInt(codec.getVersion())
+                  .putLong(stamp.size)
+                  .putLong(stamp.lastModified)
+                  .putLong(stamp.hash)
+                  .putInt(records.size())
+                  .putLong(stringTableOffset)
+                  .flip();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.write(header, 0);
+            }
+
+            try {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Writes primitive fields and deduplicated strings of a record.
+     */
+    public static final class SnapshotWriter {
+        private final DataOutputStream out;
+        private final List<String> strings = new ArrayList<>();
+        private final Map<String, Integer> stringIndexes = new HashMap<>();
+
+        private SnapshotWriter(DataOutputStream out) {
+            this.out = out;
+        }
+
+        public void writeInt(int value) throws IOException { out.writeInt(value); }
+        public void writeLong(long value) throws IOException { out.writeLong(value); }
+        public void writeDouble(double value) throws IOException { out.writeDouble(value); }
+        public void writeBoolean(boolean value) throws IOException { out.writeByte(value ? 1 : 0); }
+
+        /** Writes a string as an index into the snapshot's string table; null is written as -1. */
+        public void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            Integer index = stringIndexes.get(value);
+            if (index == null) {
+                index = strings.size();
+                strings.add(value);
+                stringIndexes.put(value, index);
+            }
+            out.writeInt(index);
+        }
+    }
+
+    /**
+     * Reads primitive fields and strings of a record from the mapped snapshot.
+     */
+    public static final class SnapshotReader {
+        private final ByteBuffer buffer;
+        private final String[] strings;
+
+        private SnapshotReader(ByteBuffer buffer, String[] strings) {
+            this.buffer = buffer;
+            this.strings = strings;
+        }
+
+        public int readInt() { return buffer.getInt(); }
+        public long readLong() { return buffer.getLong(); }
+        public double readDouble() { return buffer.getDouble(); }
+        public boolean readBoolean() { return buffer.get() != 0; }
+
+        /** Reads a string written by SnapshotWriter.writeString; equal strings share one instance. */
+        public String readString() {
+            int index = buffer.getInt();
+            return index < 0 ? null : strings[index];
+        }
+    }
+
+    /**
+     * Size, modification time and content hash of a source file.
+     */
+    private static final class SourceStamp {
+        private final long size;
+        private final long lastModified;
+        private final long hash;
+
+        private SourceStamp(long size, long lastModified, long hash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+
+        static SourceStamp of(Path source) throws IOException {
+            long size = Files.size(source);
+            long lastModified = Files.getLastModifiedTime(source).toMillis();
+            CRC32C crc = new CRC32C();
+            try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+                while (channel.read(buffer) > 0) {
+                    buffer.flip();
+                    crc.update(buffer);
+                    buffer.clear();
+                }
+            }
+            return new SourceStamp(size, lastModified, crc.getValue());
+        }
+    }
+
+    /**
+     * Output stream that counts the bytes written through it.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -1,47 +1,74 @@
 package com.mycompany.motorph;
 
 public class WithholdingTax extends Calculation {
-    private double tax;
-    private final double taxableIncome;
+    private long tax;  // Withholding tax in centavos
+    private final long taxableIncome;  // Taxable income in centavos
+    private final int year;
     private final Grosswage grosswage;
+    private final GrosswageResult result;  // Null when the tax was created from a Grosswage
+
+    private static final Metrics.Timer TIMER = Metrics.timer("calc.withholdingTax");
 
     public WithholdingTax(Grosswage grosswage, double taxableIncome) {
         if (grosswage == null) {
             throw new IllegalArgumentException("Grosswage cannot be null");
         }
         this.grosswage = grosswage;
+        this.result = null;
+        this.year = grosswage.getYear();
+        this.taxableIncome = Money.ofPesos(taxableIncome);
+    }
+
+    // Constructor for callers that already hold the taxable income in centavos
+    public WithholdingTax(GrosswageResult grosswage, long taxableIncome) {
+        if (grosswage == null) {
+            throw new IllegalArgumentException("Grosswage cannot be null");
+        }
+        this.grosswage = null;
+        this.result = grosswage;
+        this.year = grosswage.getYear();
         this.taxableIncome = taxableIncome;
     }
 
     @Override
     public double calculate() {
-        // Updated Philippine tax brackets (2024)
-        if (taxableIncome <= 20832) {
-            tax = 0;
-        } else if (taxableIncome <= 33333) {
-            tax = (taxableIncome - 20832) * 0.20;
-        } else if (taxableIncome <= 66667) {
-            tax = 2500 + (taxableIncome - 33333) * 0.25;
-        } else if (taxableIncome <= 166667) {
-            tax = 10833 + (taxableIncome - 66667) * 0.30;
-        } else if (taxableIncome <= 666667) {
-            tax = 40833.33 + (taxableIncome - 166667) * 0.32;
-        } else {
-            tax = 200833.33 + (taxableIncome - 666667) * 0.35;
+        return Money.toPesos(calculateCentavos());
+    }
+
+    // Calculates the withholding tax in centavos
+    public long calculateCentavos() {
+        long start = Metrics.start();
+        try {
+            // Philippine tax brackets for the payroll year, from the rate tables the gross wage was computed with
+            RateTable rateTable = result != null ? result.getRateTable() : RateTables.forYear(year);
+            // The brackets are monthly: tax the period's income at its monthly equivalent and keep the period's share
+            int periods = (result != null ? result.getCycle() : grosswage.getCycle()).getPeriodsPerMonth();
+            tax = Money.divide(rateTable.getWithholdingTax(taxableIncome * periods), periods);
+            return tax;
+        } finally {
+            TIMER.stop(start);
         }
-        return tax;
     }
 
     // Getters
     public double getTax() {
+        return Money.toPesos(tax);
+    }
+
+    public long getTaxCentavos() {
         return tax;
     }
 
     public double getTaxableIncome() {
+        return Money.toPesos(taxableIncome);
+    }
+
+    public long getTaxableIncomeCentavos() {
         return taxableIncome;
     }
 
+    // Null when the tax was created from a GrosswageResult
     public Grosswage getGrosswage() {
         return grosswage;
     }
-}
\ No newline at end of file
+}
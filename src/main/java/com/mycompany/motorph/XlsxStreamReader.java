@@ -0,0 +1,381 @@
+package com.mycompany.motorph;
+
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.InvalidOperationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader for the first sheet of an .xlsx workbook.
+ * Uses POI's XSSFReader and a SAX handler instead of building the XSSFWorkbook DOM, so memory
+ * stays bounded by the batch queue rather than the file size. The sheet XML is parsed on a
+ * background thread while the caller turns the previous rows into records.
+ */
+public class XlsxStreamReader {
+
+    // Rows are handed from the parser thread to the caller in batches of this size
+    private static final int BATCH_SIZE = 512;
+
+    // Maximum number of batches waiting for the caller; bounds memory while streaming
+    private static final int QUEUE_CAPACITY = 8;
+
+    // Marker batch signalling that the parser thread has finished
+    private static final List<SheetRow> END_OF_SHEET = new ArrayList<>();
+
+    private XlsxStreamReader() {}
+
+    /**
+     * Streams every row of the first sheet to the row handler, in sheet order.
+     *
+     * @param filePath path to the .xlsx file
+     * @param rowHandler receives each row; called on the caller's thread
+     * @throws IOException if the file cannot be opened or the sheet cannot be parsed
+     */
+    public static void readFirstSheet(String filePath, Consumer<SheetRow> rowHandler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(filePath, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IOException("Workbook has no sheets: " + filePath);
+            }
+
+            try (InputStream sheet = sheets.next()) {
+                streamSheet(sheet, sharedStrings, styles, rowHandler);
+            }
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException("Error reading workbook " + filePath + ": " + e.getMessage(), e);
+        } catch (InvalidOperationException | UnsupportedFileFormatException e) {
+            // OPCPackage.open reports a missing or non-xlsx file unchecked
+            throw new IOException("Cannot open workbook " + filePath + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Parses the sheet on a background thread and drains the row batches on the caller's thread
+    private static void streamSheet(InputStream sheet, ReadOnlySharedStringsTable sharedStrings,
+                                    StylesTable styles, Consumer<SheetRow> rowHandler) throws IOException {
+        BlockingQueue<List<SheetRow>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        SheetHandler handler = new SheetHandler(sharedStrings, styles, queue);
+        Throwable[] parseError = new Throwable[1];
+
+        Thread parser = new Thread(() -> {
+            try {
+                XMLReader xmlReader = XMLHelper.newXMLReader();
+                xmlReader.setContentHandler(handler);
+                xmlReader.parse(new InputSource(sheet));
+                handler.flush();
+            } catch (SAXException | IOException | ParserConfigurationException | RuntimeException e) {
+                parseError[0] = e;
+            } finally {
+                // Always signal the end so the caller never waits forever
+                try {
+                    queue.put(END_OF_SHEET);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "xlsx-stream-reader");
+        parser.setDaemon(true);
+        parser.start();
+
+        try {
+            while (true) {
+                List<SheetRow> batch = queue.take();
+                if (batch == END_OF_SHEET) {
+                    break;
+                }
+                for (SheetRow row : batch) {
+                    rowHandler.accept(row);
+                }
+            }
+            parser.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading workbook", e);
+        } finally {
+            if (parser.isAlive()) {
+                parser.interrupt();
+            }
+        }
+
+        if (parseError[0] != null) {
+            Throwable e = parseError[0];
+            throw new IOException("Error parsing sheet: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A single parsed row. Cells are kept in the order they appear in the sheet XML,
+     * which is the order POI's Row iterator returns them in.
+     */
+    public static final class SheetRow {
+        private final int rowNum;
+        private final int[] columns;
+        private final CellType[] types;
+        private final String[] strings;
+        private final double[] numbers;
+        private final boolean[] dateFormatted;
+
+        private SheetRow(int rowNum, int[] columns, CellType[] types, String[] strings,
+                         double[] numbers, boolean[] dateFormatted) {
+            this.rowNum = rowNum;
+            this.columns = columns;
+            this.types = types;
+            this.strings = strings;
+            this.numbers = numbers;
+            this.dateFormatted = dateFormatted;
+        }
+
+        /** @return the zero-based row number */
+        public int getRowNum() { return rowNum; }
+
+        /** @return the number of cells physically present in the row */
+        public int getCellCount() { return columns.length; }
+
+        /** @return the zero-based column of the i-th present cell */
+        public int getColumnAt(int i) { return columns[i]; }
+
+        /** @return the type of the i-th present cell */
+        public CellType getTypeAt(int i) { return types[i]; }
+
+        /** @return the string, boolean ("true"/"false") or formula text of the i-th present cell */
+        public String getStringAt(int i) { return strings[i]; }
+
+        /** @return the numeric value of the i-th present cell */
+        public double getNumberAt(int i) { return numbers[i]; }
+
+        /** @return true if the i-th present cell is numeric with a date format */
+        public boolean isDateFormattedAt(int i) { return dateFormatted[i]; }
+
+        /**
+         * Finds the position of a column among the present cells.
+         *
+         * @param column the zero-based column index
+         * @return the position of the cell, or -1 if the row has no such cell
+         */
+        public int indexOfColumn(int column) {
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i] == column) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * SAX handler decoding worksheet XML into SheetRow batches.
+     */
+    private static final class SheetHandler extends DefaultHandler {
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final StylesTable styles;
+        private final BlockingQueue<List<SheetRow>> queue;
+        private List<SheetRow> batch = new ArrayList<>(BATCH_SIZE);
+
+        // Current row state; arrays grow as needed and are copied out when the row ends
+        private int rowNum;
+        private int cellCount;
+        private int nextColumn;
+        private int[] columns = new int[32];
+        private CellType[] types = new CellType[32];
+        private String[] strings = new String[32];
+        private double[] numbers = new double[32];
+        private boolean[] dateFormatted = new boolean[32];
+
+        // Current cell state
+        private String cellType;
+        private String cellStyle;
+        private boolean hasFormula;
+        private String formula;
+        private String value;
+        private final StringBuilder text = new StringBuilder();
+        private boolean collectingText;
+
+        private SheetHandler(ReadOnlySharedStringsTable sharedStrings, StylesTable styles,
+                             BlockingQueue<List<SheetRow>> queue) {
+            this.sharedStrings = sharedStrings;
+            this.styles = styles;
+            this.queue = queue;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row" -> {
+                    String r = attributes.getValue("r");
+                    rowNum = r != null ? Integer.parseInt(r) - 1 : rowNum + 1;
+                    cellCount = 0;
+                    nextColumn = 0;
+                }
+                case "c" -> {
+                    String ref = attributes.getValue("r");
+                    int column = ref != null ? new CellReference(ref).getCol() : nextColumn;
+                    nextColumn = column + 1;
+                    ensureCapacity();
+                    columns[cellCount] = column;
+                    cellType = attributes.getValue("t");
+                    cellStyle = attributes.getValue("s");
+                    hasFormula = false;
+                    formula = null;
+                    value = null;
+                }
+                case "v", "f", "t" -> {
+                    text.setLength(0);
+                    collectingText = true;
+                    if (localName.equals("f")) {
+                        hasFormula = true;
+                    }
+                }
+                default -> { }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collectingText) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "v" -> {
+                    value = text.toString();
+                    collectingText = false;
+                }
+                case "f" -> {
+                    formula = text.toString();
+                    collectingText = false;
+                }
+                case "t" -> {
+                    // Inline string text; rich text runs are concatenated
+                    value = value == null ? text.toString() : value + text;
+                    collectingText = false;
+                }
+                case "c" -> endCell();
+                case "row" -> endRow();
+                default -> { }
+            }
+        }
+
+        // Decodes the finished cell into the current row arrays
+        private void endCell() {
+            int i = cellCount++;
+            dateFormatted[i] = false;
+            numbers[i] = 0.0;
+            strings[i] = "";
+
+            if (hasFormula) {
+                types[i] = CellType.FORMULA;
+                strings[i] = formula != null ? formula : "";
+                return;
+            }
+            if (value == null) {
+                types[i] = CellType.BLANK;
+                return;
+            }
+
+            if (cellType == null || cellType.equals("n")) {
+                types[i] = CellType.NUMERIC;
+                numbers[i] = Double.parseDouble(value);
+                dateFormatted[i] = isDateStyle(cellStyle, numbers[i]);
+            } else if (cellType.equals("s")) {
+                types[i] = CellType.STRING;
+                strings[i] = sharedStrings.getItemAt(Integer.parseInt(value)).getString();
+            } else if (cellType.equals("inlineStr") || cellType.equals("str")) {
+                types[i] = CellType.STRING;
+                strings[i] = value;
+            } else if (cellType.equals("b")) {
+                types[i] = CellType.BOOLEAN;
+                strings[i] = String.valueOf(value.equals("1"));
+            } else {
+                types[i] = CellType.ERROR;
+            }
+        }
+
+        // Copies the current row out and queues it once the batch is full
+        private void endRow() throws SAXException {
+            batch.add(new SheetRow(rowNum,
+                    Arrays.copyOf(columns, cellCount),
+                    Arrays.copyOf(types, cellCount),
+                    Arrays.copyOf(strings, cellCount),
+                    Arrays.copyOf(numbers, cellCount),
+                    Arrays.copyOf(dateFormatted, cellCount)));
+            if (batch.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        // Hands the pending batch to the caller, blocking while the queue is full
+        private void flush() throws SAXException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                queue.put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SAXException("Sheet parsing interrupted");
+            }
+            batch = new ArrayList<>(BATCH_SIZE);
+        }
+
+        // Checks whether a numeric cell's style uses a date format, as DateUtil.isCellDateFormatted does
+        private boolean isDateStyle(String styleIndex, double number) {
+            if (styleIndex == null || styles == null || !DateUtil.isValidExcelDate(number)) {
+                return false;
+            }
+            XSSFCellStyle style = styles.getStyleAt(Integer.parseInt(styleIndex));
+            if (style == null) {
+                return false;
+            }
+            short formatIndex = style.getDataFormat();
+            String formatString = style.getDataFormatString();
+            if (formatString == null) {
+                formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+            }
+            return DateUtil.isADateFormat(formatIndex, formatString);
+        }
+
+        private void ensureCapacity() {
+            if (cellCount < columns.length) {
+                return;
+            }
+            int newLength = columns.length * 2;
+            columns = Arrays.copyOf(columns, newLength);
+            types = Arrays.copyOf(types, newLength);
+            strings = Arrays.copyOf(strings, newLength);
+            numbers = Arrays.copyOf(numbers, newLength);
+            dateFormatted = Arrays.copyOf(dateFormatted, newLength);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that an index derived by an append keeps the prefix sums of employees without new
+ * punches and gives the same totals as an index built over the whole store.
+ */
+class AttendanceIndexTest {
+
+    private static final long RATE = 10000;  // Centavos
+    private static final LocalTime SHIFT = LocalTime.of(8, 0);
+
+    private static EmployeeRegistry registry(String... ids) {
+        List<Employee> employees = new ArrayList<>();
+        for (String id : ids) {
+            String[] data = new String[21];
+            Arrays.fill(data, "");
+            data[0] = id;
+            data[18] = "100";
+            data[19] = "08:00";
+            employees.add(new Employee(data));
+        }
+        return new EmployeeRegistry(employees);
+    }
+
+    private static AttendanceStore.Builder june(AttendanceStore.Builder builder, String id, int fromDay, int toDay) {
+        for (int day = fromDay; day <= toDay; day++) {
+            builder.add(id, "Employee " + id, LocalDate.of(2024, 6, day), LocalTime.of(8, 5), LocalTime.of(18, 0));
+        }
+        return builder;
+    }
+
+    @Test
+    void appendKeepsUntouchedEmployeesSums() {
+        EmployeeRegistry registry = registry("10001", "10002", "10003");
+        AttendanceStore base = june(june(new AttendanceStore.Builder(), "10001", 3, 14), "10002", 3, 14).build();
+        AttendanceStore added = june(june(new AttendanceStore.Builder(), "10002", 17, 21), "10003", 17, 18).build();
+        AttendanceStore merged = base.append(added);
+
+        AttendanceIndex index = new AttendanceIndex(base, registry);
+        AttendancePrefixSums untouched = index.getPrefixSums(0, RATE, SHIFT);
+        AttendancePrefixSums touched = index.getPrefixSums(1, RATE, SHIFT);
+        AttendanceIndex appended = index.withAppended(merged, added);
+
+        assertSame(merged, appended.getStore());
+        assertSame(untouched, appended.getPrefixSums(0, RATE, SHIFT));
+        assertNotSame(touched, appended.getPrefixSums(1, RATE, SHIFT));
+
+        AttendanceIndex rebuilt = new AttendanceIndex(merged, registry);
+        for (int ordinal = 0; ordinal < registry.size(); ordinal++) {
+            AttendancePrefixSums expected = rebuilt.getPrefixSums(ordinal, RATE, SHIFT);
+            AttendancePrefixSums actual = appended.getPrefixSums(ordinal, RATE, SHIFT);
+            long expectedRange = expected.range(LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30));
+            long actualRange = actual.range(LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30));
+            assertEquals(expected.getPunchCount(expectedRange), actual.getPunchCount(actualRange));
+            assertEquals(expected.getRegularPayCentavos(expectedRange), actual.getRegularPayCentavos(actualRange));
+            assertEquals(expected.getOvertimePayCentavos(expectedRange), actual.getOvertimePayCentavos(actualRange));
+            assertEquals(expected.getLatePenaltyCentavos(expectedRange), actual.getLatePenaltyCentavos(actualRange));
+        }
+        assertEquals(17, appended.getRecords("10002").size());
+        assertEquals(2, appended.getRecordsForMonth("10003", 2024, 6).size());
+    }
+}
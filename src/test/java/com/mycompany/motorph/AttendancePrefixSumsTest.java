@@ -0,0 +1,108 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests range totals of the day-indexed prefix sums, at 100.00 per hour with an 08:00 shift.
+ * Punches: June 3 08:00-17:00, June 5 twice (08:30-12:30 and 13:00-17:00), June 10 08:00-16:00
+ * and July 1 09:00-17:00 (late by 45 minutes after the grace period).
+ */
+class AttendancePrefixSumsTest {
+
+    private static final long RATE = 10000;  // Centavos
+
+    private static AttendancePrefixSums sums() {
+        AttendanceStore store = new AttendanceStore.Builder()
+                .add("10001", "A", LocalDate.of(2024, 6, 3), LocalTime.of(8, 0), LocalTime.of(17, 0))
+                .add("10001", "A", LocalDate.of(2024, 6, 5), LocalTime.of(8, 30), LocalTime.of(12, 30))
+                .add("10001", "A", LocalDate.of(2024, 6, 5), LocalTime.of(13, 0), LocalTime.of(17, 0))
+                .add("10001", "A", LocalDate.of(2024, 6, 10), LocalTime.of(8, 0), LocalTime.of(16, 0))
+                .add("10001", "A", LocalDate.of(2024, 7, 1), LocalTime.of(9, 0), LocalTime.of(17, 0))
+                .add("10002", "B", LocalDate.of(2024, 6, 4), LocalTime.of(8, 0), LocalTime.of(16, 0))
+                .build();
+        long rows = store.findRows("10001", AttendanceStore.NONE + 1L, Integer.MAX_VALUE);
+        return AttendancePrefixSums.build(store, (int) (rows >>> 32), (int) rows, RATE, LocalTime.of(8, 0));
+    }
+
+    private static long range(AttendancePrefixSums sums, int fromMonth, int fromDay, int toMonth, int toDay) {
+        return sums.range(LocalDate.of(2024, fromMonth, fromDay), LocalDate.of(2024, toMonth, toDay));
+    }
+
+    @Test
+    void rangeSumsEveryPunchOfItsDays() {
+        AttendancePrefixSums sums = sums();
+        long june = range(sums, 6, 1, 6, 30);
+
+        assertEquals(4, sums.getPunchCount(june));
+        assertEquals(480 + 60 + 480 + 480, sums.getWorkedMinutes(june));
+        assertEquals(60, sums.getOvertimeMinutes(june));
+        assertEquals(80000 + 80000 + 80000, sums.getRegularPayCentavos(june));
+        assertEquals(12500, sums.getOvertimePayCentavos(june));
+        assertEquals(15 + 285, sums.getLateMinutes(june));  // Every punch is checked, so 13:00 counts too
+        assertArrayEquals(new int[] {dayOf(6, 3), dayOf(6, 5), dayOf(6, 5), dayOf(6, 10)}, sums.getDays(june));
+    }
+
+    @Test
+    void duplicateDayCountsBothPunches() {
+        AttendancePrefixSums sums = sums();
+        long day = range(sums, 6, 5, 6, 5);
+
+        assertEquals(2, sums.getPunchCount(day));
+        assertEquals(480, sums.getRegularMinutes(day));  // 4 h + 4 h, each under the 8 h limit
+        assertEquals(0, sums.getOvertimeMinutes(day));
+        assertEquals(80000, sums.getRegularPayCentavos(day));
+    }
+
+    @Test
+    void rangeOverMissingDaysIsEmpty() {
+        AttendancePrefixSums sums = sums();
+        long gap = range(sums, 6, 11, 6, 30);
+
+        assertEquals(0, sums.getPunchCount(gap));
+        assertEquals(0, sums.getWorkedMinutes(gap));
+        assertEquals(0, sums.getRegularPayCentavos(gap));
+        assertEquals(0, sums.getDays(gap).length);
+        assertEquals(0, sums.getPunchCount(range(sums, 6, 4, 6, 4)));
+    }
+
+    @Test
+    void rangesOutsideSpanAreClamped() {
+        AttendancePrefixSums sums = sums();
+
+        assertEquals(0, sums.getPunchCount(range(sums, 1, 1, 5, 31)));      // Before the first punch
+        assertEquals(0, sums.getPunchCount(range(sums, 7, 2, 12, 31)));     // After the last punch
+        assertEquals(5, sums.getPunchCount(range(sums, 1, 1, 12, 31)));     // Around all punches
+        assertEquals(0, sums.getPunchCount(range(sums, 6, 10, 6, 3)));      // Ends before it starts
+        assertEquals(5, sums.getPunchCount(sums.range(Integer.MIN_VALUE + 1, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void rangeBoundariesAreInclusive() {
+        AttendancePrefixSums sums = sums();
+
+        assertEquals(1, sums.getPunchCount(range(sums, 6, 3, 6, 3)));
+        assertEquals(3, sums.getPunchCount(range(sums, 6, 3, 6, 5)));
+        assertEquals(2, sums.getPunchCount(range(sums, 6, 10, 7, 1)));
+        assertEquals(45, sums.getLateMinutes(range(sums, 7, 1, 7, 31)));
+        assertEquals(7500, sums.getLatePenaltyCentavos(range(sums, 7, 1, 7, 1)));
+    }
+
+    @Test
+    void employeeWithoutPunchesHasEmptyRanges() {
+        AttendancePrefixSums sums = AttendancePrefixSums.build(AttendanceStore.empty(), 0, 0, RATE, LocalTime.of(8, 0));
+        long year = range(sums, 1, 1, 12, 31);
+
+        assertEquals(0, sums.getPunchCount(year));
+        assertEquals(0, sums.getRegularPayCentavos(year));
+        assertEquals(0, sums.getDays(year).length);
+    }
+
+    private static int dayOf(int month, int day) {
+        return (int) LocalDate.of(2024, month, day).toEpochDay();
+    }
+}
@@ -0,0 +1,162 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the row order of built stores, and that appending a delta gives the same rows as
+ * building one store from all the punches.
+ */
+class AttendanceStoreTest {
+
+    private static final int JAN_1 = (int) LocalDate.of(2024, 1, 1).toEpochDay();
+
+    // A punch as the builder takes it
+    private record Punch(String id, String name, int day, int in, int out) {
+    }
+
+    private static AttendanceStore build(List<Punch> punches) {
+        AttendanceStore.Builder builder = new AttendanceStore.Builder();
+        for (Punch punch : punches) {
+            builder.add(punch.id(), punch.name(), punch.day(), punch.in(), punch.out());
+        }
+        return builder.build();
+    }
+
+    // Punches of a few employees over the year, with same-day duplicates and undated rows
+    private static List<Punch> punches(Random random, int count, int employees) {
+        List<Punch> punches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int employee = 10001 + random.nextInt(employees);
+            int day = random.nextInt(50) == 0 ? AttendanceStore.NONE : JAN_1 + random.nextInt(366);
+            int in = (7 + random.nextInt(3)) * 3600 + random.nextInt(60) * 60;
+            punches.add(new Punch(String.valueOf(employee), "Employee " + employee + (i % 7 == 0 ? " Jr." : ""),
+                    day, in, in + 8 * 3600));
+        }
+        return punches;
+    }
+
+    static void assertSameRows(AttendanceStore expected, AttendanceStore actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getEmployeeCount(), actual.getEmployeeCount());
+        for (int row = 0; row < expected.size(); row++) {
+            assertEquals(expected.getEmployeeId(row), actual.getEmployeeId(row), "employee of row " + row);
+            assertEquals(expected.getName(row), actual.getName(row), "name of row " + row);
+            assertEquals(expected.getEpochDay(row), actual.getEpochDay(row), "day of row " + row);
+            assertEquals(expected.getTimeInSecond(row), actual.getTimeInSecond(row), "time in of row " + row);
+            assertEquals(expected.getTimeOutSecond(row), actual.getTimeOutSecond(row), "time out of row " + row);
+        }
+    }
+
+    @Test
+    void builderSortsByEmployeeThenDateKeepingInputOrderOnTies() {
+        AttendanceStore store = new AttendanceStore.Builder()
+                .add("10002", "B", LocalDate.of(2024, 6, 4), LocalTime.of(8, 0), LocalTime.of(12, 0))
+                .add("10001", "A", LocalDate.of(2024, 6, 5), LocalTime.of(8, 0), LocalTime.of(16, 0))
+                .add("10002", "B", LocalDate.of(2024, 6, 3), LocalTime.of(8, 0), LocalTime.of(16, 0))
+                .add("10002", "B", LocalDate.of(2024, 6, 4), LocalTime.of(13, 0), LocalTime.of(17, 0))
+                .add("10001", "A", null, LocalTime.of(8, 0), null)
+                .build();
+
+        assertEquals(5, store.size());
+        assertEquals(2, store.getEmployeeCount());
+        assertEquals(2, store.getNameCount());
+        assertEquals(List.of("10001", "10001", "10002", "10002", "10002"),
+                store.asList().stream().map(AttendanceRecord::getId).toList());
+        assertEquals(AttendanceStore.NONE, store.getEpochDay(0));  // Undated rows sort first
+        assertEquals(AttendanceStore.NONE, store.getTimeOutSecond(0));
+        assertEquals(LocalDate.of(2024, 6, 3), store.asList().get(2).getDate());
+        assertEquals(LocalTime.of(8, 0), store.asList().get(3).getTimeIn());
+        assertEquals(LocalTime.of(13, 0), store.asList().get(4).getTimeIn());
+        assertThrows(IndexOutOfBoundsException.class, () -> store.getEpochDay(5));
+    }
+
+    @Test
+    void findRowsReturnsEmployeesRowsWithinDates() {
+        AttendanceStore store = build(punches(new Random(7), 500, 5));
+        int slot = store.slotOf("10003");
+        long june = store.findRows("10003", JAN_1 + 152, JAN_1 + 181);
+
+        int count = 0;
+        for (int row = 0; row < store.size(); row++) {
+            int day = store.getEpochDay(row);
+            if (store.getEmployeeId(row).equals("10003") && day >= JAN_1 + 152 && day <= JAN_1 + 181) {
+                assertTrue(row >= (int) (june >>> 32) && row < (int) june, "row " + row + " outside range");
+                count++;
+            }
+        }
+        assertEquals(count, (int) june - (int) (june >>> 32));
+        assertEquals(june, store.findRows(slot, JAN_1 + 152, JAN_1 + 181));
+        assertEquals(0L, store.findRows("99999", JAN_1, JAN_1 + 365));
+        assertEquals(0L, store.findRows(slot, JAN_1 + 10, JAN_1 + 9));
+    }
+
+    @Test
+    void appendMatchesFullRebuild() {
+        Random random = new Random(42);
+        List<Punch> loaded = punches(random, 2000, 20);
+        List<Punch> delta = punches(random, 150, 25);  // Also brings five new employees
+        List<Punch> all = new ArrayList<>(loaded);
+        all.addAll(delta);
+
+        AttendanceStore base = build(loaded);
+        AttendanceStore merged = base.append(build(delta));
+
+        assertSameRows(build(all), merged);
+        assertTrue(merged.getVersion() > base.getVersion());
+        assertEquals(2000, base.size());  // The base store is not changed
+    }
+
+    @Test
+    void repeatedAppendsMatchFullRebuild() {
+        Random random = new Random(3);
+        List<Punch> all = new ArrayList<>(punches(random, 300, 8));
+        AttendanceStore store = build(all);
+        for (int i = 0; i < 10; i++) {
+            List<Punch> delta = punches(random, 1 + random.nextInt(30), 12);
+            store = store.append(build(delta));
+            all.addAll(delta);
+        }
+        assertSameRows(build(all), store);
+    }
+
+    @Test
+    void appendIntoEmptyStoreMatchesDelta() {
+        List<Punch> delta = punches(new Random(5), 100, 4);
+
+        assertSameRows(build(delta), AttendanceStore.empty().append(build(delta)));
+    }
+
+    @Test
+    void appendingEmptyDeltaKeepsStore() {
+        AttendanceStore store = build(punches(new Random(9), 50, 3));
+
+        assertSame(store, store.append(AttendanceStore.empty()));
+    }
+
+    @Test
+    void containsPunchSeesAppendedRows() {
+        AttendanceStore store = new AttendanceStore.Builder()
+                .add("10001", "A", LocalDate.of(2024, 6, 3), LocalTime.of(8, 0), LocalTime.of(16, 0))
+                .build();
+        int day = (int) LocalDate.of(2024, 6, 4).toEpochDay();
+        AttendanceStore merged = store.append(new AttendanceStore.Builder()
+                .add("10001", "A", day, 8 * 3600, 16 * 3600)
+                .build());
+
+        assertFalse(store.containsPunch("10001", day, 8 * 3600, 16 * 3600));
+        assertTrue(merged.containsPunch("10001", day, 8 * 3600, 16 * 3600));
+        assertFalse(merged.containsPunch("10001", day, 9 * 3600, 16 * 3600));
+        assertFalse(merged.containsPunch("10002", day, 8 * 3600, 16 * 3600));
+    }
+}
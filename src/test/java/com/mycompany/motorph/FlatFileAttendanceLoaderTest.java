@@ -0,0 +1,139 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ForkJoinPool;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that CSV and NDJSON exports load into the same rows as the workbook, and that rows
+ * parsed in parallel chunks keep the file's order.
+ */
+class FlatFileAttendanceLoaderTest {
+
+    private static final String WORKBOOK = "src/main/resources/AttendanceRecord.xlsx";
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    @TempDir
+    Path temp;
+
+    private static String text(Cell cell) {
+        return cell.getCellType() == CellType.NUMERIC ? String.valueOf(cell.getNumericCellValue()) : cell.getStringCellValue();
+    }
+
+    // Time as the workbook loader reads it, which truncates the fraction of a day (08:24 may be 08:23:59)
+    private static LocalTime time(Cell cell) {
+        double value = cell.getNumericCellValue();
+        return LocalTime.of((int) (value * 24), (int) ((value * 24 * 60) % 60), (int) ((value * 24 * 60 * 60) % 60));
+    }
+
+    @Test
+    void exportsOfBundledWorkbookLoadLikeWorkbook() throws IOException {
+        Path csv = temp.resolve("attendance.csv");
+        Path ndjson = temp.resolve("attendance.ndjson");
+        try (FileInputStream in = new FileInputStream(WORKBOOK);
+             XSSFWorkbook workbook = new XSSFWorkbook(in);
+             BufferedWriter csvOut = Files.newBufferedWriter(csv);
+             BufferedWriter jsonOut = Files.newBufferedWriter(ndjson)) {
+            csvOut.write("Employee #,Last Name,First Name,Date,Log In,Log Out\n");
+            for (Row row : workbook.getSheetAt(0)) {
+                if (row.getRowNum() == 0) {
+                    continue;
+                }
+                String id = text(row.getCell(0));  // "10001.0", as spreadsheet exports write it
+                String last = text(row.getCell(1));
+                String first = text(row.getCell(2));
+                LocalDate date = DateUtil.getLocalDateTime(row.getCell(3).getNumericCellValue()).toLocalDate();
+                String timeIn = time(row.getCell(4)).format(TIME);
+                String timeOut = time(row.getCell(5)).format(TIME);
+                csvOut.write(String.join(",", id, "\"" + last + "\"", first, date.toString(), timeIn, timeOut) + "\n");
+                jsonOut.write("{\"employeeId\": " + id + ", \"lastName\": \"" + last + "\", \"firstName\": \"" + first
+                        + "\", \"date\": \"" + date + "\", \"timeIn\": \"" + timeIn + "\", \"timeOut\": \"" + timeOut + "\"}\n");
+            }
+        }
+
+        AttendanceStore fromWorkbook = AttendanceRecord.loadAttendanceStore(WORKBOOK);
+        AttendanceStoreTest.assertSameRows(fromWorkbook, FlatFileAttendanceLoader.load(csv.toString()));
+        AttendanceStoreTest.assertSameRows(fromWorkbook, FlatFileAttendanceLoader.load(ndjson.toString()));
+    }
+
+    @Test
+    void csvFieldFormatsMatchBuilder() throws IOException {
+        Path csv = Files.writeString(temp.resolve("formats.csv"), """
+                10001,"Cruz, Jr.", Ana ,2024-06-03,08:00:00,17:00:00
+                10001.0,"Cruz, Jr.",Ana,06/04/2024,08:00,17:30
+                10002,"Say ""Boy"" Reyes",Jose,2024-06-03,22:00:00,06:00:00
+                10002,Reyes,Jose,2024-06-04,,06:00:00
+                10003,Santos,Maria,2024-13-40,08:00:00,17:00:00
+                10003,Santos
+                """);
+
+        AttendanceStore expected = new AttendanceStore.Builder()
+                .add("10001", "Cruz, Jr. Ana", LocalDate.of(2024, 6, 3), LocalTime.of(8, 0), LocalTime.of(17, 0))
+                .add("10001", "Cruz, Jr. Ana", LocalDate.of(2024, 6, 4), LocalTime.of(8, 0), LocalTime.of(17, 30))
+                .add("10002", "Say \"Boy\" Reyes Jose", LocalDate.of(2024, 6, 3), LocalTime.of(22, 0), LocalTime.of(6, 0))
+                .build();
+        AttendanceStoreTest.assertSameRows(expected, FlatFileAttendanceLoader.load(csv.toString()));
+    }
+
+    @Test
+    void ndjsonEscapesAndKeyOrderMatchBuilder() throws IOException {
+        Path ndjson = Files.writeString(temp.resolve("escapes.jsonl"), """
+                {"timeOut": "17:00", "timeIn": "08:00", "date": "2024-06-03", "firstName": "Ni\\u00f1o", "lastName": "Dela Cruz", "employeeId": "10004"}
+                {"employeeId": 10004.0, "lastName": "Dela Cruz", "firstName": "Ni\\u00f1o", "date": "2024-06-04", "timeIn": "08:00:00", "timeOut": null}
+                {"employeeId": 10005, "lastName": "Tab\\tbed", "firstName": "Lea", "date": "2024-06-04", "timeIn": "09:15:30", "timeOut": "18:00:00", "site": "Pasay"}
+                """);
+
+        AttendanceStore expected = new AttendanceStore.Builder()
+                .add("10004", "Dela Cruz Niño", LocalDate.of(2024, 6, 3), LocalTime.of(8, 0), LocalTime.of(17, 0))
+                .add("10005", "Tab\tbed Lea", LocalDate.of(2024, 6, 4), LocalTime.of(9, 15, 30), LocalTime.of(18, 0))
+                .build();
+        AttendanceStoreTest.assertSameRows(expected, FlatFileAttendanceLoader.load(ndjson.toString()));
+    }
+
+    @Test
+    void chunksKeepFileOrderOnEqualDates() throws IOException {
+        // Enough lines for several 8 MB chunks; every employee punches three times a day
+        Path csv = temp.resolve("large.csv");
+        AttendanceStore.Builder expected = new AttendanceStore.Builder();
+        LocalDate firstDay = LocalDate.of(2024, 1, 1);
+        try (BufferedWriter out = Files.newBufferedWriter(csv)) {
+            for (int line = 0; line < 600_000; line++) {
+                String id = String.valueOf(10001 + line % 40);
+                LocalDate date = firstDay.plusDays(line / 120 % 366);
+                LocalTime in = LocalTime.ofSecondOfDay(line % 43_200);
+                LocalTime outTime = in.plusHours(8);
+                out.write(id + ",Employee," + id + "," + date + "," + in.format(TIME) + "," + outTime.format(TIME) + "\n");
+                expected.add(id, "Employee " + id, date, in, outTime);
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            AttendanceStoreTest.assertSameRows(expected.build(), FlatFileAttendanceLoader.load(csv.toString(), pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void otherFileTypesAreRejected() {
+        assertFalse(FlatFileAttendanceLoader.isFlatFile(WORKBOOK));
+        assertThrows(IllegalArgumentException.class, () -> FlatFileAttendanceLoader.load(WORKBOOK));
+    }
+}
@@ -0,0 +1,133 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the holiday calendar loaded from a properties file, and that changing a day
+ * recomputes the cached payslips with punches on it.
+ */
+class HolidayCheckerTest {
+
+    @TempDir
+    Path temp;
+
+    @AfterEach
+    void restoreBundledCalendar() {
+        HolidayChecker.setFilePath(HolidayChecker.DEFAULT_PATH);
+    }
+
+    private String holidays(String content) throws IOException {
+        return Files.writeString(temp.resolve("holidays-" + System.nanoTime() + ".properties"), content).toString();
+    }
+
+    @Test
+    void bundledCalendarKindsAndYears() {
+        LocalDate christmas = LocalDate.of(2024, 12, 25);
+        LocalDate allSaints = LocalDate.of(2024, 11, 1);
+        LocalDate workingDay = LocalDate.of(2024, 11, 4);
+
+        assertTrue(HolidayChecker.isRegularHoliday(christmas));
+        assertTrue(HolidayChecker.isSpecialNonWorkingDay(allSaints));
+        assertFalse(HolidayChecker.isHoliday(workingDay));
+        assertEquals(2.0, HolidayChecker.getHolidayPayMultiplier(christmas));
+        assertEquals(1.3, HolidayChecker.getHolidayPayMultiplier((int) allSaints.toEpochDay()));
+        assertEquals(1.0, HolidayChecker.getHolidayPayMultiplier(workingDay));
+        assertTrue(HolidayChecker.hasCalendar(2024));
+        assertTrue(HolidayChecker.hasCalendar(2025));
+        assertFalse(HolidayChecker.hasCalendar(2023));
+        assertFalse(HolidayChecker.hasCalendar(-1));
+    }
+
+    @Test
+    void otherFileIsLoadedOnNextUse() throws IOException {
+        long version = HolidayChecker.getVersion();
+        HolidayChecker.setFilePath(holidays("""
+                2030.regular=2030-01-01, 2030-06-12
+                2030.special=2030-06-12,2030-12-31
+                2032.special=2032-02-29
+                """));
+
+        assertTrue(HolidayChecker.getVersion() > version);
+        assertTrue(HolidayChecker.isRegularHoliday(LocalDate.of(2030, 6, 12)));  // Listed under both
+        assertTrue(HolidayChecker.isSpecialNonWorkingDay(LocalDate.of(2030, 12, 31)));
+        assertTrue(HolidayChecker.isSpecialNonWorkingDay(LocalDate.of(2032, 2, 29)));
+        assertFalse(HolidayChecker.isHoliday(LocalDate.of(2024, 12, 25)));
+        assertFalse(HolidayChecker.isHoliday(LocalDate.of(2040, 1, 1)));
+        assertTrue(HolidayChecker.hasCalendar(2030));
+        assertFalse(HolidayChecker.hasCalendar(2031));  // Between defined years
+        assertTrue(HolidayChecker.hasCalendar(2032));
+    }
+
+    @Test
+    void invalidFilesAreReportedOnLookup() throws IOException {
+        List<String> invalid = List.of(
+                holidays("2030.regular=2031-01-01\n"),
+                holidays("2030.regular=2030-02-30\n"),
+                holidays("2030.observed=2030-01-01\n"),
+                holidays("year.regular=2030-01-01\n"),
+                holidays("# No entries\n"),
+                temp.resolve("missing.properties").toString());
+        for (String path : invalid) {
+            HolidayChecker.setFilePath(path);
+            assertThrows(IllegalStateException.class, () -> HolidayChecker.isHoliday(LocalDate.of(2030, 1, 1)), path);
+        }
+        assertThrows(IllegalArgumentException.class, () -> HolidayChecker.setFilePath(" "));
+        assertThrows(IllegalArgumentException.class, () -> HolidayChecker.addRegularHoliday(null));
+    }
+
+    @Test
+    void declaredDaysOutsideLoadedYearsGrowCalendar() {
+        LocalDate proclaimed = LocalDate.of(2027, 3, 3);
+        HolidayChecker.addSpecialNonWorkingDay(proclaimed);
+
+        assertTrue(HolidayChecker.isSpecialNonWorkingDay(proclaimed));
+        assertFalse(HolidayChecker.isHoliday(proclaimed.plusDays(1)));
+        assertTrue(HolidayChecker.isRegularHoliday(LocalDate.of(2024, 12, 25)));
+        assertFalse(HolidayChecker.hasCalendar(2027));  // Only the file defines years
+    }
+
+    @Test
+    void changedDayRecomputesCachedPayslips() {
+        String[] data = new String[21];
+        Arrays.fill(data, "");
+        data[0] = "90001";
+        data[18] = "100";
+        data[19] = "08:00";
+        AttendanceStore.Builder punches = new AttendanceStore.Builder();
+        for (int day = 2; day <= 6; day++) {
+            punches.add("90001", "Employee 90001", LocalDate.of(2024, 9, day), LocalTime.of(8, 0), LocalTime.of(17, 0));
+        }
+        PayrollSnapshot original = PayrollSnapshot.current();
+        PayrollSnapshot snapshot = PayrollSnapshot.publish(current -> current
+                .withEmployees(new EmployeeRegistry(List.of(new Employee(data))))
+                .withAttendance(punches.build()));
+        try {
+            Employee employee = snapshot.getEmployees().getByNumber("90001");
+            PayrollRun run = new PayrollRun(2024, 9, LatePenalty.PayrollCycle.WEEKLY, 1);
+            long ordinary = run.compute(employee, snapshot).getGrossCentavos();
+
+            HolidayChecker.addRegularHoliday(LocalDate.of(2024, 9, 4));
+            long withHoliday = run.compute(employee, snapshot).getGrossCentavos();
+            HolidayChecker.removeHoliday(LocalDate.of(2024, 9, 4));
+
+            assertTrue(withHoliday > ordinary, withHoliday + " <= " + ordinary);
+            assertEquals(ordinary, run.compute(employee, snapshot).getGrossCentavos());
+        } finally {
+            PayrollSnapshot.publish(current -> original);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the metric registry's lookups by name.
+ */
+class MetricsTest {
+
+    @Test
+    void lookupReturnsRegisteredMetric() {
+        assertSame(Metrics.timer("test.timer"), Metrics.timer("test.timer"));
+        assertSame(Metrics.counter("test.counter"), Metrics.counter("test.counter"));
+    }
+
+    @Test
+    void nameCannotChangeType() {
+        Metrics.timer("test.typed");
+        assertThrows(IllegalArgumentException.class, () -> Metrics.counter("test.typed"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests Money's rounding (half away from zero) and its two output formats.
+ */
+class MoneyTest {
+
+    @Test
+    void divideRoundsHalfAwayFromZero() {
+        assertEquals(3, Money.divide(5, 2));
+        assertEquals(-3, Money.divide(-5, 2));
+        assertEquals(2, Money.divide(6, 4));    // 1.5
+        assertEquals(-2, Money.divide(-6, 4));
+        assertEquals(2, Money.divide(7, 4));    // 1.75
+        assertEquals(-2, Money.divide(-7, 4));
+        assertEquals(1, Money.divide(5, 4));    // 1.25
+        assertEquals(-1, Money.divide(-5, 4));
+        assertEquals(1, Money.divide(4, 3));
+        assertEquals(-1, Money.divide(-4, 3));
+        assertEquals(0, Money.divide(0, 7));
+        assertEquals(2500, Money.divide(10000, 4));
+    }
+
+    @Test
+    void divideRejectsNonPositiveDivisor() {
+        assertThrows(IllegalArgumentException.class, () -> Money.divide(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> Money.divide(100, -2));
+    }
+
+    @Test
+    void multiplyRoundsHalfAwayFromZero() {
+        assertEquals(1, Money.multiply(1, 0.5));
+        assertEquals(-1, Money.multiply(-1, 0.5));
+        assertEquals(2, Money.multiply(3, 0.5));
+        assertEquals(-2, Money.multiply(-3, 0.5));
+        assertEquals(1, Money.multiply(5, 0.25));   // 1.25
+        assertEquals(-1, Money.multiply(-5, 0.25));
+        assertEquals(12500, Money.multiply(10000, 1.25));
+    }
+
+    @Test
+    void ofPesosRoundsHalfAwayFromZero() {
+        assertEquals(13, Money.ofPesos(0.125));
+        assertEquals(-13, Money.ofPesos(-0.125));
+        assertEquals(1234560, Money.ofPesos(12345.60));
+        assertEquals(-1234560, Money.ofPesos(-12345.60));
+        assertEquals(0, Money.ofPesos(0.0));
+    }
+
+    @Test
+    void roundingRejectsNonFiniteAmounts() {
+        assertThrows(IllegalArgumentException.class, () -> Money.ofPesos(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> Money.multiply(100, Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void formatGroupsThousands() {
+        assertEquals("0.00", Money.format(0));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("0.50", Money.format(50));
+        assertEquals("999.99", Money.format(99999));
+        assertEquals("1,000.00", Money.format(100000));
+        assertEquals("12,345.60", Money.format(1234560));
+        assertEquals("1,234,567.89", Money.format(123456789));
+        assertEquals("-0.05", Money.format(-5));
+        assertEquals("-1,000.00", Money.format(-100000));
+    }
+
+    @Test
+    void plainStringHasNoGrouping() {
+        assertEquals("0.00", Money.toPlainString(0));
+        assertEquals("0.07", Money.toPlainString(7));
+        assertEquals("12345.60", Money.toPlainString(1234560));
+        assertEquals("-1234.56", Money.toPlainString(-123456));
+        assertEquals("-0.05", Money.toPlainString(-5));
+    }
+
+    @Test
+    void appendPlainAppendsToBuilder() {
+        StringBuilder text = new StringBuilder("net=");
+        Money.appendPlain(text, 2141631).append(',');
+        Money.appendPlain(text, -9);
+        assertEquals("net=21416.31,-0.09", text.toString());
+    }
+}
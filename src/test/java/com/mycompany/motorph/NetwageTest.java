@@ -0,0 +1,90 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the deductions of each pay cycle against amounts computed by hand from the 2024
+ * rate tables. The employee earns 100.00 an hour and works 08:00-16:00 on September 1-25,
+ * 2024 (no holidays), so the month's gross is 25 x 800.00 = 20,000.00. At that gross the
+ * monthly SSS contribution is 900.00, PhilHealth 300.00 (1.5%) and Pag-IBIG 100.00 (capped).
+ */
+class NetwageTest {
+
+    private static final String ID = "90001";
+
+    private static PayrollSnapshot snapshot() {
+        String[] data = new String[21];
+        Arrays.fill(data, "");
+        data[0] = ID;
+        data[1] = "Cruz";
+        data[2] = "Ana";
+        data[18] = "100";
+        data[19] = "08:00";
+        EmployeeRegistry registry = new EmployeeRegistry(List.of(new Employee(data)));
+
+        AttendanceStore.Builder punches = new AttendanceStore.Builder();
+        for (int day = 1; day <= 25; day++) {
+            punches.add(ID, "Cruz, Ana", LocalDate.of(2024, 9, day), LocalTime.of(8, 0), LocalTime.of(16, 0));
+        }
+        return PayrollSnapshot.current().withEmployees(registry).withAttendance(punches.build());
+    }
+
+    private static Netwage netwage(LatePenalty.PayrollCycle cycle, int week) {
+        Grosswage grosswage = new Grosswage(snapshot(), ID, "Ana", "Cruz", 2024, 9, cycle, week, LocalTime.of(8, 0), false);
+        double gross = grosswage.calculate();
+        return new Netwage(ID, "Cruz, Ana", gross, grosswage.getHoursWorked(), week, grosswage, 9, 2024);
+    }
+
+    @Test
+    void weeklyDeductionsAreQuarterOfMonthlyBrackets() {
+        // Week 1 (days 1-7): 7 x 800.00
+        Netwage netwage = netwage(LatePenalty.PayrollCycle.WEEKLY, 1);
+
+        assertEquals(560000, netwage.getGrossCentavos());
+        assertEquals(2000000, netwage.getGrosswage().getResult().getMonthGrossCentavos());
+        assertEquals(22500, netwage.getSSSDeductionCentavos());          // 900.00 / 4
+        assertEquals(7500, netwage.getPhilhealthDeductionCentavos());    // 300.00 / 4
+        assertEquals(2500, netwage.getPagIbigDeductionCentavos());       // 100.00 / 4
+        assertEquals(0, netwage.getLateDeductionCentavos());
+        assertEquals(32500, netwage.getTotalDeductionsCentavos());
+        assertEquals(527500, netwage.getTaxableIncomeCentavos());
+        // Monthly equivalent 21,100.00: (21,100.00 - 20,832.00) x 20% = 53.60, a quarter of it per week
+        assertEquals(1340, netwage.getWithholdingTaxCentavos());
+        assertEquals(526160, netwage.getNetWageCentavos());
+    }
+
+    @Test
+    void halfMonthDeductionsAreHalfOfMonthlyBrackets() {
+        // First half (days 1-15): 15 x 800.00
+        Netwage netwage = netwage(LatePenalty.PayrollCycle.FIRST_HALF, 1);
+
+        assertEquals(1200000, netwage.getGrossCentavos());
+        assertEquals(45000, netwage.getSSSDeductionCentavos());          // 900.00 / 2
+        assertEquals(15000, netwage.getPhilhealthDeductionCentavos());   // 300.00 / 2
+        assertEquals(5000, netwage.getPagIbigDeductionCentavos());       // 100.00 / 2
+        assertEquals(65000, netwage.getTotalDeductionsCentavos());
+        assertEquals(1135000, netwage.getTaxableIncomeCentavos());
+        // Monthly equivalent 22,700.00: (22,700.00 - 20,832.00) x 20% = 373.60, half of it per half-month
+        assertEquals(18680, netwage.getWithholdingTaxCentavos());
+        assertEquals(1116320, netwage.getNetWageCentavos());
+    }
+
+    @Test
+    void monthlyDeductionsUseBracketsDirectly() {
+        Netwage netwage = netwage(LatePenalty.PayrollCycle.MONTHLY, 1);
+
+        assertEquals(2000000, netwage.getGrossCentavos());
+        assertEquals(90000, netwage.getSSSDeductionCentavos());
+        assertEquals(30000, netwage.getPhilhealthDeductionCentavos());
+        assertEquals(10000, netwage.getPagIbigDeductionCentavos());
+        assertEquals(1870000, netwage.getTaxableIncomeCentavos());
+        assertEquals(0, netwage.getWithholdingTaxCentavos());  // Below the 20,832.00 bracket
+        assertEquals(1870000, netwage.getNetWageCentavos());
+    }
+}
@@ -0,0 +1,143 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the days each pay period covers at the half-month and month-end boundaries, in months
+ * of 28, 29, 30 and 31 days, and that punches on those days are totalled in the right periods.
+ */
+class PayrollCycleTest {
+
+    private static final LatePenalty.PayrollCycle WEEKLY = LatePenalty.PayrollCycle.WEEKLY;
+    private static final LatePenalty.PayrollCycle FIRST_HALF = LatePenalty.PayrollCycle.FIRST_HALF;
+    private static final LatePenalty.PayrollCycle SECOND_HALF = LatePenalty.PayrollCycle.SECOND_HALF;
+    private static final LatePenalty.PayrollCycle MONTHLY = LatePenalty.PayrollCycle.MONTHLY;
+
+    private static final List<YearMonth> MONTHS = List.of(
+            YearMonth.of(2023, 2), YearMonth.of(2024, 2), YearMonth.of(2024, 4), YearMonth.of(2024, 7));
+
+    @Test
+    void periodBoundsAtMonthEnd() {
+        for (YearMonth month : MONTHS) {
+            int last = month.lengthOfMonth();
+            assertEquals(1, FIRST_HALF.getFirstDay(0));
+            assertEquals(15, FIRST_HALF.getLastDay(month, 0));
+            assertEquals(16, SECOND_HALF.getFirstDay(0));
+            assertEquals(last, SECOND_HALF.getLastDay(month, 0), month.toString());
+            assertEquals(1, MONTHLY.getFirstDay(0));
+            assertEquals(last, MONTHLY.getLastDay(month, 0), month.toString());
+            assertEquals(15, WEEKLY.getFirstDay(3));
+            assertEquals(21, WEEKLY.getLastDay(month, 3));
+            assertEquals(22, WEEKLY.getFirstDay(4));
+            assertEquals(last, WEEKLY.getLastDay(month, 4), month.toString());  // Days 29-31 belong to week 4
+        }
+    }
+
+    @Test
+    void periodsCoverEveryDayOnce() {
+        for (YearMonth month : MONTHS) {
+            for (int day = 1; day <= month.lengthOfMonth(); day++) {
+                int weeks = 0;
+                for (int week = 1; week <= 4; week++) {
+                    if (day >= WEEKLY.getFirstDay(week) && day <= WEEKLY.getLastDay(month, week)) {
+                        weeks++;
+                        assertEquals(week, AttendanceRecord.getWeekOfMonth(month.atDay(day)), month.atDay(day).toString());
+                    }
+                }
+                boolean firstHalf = day >= FIRST_HALF.getFirstDay(0) && day <= FIRST_HALF.getLastDay(month, 0);
+                boolean secondHalf = day >= SECOND_HALF.getFirstDay(0) && day <= SECOND_HALF.getLastDay(month, 0);
+                assertEquals(1, weeks, month.atDay(day).toString());
+                assertTrue(firstHalf ^ secondHalf, month.atDay(day).toString());
+            }
+        }
+    }
+
+    @Test
+    void weekIsOnlyCheckedForWeeklyCycle() {
+        assertThrows(IllegalArgumentException.class, () -> WEEKLY.validateWeek(0));
+        assertThrows(IllegalArgumentException.class, () -> WEEKLY.validateWeek(5));
+        WEEKLY.validateWeek(4);
+        FIRST_HALF.validateWeek(0);
+        MONTHLY.validateWeek(9);
+        assertThrows(IllegalArgumentException.class, () -> new PayrollRun(2024, 2, WEEKLY, 5));
+        assertThrows(IllegalArgumentException.class, () -> new PayrollRun(2024, 13, MONTHLY, 0));
+    }
+
+    @Test
+    void namesAndCodes() {
+        assertEquals(SECOND_HALF, LatePenalty.PayrollCycle.parse(" second-half "));
+        assertEquals(FIRST_HALF, LatePenalty.PayrollCycle.parse("FIRST_HALF"));
+        assertThrows(IllegalArgumentException.class, () -> LatePenalty.PayrollCycle.parse("biweekly"));
+        assertThrows(IllegalArgumentException.class, () -> LatePenalty.PayrollCycle.parse(null));
+        assertEquals("Week 4", WEEKLY.describe(4));
+        assertEquals("Second Half", SECOND_HALF.describe(0));
+        assertEquals("w4 h1 h2 m", String.join(" ", WEEKLY.getCode(4), FIRST_HALF.getCode(0),
+                SECOND_HALF.getCode(0), MONTHLY.getCode(0)));
+        assertEquals(4, WEEKLY.getPeriodsPerMonth());
+        assertEquals(2, SECOND_HALF.getPeriodsPerMonth());
+        assertEquals(1, MONTHLY.getPeriodsPerMonth());
+    }
+
+    @Test
+    void boundaryPunchesLandInTheirPeriods() {
+        // One identical punch on day 15, day 16 and every day from the 28th to the month's end
+        AttendanceStore.Builder builder = new AttendanceStore.Builder();
+        for (YearMonth month : MONTHS) {
+            for (int day : punchDays(month)) {
+                builder.add("90001", "Employee 90001", month.atDay(day), LocalTime.of(8, 0), LocalTime.of(16, 0));
+            }
+        }
+        String[] data = new String[21];
+        Arrays.fill(data, "");
+        data[0] = "90001";
+        data[18] = "100";
+        data[19] = "08:00";
+        AttendanceIndex index = new AttendanceIndex(builder.build(), new EmployeeRegistry(List.of(new Employee(data))));
+
+        for (YearMonth month : MONTHS) {
+            int[] days = punchDays(month);
+            int punches = days.length;
+            PayPeriodTotals whole = totals(index, month, MONTHLY, 0);
+            int perPunch = whole.getWorkedMinutes() / punches;
+            String label = month.toString();
+
+            assertTrue(perPunch > 0, label);
+            assertEquals(punches * perPunch, whole.getWorkedMinutes(), label);
+            assertEquals(perPunch, totals(index, month, FIRST_HALF, 0).getWorkedMinutes(), label);
+            assertEquals((punches - 1) * perPunch, totals(index, month, SECOND_HALF, 0).getWorkedMinutes(), label);
+            assertEquals(0, totals(index, month, WEEKLY, 1).getWorkedMinutes() + totals(index, month, WEEKLY, 2).getWorkedMinutes(), label);
+            assertEquals(2 * perPunch, totals(index, month, WEEKLY, 3).getWorkedMinutes(), label);
+            assertEquals((punches - 2) * perPunch, totals(index, month, WEEKLY, 4).getWorkedMinutes(), label);
+            assertEquals(whole.getMonthGrossCentavos(), totals(index, month, WEEKLY, 4).getMonthGrossCentavos(), label);
+            assertArrayEquals(Arrays.stream(days).map(day -> (int) month.atDay(day).toEpochDay()).toArray(),
+                    totals(index, month, FIRST_HALF, 0).getMonthDays(), label);
+
+            assertEquals(punches - 2, index.getRecordsForWeek("90001", month.getYear(), month.getMonthValue(), 4).size(), label);
+            assertEquals(0, index.getRecordsForWeek("90001", month.getYear(), month.getMonthValue(), 5).size(), label);
+        }
+    }
+
+    private static int[] punchDays(YearMonth month) {
+        int[] days = new int[2 + month.lengthOfMonth() - 27];
+        days[0] = 15;
+        days[1] = 16;
+        for (int day = 28; day <= month.lengthOfMonth(); day++) {
+            days[day - 26] = day;
+        }
+        return days;
+    }
+
+    private static PayPeriodTotals totals(AttendanceIndex index, YearMonth month, LatePenalty.PayrollCycle cycle, int week) {
+        return PayPeriodTotals.of(index, 0, month.getYear(), month.getMonthValue(), cycle, week, 10000, LocalTime.of(8, 0));
+    }
+}
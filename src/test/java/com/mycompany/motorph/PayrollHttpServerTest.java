@@ -0,0 +1,154 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the routes and status codes of the HTTP service against a published test snapshot:
+ * employee 90001 punches on September 2-6, 2024; employee 90002 has a zero hourly rate, so its
+ * payroll cannot be calculated.
+ */
+class PayrollHttpServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private PayrollHttpServer server;
+    private PayrollSnapshot original;
+    private PayrollSnapshot snapshot;
+
+    private static Employee employee(String id, String rate) {
+        String[] data = new String[21];
+        Arrays.fill(data, "");
+        data[0] = id;
+        data[1] = "Cruz";
+        data[2] = "Ana \"Anne\"";
+        data[18] = rate;
+        data[19] = "08:00";
+        return new Employee(data);
+    }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        AttendanceStore.Builder punches = new AttendanceStore.Builder();
+        for (int day = 2; day <= 6; day++) {
+            punches.add("90001", "Cruz Ana", LocalDate.of(2024, 9, day), LocalTime.of(8, 0), LocalTime.of(17, 0));
+        }
+        EmployeeRegistry registry = new EmployeeRegistry(List.of(employee("90001", "100"), employee("90002", "0")));
+        original = PayrollSnapshot.current();
+        snapshot = PayrollSnapshot.publish(current -> current.withEmployees(registry).withAttendance(punches.build()));
+
+        server = new PayrollHttpServer(0);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        PayrollSnapshot.publish(current -> original);
+    }
+
+    private HttpResponse<String> send(String method, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return send("GET", path);
+    }
+
+    private static String amount(long centavos) {
+        return Money.appendPlain(new StringBuilder(), centavos).toString();
+    }
+
+    @Test
+    void healthAndEmployeeRoutes() throws Exception {
+        HttpResponse<String> health = get("/health");
+        assertEquals(200, health.statusCode());
+        assertEquals("{\"status\":\"UP\"}", health.body());
+        assertEquals("application/json; charset=utf-8", health.headers().firstValue("Content-Type").orElse(null));
+
+        HttpResponse<String> list = get("/employees");
+        assertEquals(200, list.statusCode());
+        assertEquals("[{\"employeeId\":\"90001\",\"lastName\":\"Cruz\",\"firstName\":\"Ana \\\"Anne\\\"\"},"
+                + "{\"employeeId\":\"90002\",\"lastName\":\"Cruz\",\"firstName\":\"Ana \\\"Anne\\\"\"}]", list.body());
+
+        HttpResponse<String> details = get("/employees/90001");
+        assertEquals(200, details.statusCode());
+        assertTrue(details.body().startsWith("{\"employeeId\":\"90001\""), details.body());
+        assertTrue(details.body().contains("\"shiftStartTime\":\"08:00\",\"nightShift\":false}"), details.body());
+    }
+
+    @Test
+    void payrollRoutesReturnCalculatedAmounts() throws Exception {
+        Employee employee = snapshot.getEmployees().getByNumber("90001");
+        PayrollRegister.Entry week = new PayrollRun(2024, 9, LatePenalty.PayrollCycle.WEEKLY, 1).calculate(employee, snapshot);
+        PayrollRegister.Entry half = new PayrollRun(2024, 9, LatePenalty.PayrollCycle.FIRST_HALF, 0).calculate(employee, snapshot);
+
+        HttpResponse<String> gross = get("/employees/90001/gross?year=2024&month=9&week=1");
+        assertEquals(200, gross.statusCode());
+        assertTrue(gross.body().contains("\"cycle\":\"weekly\",\"week\":1,"), gross.body());
+        assertTrue(gross.body().endsWith("\"gross\":" + amount(week.getGrossCentavos()) + "}"), gross.body());
+
+        HttpResponse<String> payroll = get("/employees/90001/payroll?year=2024&month=9&cycle=first_half");
+        assertEquals(200, payroll.statusCode());
+        assertTrue(payroll.body().contains("\"cycle\":\"first_half\",\"regularHours\""), payroll.body());
+        assertTrue(payroll.body().contains("\"gross\":" + amount(half.getGrossCentavos()) + ",\"deductions\":{"), payroll.body());
+        assertTrue(payroll.body().endsWith("\"net\":" + amount(half.getNetCentavos()) + "}"), payroll.body());
+    }
+
+    @Test
+    void invalidQueriesAreBadRequests() throws Exception {
+        assertEquals(400, get("/employees/90001/gross?year=2024&month=9").statusCode());
+        assertEquals(400, get("/employees/90001/gross?year=2024&month=13&week=1").statusCode());
+        assertEquals(400, get("/employees/90001/gross?year=2024&month=9&week=5").statusCode());
+        assertEquals(400, get("/employees/90001/payroll?year=20x4&month=9&week=1").statusCode());
+        HttpResponse<String> cycle = get("/employees/90001/payroll?year=2024&month=9&cycle=fortnightly");
+        assertEquals(400, cycle.statusCode());
+        assertEquals("{\"error\":\"Unknown pay cycle: fortnightly\"}", cycle.body());
+    }
+
+    @Test
+    void unknownResourcesAndMethods() throws Exception {
+        HttpResponse<String> missing = get("/employees/99999");
+        assertEquals(404, missing.statusCode());
+        assertEquals("{\"error\":\"Employee ID 99999 not found\"}", missing.body());
+        assertEquals(404, get("/employees/90001/leave").statusCode());
+
+        HttpResponse<String> post = send("POST", "/employees/90001");
+        assertEquals(405, post.statusCode());
+        assertEquals("GET", post.headers().firstValue("Allow").orElse(null));
+    }
+
+    @Test
+    void failedCalculationIsUnprocessable() throws Exception {
+        HttpResponse<String> response = get("/employees/90002/payroll?year=2024&month=9&week=1");
+
+        assertEquals(422, response.statusCode());
+        assertTrue(response.body().startsWith("{\"error\":"), response.body());
+    }
+
+    @Test
+    void unloadableDataIsServerError() throws Exception {
+        PayrollSnapshot.publish(current -> current.withEmployees(Dataset.<EmployeeRegistry>lazy("employee data", () -> {
+            throw new IllegalStateException("Employee file is locked");
+        })));
+
+        HttpResponse<String> response = get("/employees");
+        assertEquals(500, response.statusCode());
+        assertEquals("{\"error\":\"Employee file is locked\"}", response.body());
+    }
+}
@@ -0,0 +1,153 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that snapshots are never changed once derived, that their index follows their own
+ * registry and store, and that concurrent publishes never lose an update.
+ */
+class PayrollSnapshotTest {
+
+    private PayrollSnapshot original;
+
+    private static EmployeeRegistry registry(String... ids) {
+        List<Employee> employees = new ArrayList<>();
+        for (String id : ids) {
+            String[] data = new String[21];
+            Arrays.fill(data, "");
+            data[0] = id;
+            data[18] = "100";
+            data[19] = "08:00";
+            employees.add(new Employee(data));
+        }
+        return new EmployeeRegistry(employees);
+    }
+
+    private static AttendanceStore september(String id, int fromDay, int toDay) {
+        AttendanceStore.Builder builder = new AttendanceStore.Builder();
+        for (int day = fromDay; day <= toDay; day++) {
+            builder.add(id, "Employee " + id, LocalDate.of(2024, 9, day), LocalTime.of(8, 0), LocalTime.of(17, 0));
+        }
+        return builder.build();
+    }
+
+    @BeforeEach
+    void rememberSnapshot() {
+        original = PayrollSnapshot.current();
+    }
+
+    @AfterEach
+    void restoreSnapshot() {
+        PayrollSnapshot.publish(current -> original);
+    }
+
+    @Test
+    void derivingLeavesSnapshotUnchanged() {
+        EmployeeRegistry registry = registry("90001");
+        AttendanceStore first = september("90001", 2, 6);
+        AttendanceStore second = september("90001", 2, 13);
+        PayrollSnapshot base = original.withEmployees(registry).withAttendance(first);
+        PayrollSnapshot derived = base.withAttendance(second);
+
+        assertSame(first, base.getAttendanceStore());
+        assertSame(second, derived.getAttendanceStore());
+        assertSame(registry, derived.getEmployees());
+        assertEquals(5, base.getAttendance().getRecords("90001").size());
+        assertEquals(12, derived.getAttendance().getRecords("90001").size());
+        assertTrue(derived.getVersion() > base.getVersion());
+        assertSame(original, PayrollSnapshot.current());  // Deriving publishes nothing
+    }
+
+    @Test
+    void indexIsRebuiltForNewRegistry() {
+        AttendanceStore store = september("90001", 2, 6).append(september("90002", 9, 10));
+        PayrollSnapshot base = original.withEmployees(registry("90001")).withAttendance(store);
+        AttendanceIndex index = base.getAttendance();
+        EmployeeRegistry reordered = registry("90002", "90001");
+        PayrollSnapshot derived = base.withEmployees(reordered);
+
+        assertSame(index, base.getAttendance());
+        assertSame(reordered, derived.getAttendance().getRegistry());
+        assertEquals(5, derived.getAttendance().getRecordsForWeek(1, 2024, 9, 1).size());
+        assertEquals(2, derived.getAttendance().getRecordsForWeek(0, 2024, 9, 2).size());
+    }
+
+    @Test
+    void appendedSnapshotExtendsBuiltIndex() {
+        AttendanceStore store = september("90001", 2, 6);
+        AttendanceStore added = september("90001", 9, 10);
+        AttendanceStore merged = store.append(added);
+        PayrollSnapshot base = original.withEmployees(registry("90001")).withAttendance(store);
+        base.getAttendance();
+
+        PayrollSnapshot appended = base.withAppendedAttendance(merged, added);
+        assertSame(merged, appended.getAttendance().getStore());
+        assertEquals(7, appended.getAttendance().getRecords("90001").size());
+        assertEquals(5, base.getAttendance().getRecords("90001").size());
+    }
+
+    @Test
+    void pinnedSnapshotKeepsItsDataAfterPublish() {
+        PayrollSnapshot pinned = PayrollSnapshot.publish(current ->
+                current.withEmployees(registry("90001")).withAttendance(september("90001", 2, 6)));
+        Employee employee = pinned.getEmployees().getByNumber("90001");
+        PayrollRun run = new PayrollRun(2024, 9, LatePenalty.PayrollCycle.WEEKLY, 1);
+        long before = run.calculate(employee, pinned).getGrossCentavos();
+
+        PayrollSnapshot published = PayrollSnapshot.publish(current -> current.withAttendance(september("90001", 1, 7)));
+
+        assertSame(published, PayrollSnapshot.current());
+        assertNotSame(pinned, published);
+        assertEquals(before, run.calculate(employee, pinned).getGrossCentavos());
+        assertTrue(run.calculate(employee, published).getGrossCentavos() > before);
+    }
+
+    @Test
+    void invalidUpdatesAreRejected() {
+        PayrollSnapshot published = PayrollSnapshot.publish(current -> current.withEmployees(registry("90001")));
+
+        assertThrows(IllegalStateException.class, () -> PayrollSnapshot.publish(current -> null));
+        assertSame(published, PayrollSnapshot.current());
+        assertThrows(IllegalArgumentException.class, () -> published.withEmployees((EmployeeRegistry) null));
+        assertThrows(IllegalArgumentException.class, () -> published.withAttendance((AttendanceStore) null));
+        assertThrows(IllegalArgumentException.class, () -> published.withRateTables(null));
+    }
+
+    @Test
+    void concurrentPublishesKeepEveryUpdate() throws Exception {
+        PayrollSnapshot.publish(current -> current.withEmployees(registry("90001")).withAttendance(AttendanceStore.empty()));
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> updates = new ArrayList<>();
+            for (int day = 1; day <= 30; day++) {
+                AttendanceStore punch = september("90001", day, day);
+                updates.add(writers.submit(() -> PayrollSnapshot.publish(current ->
+                        current.withAppendedAttendance(current.getAttendanceStore().append(punch), punch))));
+            }
+            for (Future<?> update : updates) {
+                update.get();
+            }
+        } finally {
+            writers.shutdown();
+        }
+
+        assertEquals(30, PayrollSnapshot.current().getAttendanceStore().size());
+        assertEquals(30, PayrollSnapshot.current().getAttendance().getRecordsForMonth("90001", 2024, 9).size());
+    }
+}
@@ -0,0 +1,47 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks a payslip from the bundled 2024 data against the amounts the double-based payroll
+ * printed before amounts moved to centavos, to the centavo. The statutory deductions and tax
+ * are since looked up with the month's gross, so they are pinned to the month-based amounts.
+ */
+class PayslipBaselineTest {
+
+    @Test
+    void dayShiftWeekGrossMatchesDoubleBasedPayroll() {
+        // Employee 10001, first week of September 2024: day shift, no holiday, no night hours
+        Employee employee = EmployeeModelFromFile.getEmployeeById("10001");
+        Grosswage grosswage = new Grosswage(employee.getEmployeeNumber(), employee.getFirstName(), employee.getLastName(),
+                2024, 9, 1, employee.getShiftStartTime(), employee.isNightShift());
+        double gross = grosswage.calculate();
+        Netwage netwage = new Netwage(employee.getEmployeeNumber(), employee.getLastName() + ", " + employee.getFirstName(),
+                gross, grosswage.getHoursWorked(), 1, grosswage, 9, 2024);
+        GrosswageResult result = grosswage.getResult();
+
+        assertEquals(40.00, result.getRegularHours(), 0.005);
+        assertEquals(6.02, result.getOvertimeHours(), 0.005);
+        assertEquals(2140000, result.getRegularPayCentavos());
+        assertEquals(402365, result.getOvertimePayCentavos());
+        assertEquals(0, result.getHolidayPayCentavos());
+        assertEquals(0, result.getNightDifferentialPayCentavos());
+        assertEquals(2542365, result.getGrossCentavos());
+
+        assertEquals(345967, netwage.getLateDeductionCentavos());
+
+        // September's gross is 101,242.08: SSS 1,125.00, PhilHealth at its 1,800.00 cap and
+        // Pag-IBIG 100.00 a month, a quarter of each per week
+        assertEquals(10124208, result.getMonthGrossCentavos());
+        assertEquals(28125, netwage.getSSSDeductionCentavos());
+        assertEquals(45000, netwage.getPhilhealthDeductionCentavos());
+        assertEquals(2500, netwage.getPagIbigDeductionCentavos());
+        assertEquals(421592, netwage.getTotalDeductionsCentavos());
+        assertEquals(2120773, netwage.getTaxableIncomeCentavos());
+        // Monthly equivalent 84,830.92: 10,833.00 + 30% over 66,667.00 = 16,282.18, a quarter per week
+        assertEquals(407055, netwage.getWithholdingTaxCentavos());
+        assertEquals(1713718, netwage.getNetWageCentavos());
+    }
+}
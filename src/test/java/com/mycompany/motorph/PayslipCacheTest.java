@@ -0,0 +1,181 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests which changes drop a cached payslip. Employee 90001 punches on September 1-25, 2024 and
+ * October 1; employee 90002 on September 1-5. The test snapshot is published for the duration of
+ * each test, since only payslips of the published snapshot are cached.
+ */
+class PayslipCacheTest {
+
+    private final PayslipCache cache = new PayslipCache();
+    private final AtomicInteger calculations = new AtomicInteger();
+    private PayrollSnapshot original;
+    private PayrollSnapshot snapshot;
+
+    private static Employee employee(String id, String rate) {
+        String[] data = new String[21];
+        Arrays.fill(data, "");
+        data[0] = id;
+        data[1] = "Cruz";
+        data[2] = "Ana";
+        data[18] = rate;
+        data[19] = "08:00";
+        return new Employee(data);
+    }
+
+    @BeforeEach
+    void publishTestSnapshot() {
+        AttendanceStore.Builder punches = new AttendanceStore.Builder();
+        for (int day = 1; day <= 25; day++) {
+            punches.add("90001", "Cruz Ana", LocalDate.of(2024, 9, day), LocalTime.of(8, 0), LocalTime.of(16, 0));
+        }
+        punches.add("90001", "Cruz Ana", LocalDate.of(2024, 10, 1), LocalTime.of(8, 0), LocalTime.of(16, 0));
+        for (int day = 1; day <= 5; day++) {
+            punches.add("90002", "Cruz Ana", LocalDate.of(2024, 9, day), LocalTime.of(8, 0), LocalTime.of(16, 0));
+        }
+        EmployeeRegistry registry = new EmployeeRegistry(List.of(employee("90001", "100"), employee("90002", "100")));
+
+        original = PayrollSnapshot.current();
+        snapshot = PayrollSnapshot.publish(current -> current.withEmployees(registry).withAttendance(punches.build()));
+    }
+
+    @AfterEach
+    void restoreSnapshot() {
+        PayrollSnapshot.publish(current -> original);
+    }
+
+    private Employee employee(PayrollSnapshot from, String id) {
+        return from.getEmployees().getEmployees().stream()
+                .filter(employee -> employee.getEmployeeNumber().equals(id)).findFirst().orElseThrow();
+    }
+
+    private PayrollRegister.Entry get(PayrollSnapshot from, String id, int month, LatePenalty.PayrollCycle cycle, int week) {
+        Employee employee = employee(from, id);
+        PayrollRun run = new PayrollRun(2024, month, cycle, week);
+        return cache.get(from, employee, 2024, month, cycle, week, () -> {
+            calculations.incrementAndGet();
+            return run.calculate(employee, from);
+        });
+    }
+
+    private PayrollRegister.Entry weekOne(String id, int month) {
+        return get(snapshot, id, month, LatePenalty.PayrollCycle.WEEKLY, 1);
+    }
+
+    @Test
+    void secondRequestIsServedFromCache() {
+        PayrollRegister.Entry first = weekOne("90001", 9);
+        PayrollRegister.Entry second = weekOne("90001", 9);
+
+        assertTrue(first.isSuccessful());
+        assertSame(first, second);
+        assertEquals(1, calculations.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void punchDropsEveryPeriodOfItsMonthOnly() {
+        weekOne("90001", 9);
+        get(snapshot, "90001", 9, LatePenalty.PayrollCycle.FIRST_HALF, 1);
+        get(snapshot, "90001", 9, LatePenalty.PayrollCycle.MONTHLY, 1);
+        weekOne("90001", 10);
+        weekOne("90002", 9);
+        assertEquals(5, calculations.get());
+
+        // A punch in the fourth week changes the month's gross, so the first week's deductions too
+        cache.invalidateAttendance("90001", LocalDate.of(2024, 9, 24));
+        assertEquals(2, cache.size());
+
+        weekOne("90001", 10);
+        weekOne("90002", 9);
+        assertEquals(5, calculations.get());
+        weekOne("90001", 9);
+        get(snapshot, "90001", 9, LatePenalty.PayrollCycle.FIRST_HALF, 1);
+        get(snapshot, "90001", 9, LatePenalty.PayrollCycle.MONTHLY, 1);
+        assertEquals(8, calculations.get());
+    }
+
+    @Test
+    void holidayDropsPayslipsWithPunchesThatMonthOnThatDay() {
+        weekOne("90001", 9);
+        weekOne("90002", 9);
+        weekOne("90001", 10);
+
+        cache.invalidateHoliday(LocalDate.of(2024, 9, 28));  // Nobody punched
+        assertEquals(3, cache.size());
+
+        cache.invalidateHoliday(LocalDate.of(2024, 9, 20));  // Only 90001 punched
+        weekOne("90001", 9);
+        weekOne("90002", 9);
+        weekOne("90001", 10);
+        assertEquals(4, calculations.get());
+    }
+
+    @Test
+    void changedEmployeeRecordIsRecomputed() {
+        weekOne("90001", 9);
+        weekOne("90002", 9);
+
+        Employee raised = employee("90001", "120");
+        PayrollSnapshot next = PayrollSnapshot.publish(current -> current.withEmployees(
+                new EmployeeRegistry(List.of(raised, employee(current, "90002")))));
+
+        PayrollRegister.Entry entry = get(next, "90001", 9, LatePenalty.PayrollCycle.WEEKLY, 1);
+        get(next, "90002", 9, LatePenalty.PayrollCycle.WEEKLY, 1);
+        assertEquals(3, calculations.get());
+        assertEquals(672000, entry.getGrossCentavos());  // 7 x 8 h x 120.00
+    }
+
+    @Test
+    void olderSnapshotIsNeitherServedNorCached() {
+        PayrollSnapshot older = snapshot;
+        PayrollSnapshot newer = PayrollSnapshot.publish(current -> current.withAttendance(current.getAttendanceStore()));
+        get(newer, "90001", 9, LatePenalty.PayrollCycle.WEEKLY, 1);
+
+        get(older, "90001", 9, LatePenalty.PayrollCycle.WEEKLY, 1);
+        get(older, "90001", 9, LatePenalty.PayrollCycle.WEEKLY, 1);
+        assertEquals(3, calculations.get());
+        get(newer, "90001", 9, LatePenalty.PayrollCycle.WEEKLY, 1);
+        assertEquals(3, calculations.get());
+    }
+
+    @Test
+    void failedCalculationIsNotCached() {
+        Employee employee = employee(snapshot, "90001");
+        Supplier<PayrollRegister.Entry> failing = () -> {
+            calculations.incrementAndGet();
+            return PayrollRegister.Entry.failure(employee, "No rate");
+        };
+        cache.get(snapshot, employee, 2024, 9, 1, failing);
+        cache.get(snapshot, employee, 2024, 9, 1, failing);
+
+        assertEquals(2, calculations.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void employeeAndFullInvalidation() {
+        weekOne("90001", 9);
+        weekOne("90001", 10);
+        weekOne("90002", 9);
+
+        cache.invalidateEmployee("90001");
+        assertEquals(1, cache.size());
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,123 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests bracket lookups at their bounds in the bundled 2024 tables, and which effective year
+ * a payroll year resolves to.
+ */
+class RateTableTest {
+
+    private static RateTable table;
+
+    @BeforeAll
+    static void loadTables() {
+        table = RateTables.loadTables("src/main/resources/RateTables.properties").get(2024);
+    }
+
+    @Test
+    void upperBoundsAreInclusive() {
+        BracketTable brackets = BracketTable.ofUpperBounds(new double[] {1000, 1500});
+
+        assertEquals(3, brackets.size());
+        assertEquals(0, brackets.bracketOf(0));
+        assertEquals(0, brackets.bracketOf(1000));
+        assertEquals(1, brackets.bracketOf(1000.01));
+        assertEquals(1, brackets.bracketOf(1500));
+        assertEquals(2, brackets.bracketOf(1500.01));
+    }
+
+    @Test
+    void lowerBoundsAreInclusive() {
+        BracketTable brackets = BracketTable.ofLowerBounds(new double[] {0, 3250, 3750});
+
+        assertEquals(3, brackets.size());
+        assertEquals(0, brackets.bracketOf(-5));  // Below the first bound
+        assertEquals(0, brackets.bracketOf(3249.99));
+        assertEquals(1, brackets.bracketOf(3250));
+        assertEquals(2, brackets.bracketOf(1_000_000));
+    }
+
+    @Test
+    void invalidBracketBoundsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> BracketTable.ofUpperBounds(new double[] {1500, 1000}));
+        assertThrows(IllegalArgumentException.class, () -> BracketTable.ofLowerBounds(new double[0]));
+    }
+
+    @Test
+    void compensationRangeFormats() {
+        assertArrayEquals(new double[] {0, 3250}, RateTable.parseCompensationRange("Below 3,250"));
+        assertArrayEquals(new double[] {3250, 3749.99}, RateTable.parseCompensationRange(" 3250.0 - 3749.99 "));
+        assertArrayEquals(new double[] {24750, Double.MAX_VALUE}, RateTable.parseCompensationRange("Over 24,750"));
+        assertArrayEquals(new double[] {3250, 3250}, RateTable.parseCompensationRange("3250.0"));
+        assertThrows(IllegalArgumentException.class, () -> RateTable.parseCompensationRange("n/a"));
+    }
+
+    @Test
+    void sssContributionPerCompensationRange() {
+        assertEquals(13500, table.getSssContribution(0));
+        assertEquals(13500, table.getSssContribution(324999));
+        assertEquals(15750, table.getSssContribution(325000));
+        assertEquals(15750, table.getSssContribution(374999));
+        assertEquals(18000, table.getSssContribution(375000));
+        assertEquals(90000, table.getSssContribution(2000000));
+        assertEquals(110250, table.getSssContribution(2474999));
+        assertEquals(112500, table.getSssContribution(2475000));
+        assertEquals(112500, table.getSssContribution(100000000));
+    }
+
+    @Test
+    void philhealthIsEmployeeShareUpToCeiling() {
+        assertEquals(30000, table.getPhilhealthContribution(2000000));   // 1.5% of 20,000.00
+        assertEquals(90000, table.getPhilhealthContribution(6000000));   // At the ceiling
+        assertEquals(180000, table.getPhilhealthContribution(6000001));  // Fixed above it
+    }
+
+    @Test
+    void pagibigRatePerBracketWithCap() {
+        assertEquals(4000, table.getPagibigContribution(100000));   // 4% up to 1,000.00
+        assertEquals(3600, table.getPagibigContribution(120000));   // 3% up to 1,500.00
+        assertEquals(4500, table.getPagibigContribution(150000));
+        assertEquals(8000, table.getPagibigContribution(200000));   // 4% above
+        assertEquals(10000, table.getPagibigContribution(500000));  // Capped at 100.00
+    }
+
+    @Test
+    void withholdingTaxAtBracketBounds() {
+        assertEquals(0, table.getWithholdingTax(2083200));
+        assertEquals(20, table.getWithholdingTax(2083300));         // 20% of 1.00
+        assertEquals(250020, table.getWithholdingTax(3333300));     // Top of the 20% bracket
+        assertEquals(250025, table.getWithholdingTax(3333400));     // 2,500.00 + 25% of 1.00
+        assertEquals(1083350, table.getWithholdingTax(6666700));    // Top of the 25% bracket
+        assertEquals(1628218, table.getWithholdingTax(8483092));    // 10,833.00 + 30% of 18,163.92
+    }
+
+    @Test
+    void payrollYearUsesLatestEffectiveYear(@TempDir Path temp) throws IOException {
+        String tables = Files.readString(Path.of("src/main/resources/RateTables.properties"));
+        Path file = Files.writeString(temp.resolve("RateTables.properties"), tables
+                + tables.replace("2024.", "2026.").replace("2026.pagibig.maxContribution=100", "2026.pagibig.maxContribution=200"));
+        RateTables.Source source = new RateTables.Source(file.toString());
+
+        assertEquals(2024, source.forYear(2024).getEffectiveYear());
+        assertEquals(2024, source.forYear(2025).getEffectiveYear());
+        assertEquals(2026, source.forYear(2026).getEffectiveYear());
+        assertEquals(2026, source.forYear(2030).getEffectiveYear());
+        assertEquals(20000, source.forYear(2027).getPagibigContribution(500000));
+        assertThrows(IllegalStateException.class, () -> source.forYear(2023));
+    }
+
+    @Test
+    void missingTableFileIsAnIllegalStateException(@TempDir Path temp) {
+        assertThrows(IllegalStateException.class, () -> RateTables.loadTables(temp.resolve("none.properties").toString()));
+    }
+}
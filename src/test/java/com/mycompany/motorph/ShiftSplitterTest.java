@@ -0,0 +1,118 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests ShiftSplitter against the bundled 2024 holiday calendar, at 100.00 per hour. Overtime
+ * is paid at 125% for every employee; the 10% night differential is the only night premium.
+ */
+class ShiftSplitterTest {
+
+    private static final long RATE = 10000;  // Centavos
+
+    private static ShiftSplitter split(LocalDate date, LocalTime in, LocalTime out) {
+        ShiftSplitter splitter = new ShiftSplitter(RATE);
+        splitter.split((int) date.toEpochDay(), in.toSecondOfDay(), out.toSecondOfDay());
+        return splitter;
+    }
+
+    @Test
+    void dayShiftWithOvertime() {
+        ShiftSplitter s = split(LocalDate.of(2024, 6, 3), LocalTime.of(8, 0), LocalTime.of(17, 30));
+
+        assertEquals(570, s.getWorkedMinutes());
+        assertEquals(480, s.getRegularMinutes());
+        assertEquals(90, s.getOvertimeMinutes());
+        assertEquals(0, s.getNightMinutes());
+        assertEquals(0, s.getHolidayMinutes());
+        assertEquals(80000, s.getRegularPayCentavos());
+        assertEquals(18750, s.getOvertimePayCentavos());  // 1.5 h at 125%
+        assertEquals(0, s.getHolidayPayCentavos());
+        assertEquals(0, s.getNightDifferentialPayCentavos());
+    }
+
+    @Test
+    void shiftCrossingMidnightIntoRegularHoliday() {
+        // Sunday 20:00 to Rizal Day 04:00: four hours at 100%, four at 200%
+        ShiftSplitter s = split(LocalDate.of(2024, 12, 29), LocalTime.of(20, 0), LocalTime.of(4, 0));
+
+        assertEquals(480, s.getWorkedMinutes());
+        assertEquals(480, s.getRegularMinutes());
+        assertEquals(0, s.getOvertimeMinutes());
+        assertEquals(360, s.getNightMinutes());
+        assertEquals(240, s.getHolidayMinutes());
+        assertEquals(120000, s.getRegularPayCentavos());
+        assertEquals(0, s.getOvertimePayCentavos());
+        assertEquals(40000, s.getHolidayPayCentavos());
+        assertEquals(6000, s.getNightDifferentialPayCentavos());
+    }
+
+    @Test
+    void overtimeInsideNightWindow() {
+        // Regular hours end at 22:00, so all three overtime hours are night hours
+        ShiftSplitter s = split(LocalDate.of(2024, 6, 3), LocalTime.of(14, 0), LocalTime.of(1, 0));
+
+        assertEquals(660, s.getWorkedMinutes());
+        assertEquals(480, s.getRegularMinutes());
+        assertEquals(180, s.getOvertimeMinutes());
+        assertEquals(180, s.getNightMinutes());
+        assertEquals(0, s.getHolidayMinutes());
+        assertEquals(80000, s.getRegularPayCentavos());
+        assertEquals(37500, s.getOvertimePayCentavos());
+        assertEquals(3750, s.getNightDifferentialPayCentavos());  // 10% of 3 h at 125%
+    }
+
+    @Test
+    void nightDifferentialIsTenPercentOfEachMinutesRate() {
+        // 18:00-04:00: 22:00-02:00 regular and 02:00-04:00 overtime are night hours
+        ShiftSplitter s = split(LocalDate.of(2024, 6, 3), LocalTime.of(18, 0), LocalTime.of(4, 0));
+
+        assertEquals(480, s.getRegularMinutes());
+        assertEquals(120, s.getOvertimeMinutes());
+        assertEquals(360, s.getNightMinutes());
+        assertEquals(80000, s.getRegularPayCentavos());
+        assertEquals(25000, s.getOvertimePayCentavos());          // 2 h at 125%
+        assertEquals(6500, s.getNightDifferentialPayCentavos());  // 10% of (4 h at 100% + 2 h at 125%)
+    }
+
+    @Test
+    void holidayOvertimeEarnsPremiumOnTopOfOvertimeRate() {
+        // Independence Day 08:00-19:00: 8 h regular and 3 h overtime, all at 200%
+        ShiftSplitter s = split(LocalDate.of(2024, 6, 12), LocalTime.of(8, 0), LocalTime.of(19, 0));
+
+        assertEquals(660, s.getHolidayMinutes());
+        assertEquals(160000, s.getRegularPayCentavos());   // 8 h at 200%
+        assertEquals(37500, s.getOvertimePayCentavos());   // 3 h at 125%
+        assertEquals(110000, s.getHolidayPayCentavos());   // 100% premium on all 11 h
+        assertEquals(0, s.getNightDifferentialPayCentavos());
+    }
+
+    @Test
+    void shiftEndingAtMidnightBeforeHoliday() {
+        // Ends as Christmas Day starts, so no minute is paid at the holiday rate
+        ShiftSplitter s = split(LocalDate.of(2024, 12, 24), LocalTime.of(16, 0), LocalTime.MIDNIGHT);
+
+        assertEquals(480, s.getWorkedMinutes());
+        assertEquals(480, s.getRegularMinutes());
+        assertEquals(0, s.getOvertimeMinutes());
+        assertEquals(120, s.getNightMinutes());
+        assertEquals(0, s.getHolidayMinutes());
+        assertEquals(80000, s.getRegularPayCentavos());
+        assertEquals(0, s.getHolidayPayCentavos());
+        assertEquals(2000, s.getNightDifferentialPayCentavos());
+    }
+
+    @Test
+    void missingTimeCountsAsNoWork() {
+        ShiftSplitter s = new ShiftSplitter(RATE);
+        s.split((int) LocalDate.of(2024, 6, 3).toEpochDay(), LocalTime.of(8, 0).toSecondOfDay(), AttendanceStore.NONE);
+
+        assertEquals(0, s.getWorkedMinutes());
+        assertEquals(0, s.getNightMinutes());
+        assertEquals(0, s.getRegularPayCentavos());
+    }
+}
@@ -0,0 +1,166 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that records come back from a snapshot unchanged, and that a snapshot is only used
+ * while its source file and codec version still match.
+ */
+class SnapshotCacheTest {
+
+    private static final Path CACHE_DIR = Path.of(System.getProperty("motorph.snapshot.dir", "target/snapshot-cache"));
+
+    @TempDir
+    Path temp;
+
+    // Snapshots are named after their source file, so each test uses its own source name
+    private final String sourceName = "snapshot-test-" + System.nanoTime();
+    private final AtomicInteger parses = new AtomicInteger();
+
+    private record Item(int count, long centavos, double rate, boolean active, String name, String note) {
+    }
+
+    private static SnapshotCache.Codec<Item> codec(int version) {
+        return new SnapshotCache.Codec<>() {
+            @Override
+            public String getName() { return "item"; }
+
+            @Override
+            public int getVersion() { return version; }
+
+            @Override
+            public void write(Item item, SnapshotCache.SnapshotWriter out) throws IOException {
+                out.writeInt(item.count());
+                out.writeLong(item.centavos());
+                out.writeDouble(item.rate());
+                out.writeBoolean(item.active());
+                out.writeString(item.name());
+                out.writeString(item.note());
+            }
+
+            @Override
+            public Item read(SnapshotCache.SnapshotReader in) {
+                return new Item(in.readInt(), in.readLong(), in.readDouble(), in.readBoolean(), in.readString(), in.readString());
+            }
+        };
+    }
+
+    // Parses one item per line of the source file, counting the parses
+    private List<Item> parse(String path) throws IOException {
+        parses.incrementAndGet();
+        List<Item> items = new ArrayList<>();
+        for (String line : Files.readAllLines(Path.of(path))) {
+            items.add(new Item(line.length(), -12345678901L, 0.125, line.isEmpty(), line, line.isEmpty() ? null : "Pasay"));
+        }
+        return items;
+    }
+
+    private List<Item> load(Path source, int codecVersion) throws IOException {
+        return SnapshotCache.loadOrParse(source.toString(), codec(codecVersion), this::parse);
+    }
+
+    private Path source(String content) throws IOException {
+        return Files.writeString(temp.resolve(sourceName + ".txt"), content);
+    }
+
+    private Path snapshot() {
+        return CACHE_DIR.resolve(sourceName + ".txt.item.snap");
+    }
+
+    @AfterEach
+    void deleteSnapshot() throws IOException {
+        Files.deleteIfExists(snapshot());
+    }
+
+    @Test
+    void secondLoadReadsSnapshotWithoutParsing() throws IOException {
+        Path source = source("Dela Cruz\nÑiño\n\nDela Cruz\n");
+        List<Item> parsed = load(source, 1);
+        List<Item> cached = load(source, 1);
+
+        assertEquals(1, parses.get());
+        assertTrue(Files.isRegularFile(snapshot()));
+        assertEquals(parsed, cached);
+        assertNull(cached.get(2).note());
+        assertSame(cached.get(0).name(), cached.get(3).name());  // Strings are deduplicated
+    }
+
+    @Test
+    void changedSourceIsParsedAgain() throws IOException {
+        Path source = source("Reyes\n");
+        FileTime modified = Files.getLastModifiedTime(source);
+        load(source, 1);
+
+        // Same size and modification time; only the content hash differs
+        Files.writeString(source, "Ramos\n");
+        Files.setLastModifiedTime(source, modified);
+        List<Item> items = load(source, 1);
+
+        assertEquals(2, parses.get());
+        assertEquals("Ramos", items.get(0).name());
+        assertEquals(items, load(source, 1));
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    void newCodecVersionIsParsedAgain() throws IOException {
+        Path source = source("Reyes\n");
+        load(source, 1);
+        load(source, 2);
+
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    void corruptSnapshotFallsBackToParsing() throws IOException {
+        Path source = source("Reyes\nSantos\n");
+        List<Item> parsed = load(source, 1);
+        byte[] bytes = Files.readAllBytes(snapshot());
+        Files.write(snapshot(), Arrays.copyOf(bytes, bytes.length - 3));  // Cut into the string table
+
+        assertEquals(parsed, load(source, 1));
+        assertEquals(2, parses.get());
+        assertEquals(parsed, load(source, 1));  // The rewritten snapshot is used again
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    void attendanceStoreRoundTripsThroughSnapshot() throws IOException {
+        Path workbook = temp.resolve(sourceName + ".xlsx");
+        Files.copy(Path.of("src/main/resources/AttendanceRecord.xlsx"), workbook);
+        Path attendanceSnapshot = CACHE_DIR.resolve(sourceName + ".xlsx.attendance.snap");
+        try {
+            AttendanceStore parsed = AttendanceRecord.loadStartupStore(workbook.toString());
+            assertTrue(Files.isRegularFile(attendanceSnapshot));
+            AttendanceStore cached = AttendanceRecord.loadStartupStore(workbook.toString());
+
+            assertEquals(parsed.size(), cached.size());
+            assertEquals(parsed.getEmployeeCount(), cached.getEmployeeCount());
+            assertEquals(parsed.getNameCount(), cached.getNameCount());
+            for (int row = 0; row < parsed.size(); row++) {
+                assertEquals(parsed.getEmployeeId(row), cached.getEmployeeId(row));
+                assertEquals(parsed.getName(row), cached.getName(row));
+                assertEquals(parsed.getEpochDay(row), cached.getEpochDay(row));
+                assertEquals(parsed.getTimeInSecond(row), cached.getTimeInSecond(row));
+                assertEquals(parsed.getTimeOutSecond(row), cached.getTimeOutSecond(row));
+            }
+        } finally {
+            Files.deleteIfExists(attendanceSnapshot);
+        }
+    }
+}
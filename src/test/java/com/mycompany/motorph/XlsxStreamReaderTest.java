@@ -0,0 +1,123 @@
+package com.mycompany.motorph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mycompany.motorph.XlsxStreamReader.SheetRow;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that the SAX reader sees the same cells as POI's XSSFWorkbook DOM, which the loaders
+ * used before streaming.
+ */
+class XlsxStreamReaderTest {
+
+    @TempDir
+    Path temp;
+
+    private static List<SheetRow> stream(String path) throws IOException {
+        List<SheetRow> rows = new ArrayList<>();
+        XlsxStreamReader.readFirstSheet(path, rows::add);
+        return rows;
+    }
+
+    // Compares every streamed row and cell with the DOM of the same workbook
+    private static void assertMatchesDom(String path) throws IOException {
+        List<SheetRow> streamed = stream(path);
+        try (FileInputStream in = new FileInputStream(path); XSSFWorkbook workbook = new XSSFWorkbook(in)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            int index = 0;
+            for (Row row : sheet) {
+                SheetRow streamedRow = streamed.get(index++);
+                assertEquals(row.getRowNum(), streamedRow.getRowNum());
+                int cell = 0;
+                for (Cell domCell : row) {
+                    String at = "cell " + domCell.getAddress() + " of " + path;
+                    assertEquals(domCell.getColumnIndex(), streamedRow.getColumnAt(cell), at);
+                    assertEquals(domCell.getCellType(), streamedRow.getTypeAt(cell), at);
+                    switch (domCell.getCellType()) {
+                        case NUMERIC -> {
+                            assertEquals(domCell.getNumericCellValue(), streamedRow.getNumberAt(cell), at);
+                            assertEquals(DateUtil.isCellDateFormatted(domCell), streamedRow.isDateFormattedAt(cell), at);
+                        }
+                        case STRING -> assertEquals(domCell.getStringCellValue(), streamedRow.getStringAt(cell), at);
+                        case BOOLEAN -> assertEquals(String.valueOf(domCell.getBooleanCellValue()), streamedRow.getStringAt(cell), at);
+                        case FORMULA -> assertEquals(domCell.getCellFormula(), streamedRow.getStringAt(cell), at);
+                        default -> { }
+                    }
+                    cell++;
+                }
+                assertEquals(cell, streamedRow.getCellCount(), "cells of row " + row.getRowNum());
+            }
+            assertEquals(index, streamed.size());
+        }
+    }
+
+    @Test
+    void bundledAttendanceWorkbookMatchesDom() throws IOException {
+        assertMatchesDom("src/main/resources/AttendanceRecord.xlsx");
+    }
+
+    @Test
+    void bundledEmployeeWorkbookMatchesDom() throws IOException {
+        assertMatchesDom("src/main/resources/EmployeeData.xlsx");
+    }
+
+    @Test
+    void sparseRowsAndEveryCellTypeMatchDom() throws IOException {
+        Path file = temp.resolve("cells.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+            Sheet sheet = workbook.createSheet("Punches");
+            // More rows than one hand-over batch, with skipped rows and columns
+            for (int r = 0; r < 1500; r += (r % 10 == 9 ? 3 : 1)) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue(10000 + r);
+                row.createCell(2).setCellValue("Name " + r);
+                Cell date = row.createCell(3);
+                date.setCellValue(LocalDate.of(2024, 1, 1).plusDays(r % 366));
+                date.setCellStyle(dateStyle);
+                row.createCell(5).setCellValue(r % 2 == 0);
+                row.createCell(6).setCellFormula("A" + (r + 1) + "*2");
+                row.createCell(7).setBlank();
+                row.createCell(8).setCellValue(0.5 + r);
+            }
+            workbook.write(out);
+        }
+
+        assertMatchesDom(file.toString());
+        SheetRow first = stream(file.toString()).get(0);
+        assertEquals(CellType.NUMERIC, first.getTypeAt(first.indexOfColumn(3)));
+        assertTrue(first.isDateFormattedAt(first.indexOfColumn(3)));
+        assertFalse(first.isDateFormattedAt(first.indexOfColumn(8)));
+        assertEquals(-1, first.indexOfColumn(1));
+    }
+
+    @Test
+    void missingOrInvalidWorkbookIsAnIOException() throws IOException {
+        Path text = Files.writeString(temp.resolve("punches.xlsx"), "10001,Cruz,Ana\n");
+
+        assertThrows(IOException.class,
+                () -> XlsxStreamReader.readFirstSheet(temp.resolve("missing.xlsx").toString(), row -> { }));
+        assertThrows(IOException.class, () -> XlsxStreamReader.readFirstSheet(text.toString(), row -> { }));
+    }
+}